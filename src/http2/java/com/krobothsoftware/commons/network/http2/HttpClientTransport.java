@@ -0,0 +1,254 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network.http2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.krobothsoftware.commons.network.NetworkHelper.Method;
+import com.krobothsoftware.commons.network.Transport;
+import com.krobothsoftware.commons.network.TransportRequest;
+import com.krobothsoftware.commons.network.TransportResponse;
+
+/**
+ * {@link Transport} sending requests with {@link HttpClient}, which
+ * negotiates HTTP/2 and multiplexes requests to a host over one connection.
+ * Redirects are followed by the transport itself, so
+ * {@link TransportRequest#isFollowRedirects()} is kept per request.
+ * <p>
+ * Connect timeout is the one of the client, the request's read timeout limits
+ * the wait for response headers. Per request proxies aren't supported, set
+ * one on the client with {@link HttpClient.Builder#proxy(java.net.ProxySelector)}
+ * instead. {@link TransportRequest#onConnected()} and
+ * {@link TransportRequest#onRequestSent()} are called once response headers
+ * arrive since the client doesn't report them.
+ * </p>
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class HttpClientTransport implements Transport {
+	private static final int MAX_REDIRECTS = 5;
+	private static final Set<String> RESTRICTED_HEADERS;
+	private final HttpClient client;
+
+	public HttpClientTransport() {
+		this(HttpClient.newBuilder().version(HttpClient.Version.HTTP_2)
+				.followRedirects(HttpClient.Redirect.NEVER).build());
+	}
+
+	/**
+	 * Creates transport with <code>client</code>. It should not follow
+	 * redirects.
+	 * 
+	 * @param client
+	 *            client sending requests
+	 */
+	public HttpClientTransport(final HttpClient client) {
+		this.client = client;
+	}
+
+	public HttpClient getClient() {
+		return client;
+	}
+
+	@Override
+	public TransportResponse send(final TransportRequest request)
+			throws IOException {
+		if (request.getProxy() != null
+				&& request.getProxy().type() != Proxy.Type.DIRECT) throw new IOException(
+				"Per request proxy isn't supported by HttpClientTransport");
+
+		Method method = request.getMethod();
+		byte[] payload = request.getPayload();
+		URL url = request.getUrl();
+		HttpResponse<InputStream> response = null;
+		for (int redirects = 0;; redirects++) {
+			response = send(request, method, url, payload);
+			final int code = response.statusCode();
+			if (!request.isFollowRedirects() || redirects == MAX_REDIRECTS
+					|| !isRedirect(code)) break;
+			final String location = response.headers().firstValue("Location")
+					.orElse(null);
+			if (location == null) break;
+
+			response.body().close();
+			url = new URL(url, location);
+			// same as browsers, POST turns into GET
+			if (code == HttpURLConnection.HTTP_SEE_OTHER
+					|| method == Method.POST) {
+				method = Method.GET;
+				payload = null;
+			}
+		}
+
+		request.onConnected();
+		request.onRequestSent();
+		return new HttpClientResponse(url, response,
+				method == Method.HEAD ? null : response.body());
+	}
+
+	private HttpResponse<InputStream> send(final TransportRequest request,
+			final Method method, final URL url, final byte[] payload)
+			throws IOException {
+		final HttpRequest.Builder builder;
+		try {
+			builder = HttpRequest.newBuilder(url.toURI());
+		} catch (final URISyntaxException e) {
+			throw new IOException("Invalid url " + url, e);
+		}
+		if (request.getReadTimeout() > 0) builder.timeout(Duration
+				.ofMillis(request.getReadTimeout()));
+		for (final Map.Entry<String, String> header : request.getHeaders()
+				.entrySet()) {
+			if (RESTRICTED_HEADERS.contains(header.getKey().toLowerCase()))
+				continue;
+			// payload is dropped on redirect, so is its type
+			if (payload == null
+					&& header.getKey().equalsIgnoreCase("Content-Type")
+					&& request.getPayload() != null) continue;
+			builder.header(header.getKey(), header.getValue());
+		}
+		builder.method(method.name(),
+				payload != null ? HttpRequest.BodyPublishers
+						.ofByteArray(payload) : HttpRequest.BodyPublishers
+						.noBody());
+
+		try {
+			return client.send(builder.build(),
+					HttpResponse.BodyHandlers.ofInputStream());
+		} catch (final HttpTimeoutException e) {
+			final SocketTimeoutException timeout = new SocketTimeoutException(
+					e.getMessage());
+			timeout.initCause(e);
+			throw timeout;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			final InterruptedIOException interrupted = new InterruptedIOException(
+					"Request to " + url + " was interrupted");
+			interrupted.initCause(e);
+			throw interrupted;
+		}
+	}
+
+	private static boolean isRedirect(final int code) {
+		switch (code) {
+		case HttpURLConnection.HTTP_MOVED_PERM:
+		case HttpURLConnection.HTTP_MOVED_TEMP:
+		case HttpURLConnection.HTTP_SEE_OTHER:
+		case 307:
+		case 308:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	static final class HttpClientResponse implements TransportResponse {
+		private final URL url;
+		private final HttpResponse<InputStream> response;
+		private final InputStream body;
+		private final Map<String, List<String>> headers;
+
+		HttpClientResponse(final URL url,
+				final HttpResponse<InputStream> response, final InputStream body)
+				throws IOException {
+			this.url = url;
+			this.response = response;
+			this.body = body;
+			// HEAD has no body to read
+			if (body == null) response.body().close();
+			final Map<String, List<String>> map = new TreeMap<String, List<String>>(
+					String.CASE_INSENSITIVE_ORDER);
+			map.putAll(response.headers().map());
+			headers = Collections.unmodifiableMap(map);
+		}
+
+		@Override
+		public URL getUrl() {
+			return url;
+		}
+
+		@Override
+		public int getStatusCode() {
+			return response.statusCode();
+		}
+
+		@Override
+		public String getResponseMessage() {
+			// HTTP/2 has no reason phrase
+			return null;
+		}
+
+		@Override
+		public String getHeaderField(final String name) {
+			final List<String> values = headers.get(name);
+			if (values == null || values.isEmpty()) return null;
+			return values.get(values.size() - 1);
+		}
+
+		@Override
+		public Map<String, List<String>> getHeaderFields() {
+			return headers;
+		}
+
+		@Override
+		public InputStream getBody() {
+			return body;
+		}
+
+		@Override
+		public void disconnect() {
+			try {
+				response.body().close();
+			} catch (final IOException e) {
+				// closing only cancels the stream
+			}
+		}
+
+		@Override
+		public HttpURLConnection getConnection() {
+			return null;
+		}
+
+	}
+
+	static {
+		RESTRICTED_HEADERS = new HashSet<String>(Arrays.asList("connection",
+				"content-length", "expect", "host", "upgrade"));
+	}
+
+}
@@ -0,0 +1,55 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Authorization of a request, including fetching a challenge.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+@Name("com.krobothsoftware.Authorization")
+@Label("Authorization")
+@Category({ "psn-lib", "Network" })
+@Description("Authorization set up for a request")
+@StackTrace(false)
+public class AuthorizationEvent extends jdk.jfr.Event {
+
+	@Label("Endpoint")
+	public String endpoint;
+
+	@Label("Host")
+	public String host;
+
+	@Label("Correlation Id")
+	public long correlationId;
+
+	@Label("Detail")
+	@Description("How request was authorized, like a digest nonce reused")
+	public String detail;
+
+	@Label("Outcome")
+	public String outcome;
+
+}
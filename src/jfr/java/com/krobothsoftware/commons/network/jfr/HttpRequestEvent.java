@@ -0,0 +1,79 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One attempt of a request, from the start of the attempt until the response
+ * headers are read or it fails.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+@Name("com.krobothsoftware.HttpRequest")
+@Label("HTTP Request")
+@Category({ "psn-lib", "Network" })
+@Description("Attempt of a request until response headers are read")
+@StackTrace(false)
+public class HttpRequestEvent extends jdk.jfr.Event {
+
+	@Label("Endpoint")
+	public String endpoint;
+
+	@Label("URL")
+	public String url;
+
+	@Label("Correlation Id")
+	public long correlationId;
+
+	@Label("Attempt")
+	public int attempt;
+
+	@Label("Status Code")
+	public int statusCode;
+
+	@Label("Outcome")
+	@Description("success, status for 4xx and 5xx, or the exception")
+	public String outcome;
+
+	@Label("Authorization Time")
+	@Timespan(Timespan.NANOSECONDS)
+	public long authorizationTime;
+
+	@Label("Queue Time")
+	@Description("Time waited on the host's rate limiter")
+	@Timespan(Timespan.NANOSECONDS)
+	public long queueTime;
+
+	@Label("Connect Time")
+	@Description("Includes TLS handshake, near zero for reused connections")
+	@Timespan(Timespan.NANOSECONDS)
+	public long connectTime;
+
+	@Label("Time To First Byte")
+	@Description("Time from connected until response headers are read")
+	@Timespan(Timespan.NANOSECONDS)
+	public long firstByteTime;
+
+}
@@ -0,0 +1,204 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network.jfr;
+
+import jdk.jfr.EventType;
+
+import com.krobothsoftware.commons.network.NetworkHelper;
+import com.krobothsoftware.commons.network.RequestEvent;
+import com.krobothsoftware.commons.network.RequestListener;
+
+/**
+ * Emits {@link HttpRequestEvent}, {@link AuthorizationEvent}, and
+ * {@link ParseEvent} to JDK Flight Recorder from {@link RequestEvent}s.
+ * Phases of an attempt happen on one thread, so pending events are kept per
+ * thread. When none of the events are recorded, the listener is inactive and
+ * no {@link RequestEvent} is built. Disabled events aren't allocated.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class JfrRequestListener implements RequestListener {
+	private static final EventType REQUEST_TYPE;
+	private static final EventType AUTHORIZATION_TYPE;
+	private static final EventType PARSE_TYPE;
+	private final ThreadLocal<Pending> pending;
+
+	static {
+		REQUEST_TYPE = EventType.getEventType(HttpRequestEvent.class);
+		AUTHORIZATION_TYPE = EventType.getEventType(AuthorizationEvent.class);
+		PARSE_TYPE = EventType.getEventType(ParseEvent.class);
+	}
+
+	public JfrRequestListener() {
+		pending = new ThreadLocal<Pending>() {
+
+			@Override
+			protected Pending initialValue() {
+				return new Pending();
+			}
+
+		};
+	}
+
+	/**
+	 * Adds new listener to <code>networkHelper</code>.
+	 * 
+	 * @param networkHelper
+	 *            network helper
+	 * @return added listener
+	 */
+	public static JfrRequestListener register(
+			final NetworkHelper networkHelper) {
+		final JfrRequestListener listener = new JfrRequestListener();
+		networkHelper.addRequestListener(listener);
+		return listener;
+	}
+
+	@Override
+	public boolean isActive() {
+		return REQUEST_TYPE.isEnabled() || AUTHORIZATION_TYPE.isEnabled()
+				|| PARSE_TYPE.isEnabled();
+	}
+
+	@Override
+	public void onEvent(final RequestEvent event) {
+		final Pending current = pending.get();
+		switch (event.getType()) {
+		case ATTEMPT:
+			if (!REQUEST_TYPE.isEnabled()) {
+				current.request = null;
+				return;
+			}
+			final HttpRequestEvent request = new HttpRequestEvent();
+			request.begin();
+			request.endpoint = event.getEndpoint();
+			request.url = event.getUrl().toString();
+			request.correlationId = event.getCorrelationId();
+			request.attempt = event.getAttempt();
+			current.request = request;
+			break;
+		case AUTHORIZING:
+			if (!AUTHORIZATION_TYPE.isEnabled()) return;
+			final AuthorizationEvent authorization = new AuthorizationEvent();
+			authorization.begin();
+			current.authorization = authorization;
+			current.phaseStart = event.getNanoTime();
+			break;
+		case AUTHORIZED:
+			commitAuthorization(current, event);
+			break;
+		case QUEUED:
+		case CONNECTING:
+			current.phaseStart = event.getNanoTime();
+			break;
+		case DEQUEUED:
+			if (current.request != null) current.request.queueTime = event
+					.getNanoTime() - current.phaseStart;
+			break;
+		case CONNECTED:
+			if (current.request != null) current.request.connectTime = event
+					.getNanoTime() - current.phaseStart;
+			current.phaseStart = event.getNanoTime();
+			break;
+		case FIRST_BYTE:
+		case FAILED:
+			commitRequest(current, event);
+			break;
+		case PARSING:
+			if (!PARSE_TYPE.isEnabled()) return;
+			final ParseEvent parse = new ParseEvent();
+			parse.begin();
+			current.parse = parse;
+			break;
+		case PARSED:
+			commitParse(current, event);
+			break;
+		default:
+			break;
+		}
+	}
+
+	private static void commitAuthorization(final Pending current,
+			final RequestEvent event) {
+		final AuthorizationEvent authorization = current.authorization;
+		current.authorization = null;
+		final long time = event.getNanoTime() - current.phaseStart;
+		if (current.request != null) current.request.authorizationTime = time;
+		if (authorization == null) return;
+
+		authorization.end();
+		if (!authorization.shouldCommit()) return;
+		authorization.endpoint = event.getEndpoint();
+		authorization.host = event.getUrl().getHost();
+		authorization.correlationId = event.getCorrelationId();
+		authorization.detail = event.getDetail();
+		authorization.outcome = getOutcome(event);
+		authorization.commit();
+	}
+
+	private static void commitRequest(final Pending current,
+			final RequestEvent event) {
+		final HttpRequestEvent request = current.request;
+		current.request = null;
+		if (request == null
+				|| request.correlationId != event.getCorrelationId()) return;
+
+		request.end();
+		if (!request.shouldCommit()) return;
+		request.statusCode = event.getStatusCode();
+		if (event.getType() == RequestEvent.Type.FIRST_BYTE)
+			request.firstByteTime = event.getNanoTime() - current.phaseStart;
+		request.outcome = getOutcome(event);
+		request.commit();
+	}
+
+	private static void commitParse(final Pending current,
+			final RequestEvent event) {
+		final ParseEvent parse = current.parse;
+		current.parse = null;
+		if (parse == null) return;
+
+		parse.end();
+		if (!parse.shouldCommit()) return;
+		parse.endpoint = event.getEndpoint();
+		parse.handler = event.getDetail();
+		parse.correlationId = event.getCorrelationId();
+		parse.bytesRead = event.getDecompressedBytes();
+		parse.items = Math.max(0, event.getItemCount());
+		parse.outcome = getOutcome(event);
+		parse.commit();
+	}
+
+	private static String getOutcome(final RequestEvent event) {
+		if (event.getError() != null) return event.getError().getClass()
+				.getSimpleName();
+		return event.getStatusCode() >= 400 ? "status" : "success";
+	}
+
+	/**
+	 * Events begun but not committed yet on a thread.
+	 */
+	private static final class Pending {
+		HttpRequestEvent request;
+		AuthorizationEvent authorization;
+		ParseEvent parse;
+		long phaseStart;
+	}
+
+}
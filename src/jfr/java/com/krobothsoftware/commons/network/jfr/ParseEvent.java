@@ -0,0 +1,60 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Parse of a response by a handler. The body is streamed while parsing, so
+ * reading it is part of the event.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+@Name("com.krobothsoftware.Parse")
+@Label("Parse")
+@Category({ "psn-lib", "Parse" })
+@Description("Response parsed by a handler")
+@StackTrace(false)
+public class ParseEvent extends jdk.jfr.Event {
+
+	@Label("Endpoint")
+	public String endpoint;
+
+	@Label("Handler")
+	public String handler;
+
+	@Label("Correlation Id")
+	public long correlationId;
+
+	@Label("Bytes Read")
+	@DataAmount
+	public long bytesRead;
+
+	@Label("Items")
+	public int items;
+
+	@Label("Outcome")
+	public String outcome;
+
+}
@@ -0,0 +1,48 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Call of a {@link com.krobothsoftware.psn.client.PlayStationNetworkClient}
+ * method, including its requests and parses.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+@Name("com.krobothsoftware.ClientCall")
+@Label("Client Call")
+@Category({ "psn-lib", "Client" })
+@Description("Call of a PlayStationNetworkClient method")
+public class ClientCallEvent extends jdk.jfr.Event {
+
+	@Label("Method")
+	public String method;
+
+	@Label("Endpoint")
+	public String endpoint;
+
+	@Label("Outcome")
+	@Description("success, or the exception")
+	public String outcome;
+
+}
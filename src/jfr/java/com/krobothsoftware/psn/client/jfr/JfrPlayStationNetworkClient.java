@@ -0,0 +1,400 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.client.jfr;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.krobothsoftware.commons.network.NetworkHelper;
+import com.krobothsoftware.commons.network.jfr.JfrRequestListener;
+import com.krobothsoftware.commons.parse.Parser;
+import com.krobothsoftware.commons.progress.ProgressListener;
+import com.krobothsoftware.psn.PlatformType;
+import com.krobothsoftware.psn.PlayStationNetworkException;
+import com.krobothsoftware.psn.PlayStationNetworkLoginException;
+import com.krobothsoftware.psn.client.PlayStationNetworkClient;
+import com.krobothsoftware.psn.model.PsnFriendData;
+import com.krobothsoftware.psn.model.PsnGameData;
+import com.krobothsoftware.psn.model.PsnGameDataOfficial;
+import com.krobothsoftware.psn.model.PsnProfileData;
+import com.krobothsoftware.psn.model.PsnTrophyData;
+import com.krobothsoftware.psn.model.PsnTrophyDataOfficial;
+
+/**
+ * {@link PlayStationNetworkClient} emitting a {@link ClientCallEvent} for each
+ * public call, and request, authorization, and parse events through a
+ * {@link JfrRequestListener}. Calls made by other calls, like
+ * {@link #getOfficialTrophyList(String, String)}, show as nested events.
+ * Needs Java 11 or later.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class JfrPlayStationNetworkClient extends PlayStationNetworkClient {
+
+	/**
+	 * Creates new client with its own {@link NetworkHelper} and
+	 * {@link Parser}.
+	 */
+	public JfrPlayStationNetworkClient() {
+		super();
+		JfrRequestListener.register(getNetworkHelper());
+	}
+
+	/**
+	 * Creates new client sharing <code>networkHelper</code> and
+	 * <code>parser</code>. A {@link JfrRequestListener} is added to
+	 * <code>networkHelper</code>, so only one should be created per helper.
+	 * 
+	 * @param networkHelper
+	 *            network helper
+	 * @param parser
+	 *            parser
+	 */
+	public JfrPlayStationNetworkClient(final NetworkHelper networkHelper,
+			final Parser parser) {
+		super(networkHelper, parser);
+		JfrRequestListener.register(networkHelper);
+	}
+
+	@Override
+	public String clientLogin(final String username,
+			final String password, final ProgressListener progressListener)
+			throws IOException, PlayStationNetworkException,
+			PlayStationNetworkLoginException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.clientLogin(username, password, progressListener);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "clientLogin", null, error);
+		}
+	}
+
+	@Override
+	public List<PsnFriendData> getClientFriendList()
+			throws PlayStationNetworkException,
+			PlayStationNetworkLoginException, IOException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getClientFriendList();
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getClientFriendList", ENDPOINT_UK_FRIENDS, error);
+		}
+	}
+
+	@Override
+	public List<PsnGameData> getClientGameList() throws IOException,
+			PlayStationNetworkException, PlayStationNetworkLoginException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getClientGameList();
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getClientGameList", ENDPOINT_UK_GAMES, error);
+		}
+	}
+
+	@Override
+	public List<PsnTrophyData> getClientTrophyList(final String titleLinkId)
+			throws PlayStationNetworkException,
+			PlayStationNetworkLoginException, IOException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getClientTrophyList(titleLinkId);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getClientTrophyList", ENDPOINT_UK_TROPHIES, error);
+		}
+	}
+
+	@Override
+	public List<PsnGameData> getClientFriendGameList(final String friendPsnId)
+			throws IOException, PlayStationNetworkException,
+			PlayStationNetworkLoginException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getClientFriendGameList(friendPsnId);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getClientFriendGameList", ENDPOINT_UK_FRIEND_GAMES,
+					error);
+		}
+	}
+
+	@Override
+	public List<PsnTrophyData> getClientFriendTrophyList(
+			final String friendPsnId, final String titleLinkId)
+			throws IOException, PlayStationNetworkException,
+			PlayStationNetworkLoginException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getClientFriendTrophyList(friendPsnId, titleLinkId);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getClientFriendTrophyList", ENDPOINT_UK_FRIEND_TROPHIES,
+					error);
+		}
+	}
+
+	@Override
+	public List<PsnGameData> getPublicGameList(final String psnId)
+			throws PlayStationNetworkException, IOException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getPublicGameList(psnId);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getPublicGameList", ENDPOINT_US_GAMES, error);
+		}
+	}
+
+	@Override
+	public List<PsnTrophyData> getPublicTrophyList(final String psnId,
+			final String titleLinkId, String gameId) throws IOException,
+			PlayStationNetworkException, PlayStationNetworkLoginException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getPublicTrophyList(psnId, titleLinkId, gameId);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getPublicTrophyList", ENDPOINT_US_TROPHIES, error);
+		}
+	}
+
+	@Override
+	public PsnProfileData getOfficialProfile(final String jid)
+			throws PlayStationNetworkException, IOException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getOfficialProfile(jid);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getOfficialProfile", ENDPOINT_PROFILE, error);
+		}
+	}
+
+	@Override
+	public String getOfficialFirmwareVersion(final PlatformType platform)
+			throws IOException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getOfficialFirmwareVersion(platform);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getOfficialFirmwareVersion", ENDPOINT_FIRMWARE, error);
+		}
+	}
+
+	@Override
+	public String getOfficialJid(final String psnId) throws IOException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getOfficialJid(psnId);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getOfficialJid", ENDPOINT_SEARCH_JID, error);
+		}
+	}
+
+	@Override
+	public List<PsnGameDataOfficial> getOfficialGameList(final String jid,
+			final int start, final int max, final PlatformType... platforms)
+			throws IOException, PlayStationNetworkException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getOfficialGameList(jid, start, max, platforms);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getOfficialGameList", ENDPOINT_TITLE_LIST, error);
+		}
+	}
+
+	@Override
+	public List<PsnTrophyDataOfficial> getOfficialTrophyList(final String jid,
+			final String gameId) throws IOException,
+			PlayStationNetworkException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getOfficialTrophyList(jid, gameId);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getOfficialTrophyList", ENDPOINT_TROPHIES, error);
+		}
+	}
+
+	@Override
+	public Map<String, List<PsnTrophyDataOfficial>> getOfficialTrophyLists(
+			final String jid, final Collection<String> gameIds)
+			throws IOException, PlayStationNetworkException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getOfficialTrophyLists(jid, gameIds);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getOfficialTrophyLists", ENDPOINT_TROPHIES, error);
+		}
+	}
+
+	@Override
+	public Map<String, List<PsnTrophyDataOfficial>> getOfficialTrophyLists(
+			final String jid, final Collection<String> gameIds,
+			final int batchSize) throws IOException,
+			PlayStationNetworkException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getOfficialTrophyLists(jid, gameIds, batchSize);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getOfficialTrophyLists", ENDPOINT_TROPHIES, error);
+		}
+	}
+
+	@Override
+	public List<PsnTrophyDataOfficial> getOfficialLatestTrophyList(
+			final String jid, final int max, final PlatformType... platforms)
+			throws PlayStationNetworkException, IOException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getOfficialLatestTrophyList(jid, max, platforms);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getOfficialLatestTrophyList", ENDPOINT_TROPHIES, error);
+		}
+	}
+
+	@Override
+	public List<PsnTrophyDataOfficial> getOfficialTrophyListSince(
+			final String jid, final int max, final String since,
+			final PlatformType... platforms) throws IOException,
+			PlayStationNetworkException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			return super.getOfficialTrophyListSince(jid, max, since, platforms);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "getOfficialTrophyListSince", ENDPOINT_TROPHIES, error);
+		}
+	}
+
+	@Override
+	public void loginUK(final String username,
+			final String password, final ProgressListener progressListener)
+			throws IOException, PlayStationNetworkException,
+			PlayStationNetworkLoginException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			super.loginUK(username, password, progressListener);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "loginUK", null, error);
+		}
+	}
+
+	@Override
+	public void loginUS(final String username,
+			final String password, final ProgressListener progressListener)
+			throws IOException, PlayStationNetworkException,
+			PlayStationNetworkLoginException {
+		final ClientCallEvent event = begin();
+		Throwable error = null;
+		try {
+			super.loginUS(username, password, progressListener);
+		} catch (final Throwable t) {
+			error = t;
+			throw t;
+		} finally {
+			end(event, "loginUS", null, error);
+		}
+	}
+
+	private static ClientCallEvent begin() {
+		final ClientCallEvent event = new ClientCallEvent();
+		event.begin();
+		return event;
+	}
+
+	private static void end(final ClientCallEvent event, final String method,
+			final String endpoint, final Throwable error) {
+		event.end();
+		if (!event.shouldCommit()) return;
+		event.method = method;
+		event.endpoint = endpoint;
+		event.outcome = error != null ? error.getClass().getSimpleName()
+				: "success";
+		event.commit();
+	}
+
+}
@@ -0,0 +1,70 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Loads synthetic responses from <code>fixtures</code> resources. Fixtures are
+ * kept in memory so benchmarks don't measure disk reads.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public final class Fixtures {
+
+	private Fixtures() {
+
+	}
+
+	/**
+	 * Loads fixture.
+	 * 
+	 * @param name
+	 *            file name in <code>fixtures</code>
+	 * @return content
+	 * @throws IOException
+	 *             if fixture is missing
+	 */
+	public static byte[] load(final String name) throws IOException {
+		final InputStream in = Fixtures.class.getResourceAsStream("/fixtures/"
+				+ name);
+		if (in == null) throw new IOException("Missing fixture " + name);
+		try {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+			final byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1)
+				out.write(buffer, 0, read);
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Gets new stream over fixture content.
+	 */
+	public static InputStream stream(final byte[] content) {
+		return new ByteArrayInputStream(content);
+	}
+
+}
@@ -0,0 +1,91 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.krobothsoftware.commons.network.values.Cookie;
+
+/**
+ * {@link CookieManager#setupCookies(HttpURLConnection)} with many stored
+ * domains, and {@link Cookie#parseCookie(URL, String)}.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CookieBenchmark {
+	private static final String SET_COOKIE = "PSNS2STICKET=b2ZmaWNpYWwtdGlja2V0LXZhbHVl; Domain=.playstation.com; Path=/; Expires=Wed, 09 Jun 2027 10:18:14 GMT; Secure; HttpOnly";
+
+	@Param({ "10", "100", "1000" })
+	int domains;
+
+	CookieManager cookieManager;
+	HttpURLConnection connection;
+	URL url;
+
+	@Setup
+	public void setup() throws Exception {
+		cookieManager = new CookieManager();
+		for (int i = 0; i < domains; i++) {
+			for (int j = 0; j < 3; j++)
+				cookieManager.putCookie(new Cookie.Builder()
+						.setName("cookie" + j).setValue("value" + i)
+						.setDomain("host" + i + ".example.com").setPath("/")
+						.build());
+		}
+		cookieManager.putCookie(new Cookie.Builder().setName("TICKET")
+				.setValue("*").setDomain(".playstation.com").setPath("/")
+				.build());
+
+		url = new URL("http://us.playstation.com/playstation/psn/profile/");
+		// never connected, only request properties are set
+		connection = (HttpURLConnection) url.openConnection();
+	}
+
+	@Benchmark
+	public HttpURLConnection setupCookies() {
+		cookieManager.setupCookies(connection);
+		return connection;
+	}
+
+	@Benchmark
+	public Cookie parseCookie() {
+		return Cookie.parseCookie(url, SET_COOKIE);
+	}
+
+}
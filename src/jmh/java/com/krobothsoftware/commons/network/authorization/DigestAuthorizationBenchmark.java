@@ -0,0 +1,97 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network.authorization;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.krobothsoftware.commons.network.NetworkHelper;
+import com.krobothsoftware.commons.network.NetworkHelper.Method;
+import com.krobothsoftware.commons.network.RequestBuilder;
+
+/**
+ * {@link DigestAuthorization} header creation with a stored challenge, from
+ * one thread and from several sharing the authorization.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DigestAuthorizationBenchmark {
+	private static final String CHALLENGE = "Digest realm=\"c7y-basic01\", nonce=\"8yBUqFh3BAA=0b6a3b4a2fd0bdac9fc3e2b06ad3c1ba0bd4efa6\", algorithm=MD5, qop=\"auth\"";
+
+	DigestAuthorization auth;
+	URL url;
+
+	/**
+	 * Requests aren't thread-safe, so each thread sets up its own.
+	 */
+	@State(Scope.Thread)
+	public static class Request {
+		RequestBuilder request;
+
+		@Setup
+		public void setup(final DigestAuthorizationBenchmark benchmark) {
+			request = new RequestBuilder(Method.POST, benchmark.url);
+		}
+	}
+
+	@Setup
+	public void setup() throws Exception {
+		url = new URL(
+				"https://trophy.ww.np.community.playstation.net/trophy/func/get_title_list");
+		auth = new DigestAuthorization("c7y-basic01", "password");
+		auth.setNonceStore(new DigestNonceStore());
+		// sets logger and network helper of authorization
+		new NetworkHelper().getAuthorizationManager().addAuthorization(url,
+				auth);
+		auth.onChallenge(new RequestBuilder(Method.POST, url), CHALLENGE);
+	}
+
+	@Benchmark
+	public RequestBuilder createHeader(final Request request) throws Exception {
+		auth.setup(request.request);
+		return request.request;
+	}
+
+	@Benchmark
+	@Threads(4)
+	public RequestBuilder createHeaderShared(final Request request)
+			throws Exception {
+		auth.setup(request.request);
+		return request.request;
+	}
+
+}
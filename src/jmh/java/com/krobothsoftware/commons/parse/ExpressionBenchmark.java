@@ -0,0 +1,142 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.parse;
+
+import static com.krobothsoftware.benchmark.Fixtures.load;
+import static com.krobothsoftware.benchmark.Fixtures.stream;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+
+/**
+ * {@link Expression#parse(String)} and matching by {@link ExpressionHandler}
+ * over a synthetic trophy page. Matching is measured with parsing stopped at
+ * the end of the expression's region, with its paths searched at once, and
+ * with the whole page parsed.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpressionBenchmark {
+	private static final String TROPHY_EXPRESSION = "/div[@class='gameLogoImage']/img/&&/div[@class='gamelevelListingContainer']/div[2]";
+	private static final Expression EXPRESSION = Expression
+			.parse(TROPHY_EXPRESSION);
+	// same paths, both searched from the start
+	private static final Expression SIMULTANEOUS = Expression
+			.parse(TROPHY_EXPRESSION.replace("&&", "||"));
+
+	Parser parser;
+	byte[] page;
+
+	/**
+	 * Counts elements inside expression's paths.
+	 */
+	static class CountingHandler extends HandlerHtml implements
+			ExpressionFilter {
+		private final boolean stop;
+		private final Expression expression;
+		int elements;
+
+		CountingHandler(final boolean stop, final Expression expression) {
+			this.stop = stop;
+			this.expression = expression;
+		}
+
+		@Override
+		public Expression getExpression() {
+			return expression;
+		}
+
+		@Override
+		public void startElement(final int expr, final String uri,
+				final String localName, final String qName,
+				final Attributes attributes) throws SAXException {
+			elements++;
+		}
+
+		@Override
+		public boolean endElement(final int expr, final String uri,
+				final String localName, final String qName)
+				throws SAXException {
+			return true;
+		}
+
+		@Override
+		public void characters(final int expr, final char[] ch,
+				final int start, final int length) throws SAXException {
+
+		}
+
+		@Override
+		protected void endRegion(final int expr) throws SAXException {
+			if (stop) super.endRegion(expr);
+		}
+
+	}
+
+	@Setup
+	public void setup() throws Exception {
+		parser = new Parser();
+		page = load("uk-trophy.html");
+	}
+
+	@Benchmark
+	public Expression parseExpression() {
+		return Expression.parse(TROPHY_EXPRESSION);
+	}
+
+	@Benchmark
+	public int matchStopAtRegionEnd() throws Exception {
+		final CountingHandler handler = new CountingHandler(true, EXPRESSION);
+		parser.parse(stream(page), handler, "UTF-8");
+		return handler.elements;
+	}
+
+	@Benchmark
+	public int matchSimultaneous() throws Exception {
+		final CountingHandler handler = new CountingHandler(true, SIMULTANEOUS);
+		parser.parse(stream(page), handler, "UTF-8");
+		return handler.elements;
+	}
+
+	@Benchmark
+	public int matchWholePage() throws Exception {
+		final CountingHandler handler = new CountingHandler(false, EXPRESSION);
+		parser.parse(stream(page), handler, "UTF-8");
+		return handler.elements;
+	}
+
+}
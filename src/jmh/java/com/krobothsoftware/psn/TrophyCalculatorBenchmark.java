@@ -0,0 +1,95 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link TrophyCalculator} over points spread across all levels. Each
+ * operation covers every sample, so results are per 256 profiles.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrophyCalculatorBenchmark {
+	private static final int SAMPLES = 256;
+
+	int[] points;
+	int[] levels;
+
+	@Setup
+	public void setup() {
+		points = new int[SAMPLES];
+		levels = new int[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			// up to level 40 or so
+			points[i] = i * 1500;
+			levels[i] = TrophyCalculator.getLevel(points[i]);
+		}
+	}
+
+	@Benchmark
+	public int getLevel() {
+		int sum = 0;
+		for (final int point : points)
+			sum += TrophyCalculator.getLevel(point);
+		return sum;
+	}
+
+	@Benchmark
+	public double getProgress() {
+		double sum = 0;
+		for (final int point : points)
+			sum += TrophyCalculator.getProgress(point);
+		return sum;
+	}
+
+	@Benchmark
+	public int getLevelPoints() {
+		int sum = 0;
+		for (final int level : levels)
+			sum += TrophyCalculator.getLevelPoints(level);
+		return sum;
+	}
+
+	@Benchmark
+	public int getTrophyPoints() {
+		int sum = 0;
+		for (int i = 0; i < SAMPLES; i++)
+			sum += TrophyCalculator.getTrophyPoints(i, i >> 1, i >> 2, i >> 4);
+		return sum;
+	}
+
+}
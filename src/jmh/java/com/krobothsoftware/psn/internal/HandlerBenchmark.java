@@ -0,0 +1,224 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.internal;
+
+import static com.krobothsoftware.benchmark.Fixtures.load;
+import static com.krobothsoftware.benchmark.Fixtures.stream;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.krobothsoftware.commons.parse.Handler;
+import com.krobothsoftware.commons.parse.Parser;
+import com.krobothsoftware.psn.model.PsnFriendData;
+import com.krobothsoftware.psn.model.PsnGameData;
+import com.krobothsoftware.psn.model.PsnGameDataOfficial;
+import com.krobothsoftware.psn.model.PsnProfileData;
+import com.krobothsoftware.psn.model.PsnTrophyData;
+import com.krobothsoftware.psn.model.PsnTrophyDataOfficial;
+
+/**
+ * {@link Parser#parse(java.io.InputStream, Handler, String)} with every
+ * handler over synthetic fixtures shaped like the official XML and the UK and
+ * US pages. Official XML is parsed by both the SAX and pull handlers.
+ * {@link BytesRead} reports how much of each page was read, which drops for
+ * handlers that stop at the end of their data. Pages end with a short footer,
+ * so the drop is smaller than on a full page.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlerBenchmark {
+	private static final String CHARSET = "UTF-8";
+
+	Parser parser;
+	byte[] officialTrophy;
+	byte[] officialGame;
+	byte[] officialProfile;
+	byte[] officialFriend;
+	byte[] ukGame;
+	byte[] ukTrophy;
+	byte[] usGame;
+	byte[] usTrophy;
+	byte[] friendGame;
+	byte[] friendTrophy;
+
+	/**
+	 * Bytes read from pages, per operation.
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class BytesRead {
+		public long bytesRead;
+
+		@Setup(Level.Iteration)
+		public void clear() {
+			bytesRead = 0;
+		}
+
+		void add(final Handler handler) {
+			bytesRead += handler.getBytesRead();
+		}
+	}
+
+	@Setup
+	public void setup() throws Exception {
+		parser = new Parser();
+		officialTrophy = load("official-trophy.xml");
+		officialGame = load("official-game.xml");
+		officialProfile = load("official-profile.xml");
+		officialFriend = load("official-friend.xml");
+		ukGame = load("uk-game.html");
+		ukTrophy = load("uk-trophy.html");
+		usGame = load("us-game.html");
+		usTrophy = load("us-trophy.html");
+		friendGame = load("friend-game.html");
+		friendTrophy = load("friend-trophy.html");
+	}
+
+	@Benchmark
+	public List<PsnTrophyDataOfficial> officialTrophySax() throws Exception {
+		final HandlerXmlTrophy handler = new HandlerXmlTrophy("jid");
+		parser.parse(stream(officialTrophy), handler, CHARSET);
+		return handler.getTrophyList();
+	}
+
+	@Benchmark
+	public List<PsnTrophyDataOfficial> officialTrophyPull() throws Exception {
+		final HandlerPullTrophy handler = new HandlerPullTrophy("jid");
+		parser.parse(stream(officialTrophy), handler, CHARSET);
+		return handler.getTrophyList();
+	}
+
+	@Benchmark
+	public List<PsnGameDataOfficial> officialGameSax() throws Exception {
+		final HandlerXmlGame handler = new HandlerXmlGame("jid");
+		parser.parse(stream(officialGame), handler, CHARSET);
+		return handler.getGames();
+	}
+
+	@Benchmark
+	public List<PsnGameDataOfficial> officialGamePull() throws Exception {
+		final HandlerPullGame handler = new HandlerPullGame("jid");
+		parser.parse(stream(officialGame), handler, CHARSET);
+		return handler.getGames();
+	}
+
+	@Benchmark
+	public PsnProfileData officialProfileSax() throws Exception {
+		final HandlerXmlProfile handler = new HandlerXmlProfile();
+		parser.parse(stream(officialProfile), handler, CHARSET);
+		return handler.getProfile();
+	}
+
+	@Benchmark
+	public PsnProfileData officialProfilePull() throws Exception {
+		final HandlerPullProfile handler = new HandlerPullProfile();
+		parser.parse(stream(officialProfile), handler, CHARSET);
+		return handler.getProfile();
+	}
+
+	@Benchmark
+	public List<PsnFriendData> officialFriendSax() throws Exception {
+		final HandlerXmlFriend handler = new HandlerXmlFriend();
+		parser.parse(stream(officialFriend), handler, CHARSET);
+		return handler.getFriendList();
+	}
+
+	@Benchmark
+	public List<PsnFriendData> officialFriendPull() throws Exception {
+		final HandlerPullFriend handler = new HandlerPullFriend();
+		parser.parse(stream(officialFriend), handler, CHARSET);
+		return handler.getFriendList();
+	}
+
+	@Benchmark
+	public List<PsnGameData> ukGame(final BytesRead bytes) throws Exception {
+		final HandlerHtmlUKGame handler = new HandlerHtmlUKGame("psnId");
+		parser.parse(stream(ukGame), handler, CHARSET);
+		bytes.add(handler);
+		return handler.getGameList();
+	}
+
+	@Benchmark
+	public List<PsnTrophyData> ukTrophy(final BytesRead bytes)
+			throws Exception {
+		final HandlerHtmlUKTrophy handler = new HandlerHtmlUKTrophy("psnId");
+		parser.parse(stream(ukTrophy), handler, CHARSET);
+		bytes.add(handler);
+		return handler.getTrophyList();
+	}
+
+	@Benchmark
+	public List<PsnGameData> usGame(final BytesRead bytes) throws Exception {
+		final HandlerHtmlUSGame handler = new HandlerHtmlUSGame("psnId");
+		parser.parse(stream(usGame), handler, CHARSET);
+		bytes.add(handler);
+		return handler.getGames();
+	}
+
+	@Benchmark
+	public List<PsnTrophyData> usTrophy(final BytesRead bytes)
+			throws Exception {
+		final HandlerHtmlUSTrophy handler = new HandlerHtmlUSTrophy("psnId",
+				"NPWR00100_00");
+		parser.parse(stream(usTrophy), handler, CHARSET);
+		bytes.add(handler);
+		return handler.getTrophies();
+	}
+
+	@Benchmark
+	public List<PsnGameData> friendGame(final BytesRead bytes)
+			throws Exception {
+		final HandlerHtmlFriendGame handler = new HandlerHtmlFriendGame(
+				"psnId");
+		parser.parse(stream(friendGame), handler, CHARSET);
+		bytes.add(handler);
+		return handler.getGameList();
+	}
+
+	@Benchmark
+	public List<PsnTrophyData> friendTrophy(final BytesRead bytes)
+			throws Exception {
+		final HandlerHtmlFriendTrophy handler = new HandlerHtmlFriendTrophy(
+				"psnId");
+		parser.parse(stream(friendTrophy), handler, CHARSET);
+		bytes.add(handler);
+		return handler.getTrophyList();
+	}
+
+}
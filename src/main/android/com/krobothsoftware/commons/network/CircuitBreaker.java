@@ -0,0 +1,207 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops requests to a host that keeps failing. A failure is a connection
+ * error, timeout, or 5xx response.
+ * 
+ * <p>
+ * Breaker starts {@link State#CLOSED}, letting requests through and recording
+ * the outcome of the last <code>windowSize</code> requests. Once the window is
+ * full and the failure rate reaches the threshold, breaker goes
+ * {@link State#OPEN} and requests fail right away with
+ * {@link CircuitBreakerOpenException}. After the open duration breaker goes
+ * {@link State#HALF_OPEN} and lets a few probe requests through. If they all
+ * succeed breaker closes, if any fails it opens again.
+ * </p>
+ * 
+ * <p>
+ * State changes are sent to
+ * {@link ConnectionListener#onCircuitStateChange(String, State)}.
+ * CircuitBreaker is thread-safe.
+ * </p>
+ * 
+ * @see NetworkHelper#setCircuitBreaker(String, float, int, long, TimeUnit)
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class CircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN;
+	}
+
+	private final NetworkHelper networkHelper;
+	private final String host;
+	private final float failureRate;
+	private final boolean[] window;
+	private final long openDuration;
+	private volatile int halfOpenProbes;
+	private State state;
+	private int position;
+	private int recorded;
+	private int failures;
+	private long openUntil;
+	private int probesInFlight;
+	private int probeSuccesses;
+
+	CircuitBreaker(final NetworkHelper networkHelper, final String host,
+			final float failureRate, final int windowSize,
+			final long openDuration, final TimeUnit unit) {
+		if (failureRate <= 0 || failureRate > 1) throw new IllegalArgumentException(
+				"failure rate must be greater than 0 and at most 1");
+		if (windowSize <= 0) throw new IllegalArgumentException(
+				"window size must be greater than 0");
+		this.networkHelper = networkHelper;
+		this.host = host;
+		this.failureRate = failureRate;
+		window = new boolean[windowSize];
+		this.openDuration = unit.toNanos(openDuration);
+		halfOpenProbes = 1;
+		state = State.CLOSED;
+	}
+
+	/**
+	 * Sets amount of successful probes needed to close breaker.
+	 * 
+	 * @param probes
+	 *            probe requests, at least 1
+	 */
+	public void setHalfOpenProbes(final int probes) {
+		halfOpenProbes = Math.max(1, probes);
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public synchronized State getState() {
+		return state;
+	}
+
+	/**
+	 * Gets failure rate of recorded window.
+	 * 
+	 * @return failure rate, from 0 to 1
+	 */
+	public synchronized float getFailureRate() {
+		return recorded == 0 ? 0 : (float) failures / recorded;
+	}
+
+	/**
+	 * Checks if a request may be sent, taking a probe slot while half-open.
+	 * Every allowed request must be finished with {@link #onSuccess()},
+	 * {@link #onFailure()}, or {@link #onCancel()}.
+	 * 
+	 * @return true, if request may be sent
+	 */
+	boolean allowRequest() {
+		State changed = null;
+		boolean allowed;
+		synchronized (this) {
+			if (state == State.OPEN && System.nanoTime() - openUntil >= 0) {
+				changed = transition(State.HALF_OPEN);
+			}
+
+			if (state == State.HALF_OPEN) {
+				allowed = probesInFlight + probeSuccesses < halfOpenProbes;
+				if (allowed) probesInFlight++;
+			} else
+				allowed = state == State.CLOSED;
+		}
+
+		notifyChange(changed);
+		return allowed;
+	}
+
+	void onSuccess() {
+		State changed = null;
+		synchronized (this) {
+			if (state == State.HALF_OPEN) {
+				probesInFlight--;
+				if (++probeSuccesses >= halfOpenProbes) changed = transition(
+						State.CLOSED);
+			} else if (state == State.CLOSED) record(false);
+		}
+
+		notifyChange(changed);
+	}
+
+	void onFailure() {
+		State changed = null;
+		synchronized (this) {
+			if (state == State.HALF_OPEN) {
+				probesInFlight--;
+				changed = transition(State.OPEN);
+			} else if (state == State.CLOSED) {
+				record(true);
+				if (recorded == window.length
+						&& (float) failures / recorded >= failureRate) changed = transition(
+						State.OPEN);
+			}
+		}
+
+		notifyChange(changed);
+	}
+
+	/**
+	 * Frees probe slot of a request that wasn't sent.
+	 */
+	synchronized void onCancel() {
+		if (state == State.HALF_OPEN && probesInFlight > 0) probesInFlight--;
+	}
+
+	private void record(final boolean failure) {
+		if (recorded == window.length) {
+			if (window[position]) failures--;
+		} else
+			recorded++;
+		window[position] = failure;
+		if (failure) failures++;
+		position = (position + 1) % window.length;
+	}
+
+	private State transition(final State newState) {
+		state = newState;
+		switch (newState) {
+		case OPEN:
+			openUntil = System.nanoTime() + openDuration;
+			break;
+		case HALF_OPEN:
+			probesInFlight = 0;
+			probeSuccesses = 0;
+			break;
+		case CLOSED:
+			position = 0;
+			recorded = 0;
+			failures = 0;
+			break;
+		}
+		return newState;
+	}
+
+	private void notifyChange(final State changed) {
+		if (changed == null) return;
+		networkHelper.log.warn("Circuit {} for {}", changed, host);
+		networkHelper.connListener.onCircuitStateChange(host, changed);
+	}
+
+}
@@ -0,0 +1,42 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link RequestBuilder#execute(NetworkHelper)} when the host's
+ * {@link CircuitBreaker} is open and the request wasn't sent.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class CircuitBreakerOpenException extends IOException {
+	private static final long serialVersionUID = 2186329584914106338L;
+	private final String host;
+
+	public CircuitBreakerOpenException(final String host) {
+		super("circuit open for " + host);
+		this.host = host;
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+}
@@ -0,0 +1,49 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import com.krobothsoftware.commons.network.CircuitBreaker.State;
+
+/**
+ * Empty {@link ConnectionListener}. Extend and override only the events
+ * needed.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public abstract class ConnectionAdapter implements ConnectionListener {
+
+	@Override
+	public void onRequest(final RequestBuilder builder) {
+
+	}
+
+	@Override
+	public void onFinish(final URL url, final HttpURLConnection connection) {
+
+	}
+
+	@Override
+	public void onCircuitStateChange(final String host, final State state) {
+
+	}
+
+}
@@ -20,10 +20,13 @@ package com.krobothsoftware.commons.network;
 import java.net.HttpURLConnection;
 import java.net.URL;
 
+import com.krobothsoftware.commons.network.CircuitBreaker.State;
+
 /**
- * Listener for connections
+ * Listener for connections. Extend {@link ConnectionAdapter} to only listen to
+ * some events.
  * 
- * @version 3.0.1
+ * @version 3.1
  * @since Dec 1 2012
  * @author Kyle Kroboth
  * 
@@ -42,7 +45,20 @@ public interface ConnectionListener {
 	 * 
 	 * @param url
 	 * @param connection
+	 *            connection, null if the request failed before a response
+	 *            or the {@link Transport} doesn't use
+	 *            {@link HttpURLConnection}
 	 */
 	void onFinish(final URL url, final HttpURLConnection connection);
 
+	/**
+	 * Called when the {@link CircuitBreaker} of a host changes state.
+	 * 
+	 * @param host
+	 *            host of breaker
+	 * @param state
+	 *            new state
+	 */
+	void onCircuitStateChange(final String host, final State state);
+
 }
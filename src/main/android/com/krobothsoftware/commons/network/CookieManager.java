@@ -20,9 +20,11 @@ package com.krobothsoftware.commons.network;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,21 +34,21 @@ import com.krobothsoftware.commons.util.CommonUtils;
 
 /**
  * CookieManager stores, and sends HTTP Cookies through
- * {@link java.net.HttpURLConnection}.
+ * {@link java.net.HttpURLConnection}. Cookies are kept in concurrent
+ * collections so one manager can be shared by connections on many threads.
+ * Reading cookies never locks; storing a cookie only locks its domain list.
  * 
- * @version 3.0
+ * @version 3.1
  * @since Nov 25 2012
  * @author Kyle Kroboth
  */
 public class CookieManager {
-	private final Map<String, List<Cookie>> cookieMap;
-	private final List<String> domainList;
+	private final ConcurrentMap<String, List<Cookie>> cookieMap;
 	private final Logger log;
 
 	public CookieManager() {
 		log = LoggerFactory.getLogger(CookieManager.class);
-		cookieMap = new HashMap<String, List<Cookie>>();
-		domainList = new ArrayList<String>();
+		cookieMap = new ConcurrentHashMap<String, List<Cookie>>();
 	}
 
 	/**
@@ -72,13 +74,15 @@ public class CookieManager {
 		final String domain = cookie.getDomain();
 		log.debug("Storing [{}]", cookie);
 
-		if (cookieMap.get(domain) == null) {
-			final ArrayList<Cookie> list = new ArrayList<Cookie>();
-			list.add(cookie);
-			cookieMap.put(domain, list);
-			domainList.add(domain);
-		} else {
-			final List<Cookie> cookieList = cookieMap.get(domain);
+		List<Cookie> cookieList = cookieMap.get(domain);
+		if (cookieList == null) {
+			final List<Cookie> list = new CopyOnWriteArrayList<Cookie>();
+			cookieList = cookieMap.putIfAbsent(domain, list);
+			if (cookieList == null) cookieList = list;
+		}
+
+		// replace has to be atomic so duplicates aren't stored
+		synchronized (cookieList) {
 			cookieList.remove(cookie);
 			cookieList.add(cookie);
 		}
@@ -102,18 +106,31 @@ public class CookieManager {
 	 */
 	public void setupCookies(final HttpURLConnection urlConnection) {
 		// check for domains
-		final String host = urlConnection.getURL().getHost();
-		final List<Cookie> cookieList = new ArrayList<Cookie>();
-		for (final String domain : domainList) {
-			if (host.contains(domain)) {
-				cookieList.addAll(cookieMap.get(domain));
-			}
-		}
+		final List<Cookie> cookieList = getCookies(urlConnection.getURL());
 		if (!cookieList.isEmpty()) {
 			setupCookies(urlConnection, cookieList);
 		}
 	}
 
+	/**
+	 * Gets cookies matching <code>url</code> domain.
+	 * 
+	 * @param url
+	 *            url for cookies
+	 * @return matching cookies, empty if none
+	 */
+	public List<Cookie> getCookies(final URL url) {
+		final String host = url.getHost();
+		final List<Cookie> cookieList = new ArrayList<Cookie>();
+		for (final Map.Entry<String, List<Cookie>> entry : cookieMap
+				.entrySet()) {
+			if (host.contains(entry.getKey())) {
+				cookieList.addAll(entry.getValue());
+			}
+		}
+		return cookieList;
+	}
+
 	public List<Cookie> getCookieList(final String domain) {
 		return cookieMap.get(domain);
 	}
@@ -185,7 +202,6 @@ public class CookieManager {
 	 */
 	public void clearCookies() {
 		cookieMap.clear();
-		domainList.clear();
 	}
 
 	/**
@@ -212,14 +228,57 @@ public class CookieManager {
 		return cookieList;
 	}
 
+	/**
+	 * Gets the cookies from <code>Set-Cookie</code> headers.
+	 * 
+	 * @param url
+	 *            url of response
+	 * @param headers
+	 *            response headers
+	 * @return the cookies
+	 */
+	public static List<Cookie> getCookies(final URL url,
+			final Map<String, List<String>> headers) {
+		final ArrayList<Cookie> cookieList = new ArrayList<Cookie>();
+		for (final Map.Entry<String, List<String>> entry : headers.entrySet()) {
+			if (!"Set-Cookie".equalsIgnoreCase(entry.getKey())) continue;
+			for (final String value : entry.getValue()) {
+				cookieList.add(Cookie.parseCookie(url, value));
+			}
+		}
+
+		return cookieList;
+	}
+
+	/**
+	 * Gets the cookies set by <code>response</code>.
+	 * 
+	 * @param response
+	 *            the response
+	 * @return the cookies
+	 */
+	public static List<Cookie> getCookies(final Response response) {
+		return getCookies(response.getUrl(), response.getHeaderFields());
+	}
+
 	public static void setCookies(final HttpURLConnection urlConnection,
 			final List<Cookie> cookies) {
+		urlConnection.setRequestProperty("Cookie", getCookieString(cookies));
+	}
+
+	/**
+	 * Gets value of <code>Cookie</code> request header.
+	 * 
+	 * @param cookies
+	 *            cookies sent, can't be empty
+	 * @return header value
+	 */
+	public static String getCookieString(final List<Cookie> cookies) {
 		final StringBuilder builder = new StringBuilder();
 		for (final Cookie cookie : cookies) {
 			builder.append(';').append(' ').append(cookie.getCookieString());
 		}
-		urlConnection.setRequestProperty("Cookie",
-				CommonUtils.trim(builder.substring(1)));
+		return CommonUtils.trim(builder.substring(1));
 	}
 
 	private void setupCookies(final HttpURLConnection urlConnection,
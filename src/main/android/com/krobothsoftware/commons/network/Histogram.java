@@ -0,0 +1,203 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds. Values are counted in
+ * logarithmic buckets, each power of two split into 8 linear sub-buckets, so
+ * percentiles are within 1/8 of the recorded value from 1 nanosecond up to
+ * hundreds of years in fixed memory. Minimum, maximum, and mean are exact.
+ * 
+ * @see #getSnapshot()
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class Histogram {
+	private static final int SUB_BITS = 3;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+	private final AtomicLongArray counts;
+	private final AtomicLong count;
+	private final AtomicLong sum;
+	private final AtomicLong min;
+	private final AtomicLong max;
+
+	public Histogram() {
+		counts = new AtomicLongArray(BUCKETS);
+		count = new AtomicLong();
+		sum = new AtomicLong();
+		min = new AtomicLong(Long.MAX_VALUE);
+		max = new AtomicLong();
+	}
+
+	/**
+	 * Records duration. Negative values are recorded as zero.
+	 * 
+	 * @param nanos
+	 *            duration in nanoseconds
+	 */
+	public void record(final long nanos) {
+		final long value = Math.max(0, nanos);
+		counts.incrementAndGet(getIndex(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+
+		long current;
+		while (value < (current = min.get())
+				&& !min.compareAndSet(current, value)) {
+			// retry
+		}
+		while (value > (current = max.get())
+				&& !max.compareAndSet(current, value)) {
+			// retry
+		}
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Gets copy of recorded values. Values recorded while copying may be
+	 * partly included.
+	 * 
+	 * @return snapshot
+	 */
+	public Snapshot getSnapshot() {
+		final long[] buckets = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = counts.get(i);
+			total += buckets[i];
+		}
+		final long low = min.get();
+		return new Snapshot(buckets, total, sum.get(),
+				low == Long.MAX_VALUE ? 0 : low, max.get());
+	}
+
+	/**
+	 * Clears recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			counts.set(i, 0);
+		count.set(0);
+		sum.set(0);
+		min.set(Long.MAX_VALUE);
+		max.set(0);
+	}
+
+	static int getIndex(final long value) {
+		if (value < SUB_COUNT) return (int) value;
+		final int exponent = 63 - Long.numberOfLeadingZeros(value);
+		final int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+		return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+	}
+
+	/**
+	 * Gets highest value counted in bucket.
+	 */
+	static long getUpperBound(final int index) {
+		if (index < SUB_COUNT) return index;
+		final int exponent = index / SUB_COUNT + SUB_BITS - 1;
+		final long sub = SUB_COUNT + index % SUB_COUNT;
+		return ((sub + 1) << (exponent - SUB_BITS)) - 1;
+	}
+
+	/**
+	 * Immutable copy of a {@link Histogram}.
+	 */
+	public static final class Snapshot {
+		private final long[] buckets;
+		private final long count;
+		private final long sum;
+		private final long min;
+		private final long max;
+
+		Snapshot(final long[] buckets, final long count, final long sum,
+				final long min, final long max) {
+			this.buckets = buckets;
+			this.count = count;
+			this.sum = sum;
+			this.min = min;
+			this.max = max;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getMin(final TimeUnit unit) {
+			return unit.convert(min, TimeUnit.NANOSECONDS);
+		}
+
+		public long getMax(final TimeUnit unit) {
+			return unit.convert(max, TimeUnit.NANOSECONDS);
+		}
+
+		public long getMean(final TimeUnit unit) {
+			return count == 0 ? 0 : unit.convert(sum / count,
+					TimeUnit.NANOSECONDS);
+		}
+
+		public long getTotal(final TimeUnit unit) {
+			return unit.convert(sum, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * Gets value below which <code>percentile</code> percent of values
+		 * fall.
+		 * 
+		 * @param percentile
+		 *            percentile, from 0 to 100
+		 * @param unit
+		 *            unit of returned value
+		 * @return value at percentile, zero if nothing was recorded
+		 */
+		public long getPercentile(final double percentile, final TimeUnit unit) {
+			if (count == 0) return 0;
+			final double clamped = Math.min(100, Math.max(0, percentile));
+			final long rank = Math.max(1,
+					(long) Math.ceil(clamped / 100 * count));
+			long seen = 0;
+			for (int i = 0; i < buckets.length; i++) {
+				seen += buckets[i];
+				if (seen >= rank) return unit.convert(
+						Math.max(min, Math.min(max, getUpperBound(i))),
+						TimeUnit.NANOSECONDS);
+			}
+			return unit.convert(max, TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"count=%d, min=%dus, p50=%dus, p99=%dus, max=%dus", count,
+					getMin(TimeUnit.MICROSECONDS),
+					getPercentile(50, TimeUnit.MICROSECONDS),
+					getPercentile(99, TimeUnit.MICROSECONDS),
+					getMax(TimeUnit.MICROSECONDS));
+		}
+	}
+
+}
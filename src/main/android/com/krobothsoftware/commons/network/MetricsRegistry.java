@@ -0,0 +1,80 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of {@link EndpointMetrics}, one per logical endpoint. Requests are
+ * recorded under their {@link RequestBuilder#setEndpoint(String) endpoint},
+ * or their host if none is set. Metrics are pulled with
+ * {@link #getSnapshot()}; nothing is pushed or logged.
+ * 
+ * @see NetworkHelper#getMetrics()
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class MetricsRegistry {
+	private final ConcurrentMap<String, EndpointMetrics> endpoints;
+
+	public MetricsRegistry() {
+		endpoints = new ConcurrentHashMap<String, EndpointMetrics>();
+	}
+
+	/**
+	 * Gets metrics of endpoint, creating them if needed.
+	 * 
+	 * @param endpoint
+	 *            endpoint name
+	 * @return endpoint metrics
+	 */
+	public EndpointMetrics getEndpoint(final String endpoint) {
+		EndpointMetrics metrics = endpoints.get(endpoint);
+		if (metrics == null) {
+			final EndpointMetrics created = new EndpointMetrics(endpoint);
+			metrics = endpoints.putIfAbsent(endpoint, created);
+			if (metrics == null) metrics = created;
+		}
+		return metrics;
+	}
+
+	/**
+	 * Gets snapshots of every endpoint, ordered by name.
+	 * 
+	 * @return snapshots by endpoint
+	 */
+	public Map<String, EndpointMetrics.Snapshot> getSnapshot() {
+		final Map<String, EndpointMetrics.Snapshot> snapshot = new TreeMap<String, EndpointMetrics.Snapshot>();
+		for (final EndpointMetrics metrics : endpoints.values())
+			snapshot.put(metrics.getEndpoint(), metrics.getSnapshot());
+		return Collections.unmodifiableMap(snapshot);
+	}
+
+	/**
+	 * Clears counters and timings of every endpoint.
+	 */
+	public void reset() {
+		for (final EndpointMetrics metrics : endpoints.values())
+			metrics.reset();
+	}
+
+}
@@ -19,31 +19,39 @@ package com.krobothsoftware.commons.network;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
 import java.net.Proxy;
+import java.net.SocketTimeoutException;
 import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
 
 import com.krobothsoftware.commons.network.NetworkHelper.Method;
 import com.krobothsoftware.commons.network.values.Cookie;
 import com.krobothsoftware.commons.network.values.NameValuePair;
+import com.krobothsoftware.commons.util.CountingInputStream;
 
 /**
  * Builder for requesting HTTP connections.
  * 
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Nov 25 2012
  * @author Kyle Kroboth
  */
 public class RequestBuilder {
+	private static final AtomicLong CORRELATION_IDS;
 	final URL url;
 	final Method method;
 	Proxy proxy;
@@ -52,6 +60,16 @@ public class RequestBuilder {
 	int connectTimeout = -1;
 	int readTimeout = -1;
 	boolean useCookies = true;
+	boolean useValidatorCache;
+	String cacheScope;
+	Boolean idempotent;
+	RetryPolicy retryPolicy;
+	String endpoint;
+	volatile long correlationId;
+	volatile int attempt;
+	private volatile List<RequestListener> listeners;
+	private volatile Logger log;
+	volatile String authorizationDetail;
 	final List<Cookie> cookies;
 	byte[] payload;
 	final Map<String, String> headerMap;
@@ -114,6 +132,108 @@ public class RequestBuilder {
 		return this;
 	}
 
+	/**
+	 * Revalidates response with {@link NetworkHelper#getValidatorCache()}.
+	 * Validators of a cached entry are sent, and a 304(Not Modified) response
+	 * is returned as {@link ResponseNotModified}. Store parsed results with
+	 * {@link ValidatorCache#put(Response, Object)}.
+	 * 
+	 * @param useValidatorCache
+	 *            use validator cache
+	 * @return request builder
+	 */
+	public RequestBuilder useValidatorCache(final boolean useValidatorCache) {
+		this.useValidatorCache = useValidatorCache;
+		return this;
+	}
+
+	/**
+	 * Sets who the response belongs to, like the logged in user of a page
+	 * depending on session cookies. Added to {@link #getCacheKey()} so a
+	 * {@link NetworkHelper} shared between sessions never revalidates one
+	 * session's entry for another.
+	 * 
+	 * @param cacheScope
+	 *            owner of response, or null if it's the same for everyone
+	 * @return request builder
+	 */
+	public RequestBuilder setCacheScope(final String cacheScope) {
+		this.cacheScope = cacheScope;
+		return this;
+	}
+
+	/**
+	 * Marks request as safe to send more than once. GET, HEAD, OPTIONS, PUT,
+	 * and DELETE are idempotent by default; POST isn't.
+	 * 
+	 * @param idempotent
+	 *            idempotent
+	 * @return request builder
+	 * @see RetryPolicy
+	 */
+	public RequestBuilder setIdempotent(final boolean idempotent) {
+		this.idempotent = Boolean.valueOf(idempotent);
+		return this;
+	}
+
+	public boolean isIdempotent() {
+		if (idempotent != null) return idempotent.booleanValue();
+		return method != Method.POST;
+	}
+
+	/**
+	 * Sets retry policy for request, used instead of
+	 * {@link NetworkHelper#setRetryPolicy(RetryPolicy)}.
+	 * 
+	 * @param retryPolicy
+	 *            retry policy
+	 * @return request builder
+	 */
+	public RequestBuilder setRetryPolicy(final RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+		return this;
+	}
+
+	/**
+	 * Sets name request is recorded under in
+	 * {@link NetworkHelper#getMetrics()}, like <code>get_trophies</code>.
+	 * Requests without one are recorded under their host.
+	 * 
+	 * @param endpoint
+	 *            endpoint name
+	 * @return request builder
+	 */
+	public RequestBuilder setEndpoint(final String endpoint) {
+		this.endpoint = endpoint;
+		return this;
+	}
+
+	public String getEndpoint() {
+		return endpoint != null ? endpoint : url.getHost();
+	}
+
+	/**
+	 * Describes how an authorization set up this request, like whether a
+	 * digest challenge was fetched or reused. Sent with
+	 * {@link RequestEvent.Type#AUTHORIZED}.
+	 * 
+	 * @param detail
+	 *            authorization detail
+	 */
+	public void setAuthorizationDetail(final String detail) {
+		authorizationDetail = detail;
+	}
+
+	/**
+	 * Gets id shared by {@link RequestEvent}s of the last
+	 * {@link #execute(NetworkHelper)} call.
+	 * 
+	 * @return correlation id, or 0 if not executed yet
+	 */
+	public long getCorrelationId() {
+		return correlationId;
+	}
+
 	public RequestBuilder putCookie(final Cookie cookie) {
 		cookies.add(cookie);
 		return this;
@@ -164,6 +284,11 @@ public class RequestBuilder {
 
 	/**
 	 * Sends HTTP request based on request builder. Connection is not closed.
+	 * Waits first if host is limited by a {@link RateLimiter}, and throws
+	 * {@link CircuitBreakerOpenException} if host's {@link CircuitBreaker} is
+	 * open. Idempotent requests are retried as allowed by the
+	 * {@link RetryPolicy}, returning the last response or throwing the last
+	 * exception.
 	 * 
 	 * @param networkHelper
 	 *            network helper
@@ -173,105 +298,335 @@ public class RequestBuilder {
 	 */
 	public Response execute(final NetworkHelper networkHelper)
 			throws IOException {
+		final RetryPolicy policy = retryPolicy != null ? retryPolicy
+				: networkHelper.retryPolicy;
+		final EndpointMetrics metrics = networkHelper.metrics
+				.getEndpoint(getEndpoint());
+		correlationId = CORRELATION_IDS.incrementAndGet();
+		listeners = networkHelper.requestListeners;
+		log = networkHelper.log;
+		if (policy == null || !isIdempotent()) {
+			startAttempt(1);
+			beforeAttempt(networkHelper, 1);
+			return executeAttempt(networkHelper, metrics);
+		}
+
+		policy.onRequest();
+		for (int attempt = 1;; attempt++) {
+			startAttempt(attempt);
+			beforeAttempt(networkHelper, attempt);
+			final Response response;
+			try {
+				response = executeAttempt(networkHelper, metrics);
+			} catch (final IOException e) {
+				if (!policy.isRetryable(e)
+						|| !policy.acquireRetry(attempt + 1)) throw e;
+				networkHelper.log.info("Retrying {} after {}", this,
+						e.toString());
+				metrics.onRetry();
+				policy.backoff(attempt + 1);
+				continue;
+			}
+
+			if (!policy.isRetryable(response.getStatusCode())
+					|| !policy.acquireRetry(attempt + 1)) return response;
+			response.release();
+			networkHelper.log.info("Retrying {} after status {}", this,
+					response.getStatusCode());
+			metrics.onRetry();
+			policy.backoff(attempt + 1);
+		}
+	}
+
+	private void startAttempt(final int attempt) {
+		this.attempt = attempt;
+		fireEvent(RequestEvent.Type.ATTEMPT, System.nanoTime());
+	}
+
+	/**
+	 * Called before each attempt of {@link #execute(NetworkHelper)}, including
+	 * retries.
+	 * 
+	 * @param networkHelper
+	 *            network helper
+	 * @param attempt
+	 *            attempt about to be made, starting at 1
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	protected void beforeAttempt(final NetworkHelper networkHelper,
+			final int attempt) throws IOException {
+		// nothing by default
+	}
+
+	private Response executeAttempt(final NetworkHelper networkHelper,
+			final EndpointMetrics metrics) throws IOException {
+		final CircuitBreaker breaker = networkHelper.getCircuitBreakerFor(url
+				.getHost());
+		if (breaker == null) return executeLimited(networkHelper, metrics);
+		if (!breaker.allowRequest()) {
+			metrics.onRejected();
+			throw new CircuitBreakerOpenException(breaker.getHost());
+		}
+
+		boolean recorded = false;
+		try {
+			final Response response = executeLimited(networkHelper, metrics);
+			if (response.getStatusCode() >= 500) breaker.onFailure();
+			else
+				breaker.onSuccess();
+			recorded = true;
+			return response;
+		} catch (final InterruptedIOException e) {
+			if (!(e instanceof SocketTimeoutException)) throw e;
+			breaker.onFailure();
+			recorded = true;
+			throw e;
+		} catch (final IOException e) {
+			breaker.onFailure();
+			recorded = true;
+			throw e;
+		} finally {
+			if (!recorded) breaker.onCancel();
+		}
+	}
+
+	private Response executeLimited(final NetworkHelper networkHelper,
+			final EndpointMetrics metrics) throws IOException {
+		final RateLimiter limiter = networkHelper.getRateLimiterFor(url
+				.getHost());
+		if (limiter == null) return send(networkHelper, metrics);
+
+		final long start = System.nanoTime();
+		fireEvent(RequestEvent.Type.QUEUED, start);
+		limiter.acquire();
+		final long end = System.nanoTime();
+		metrics.onLimiterWait(end - start);
+		fireEvent(RequestEvent.Type.DEQUEUED, end);
+		Response response = null;
+		try {
+			response = send(networkHelper, metrics);
+			limiter.onResponse(response.getStatusCode());
+			response.limiter = limiter;
+			return response;
+		} finally {
+			// slot is freed on disconnect once response is handed out
+			if (response == null) limiter.release();
+		}
+	}
+
+	private Response send(final NetworkHelper networkHelper,
+			final EndpointMetrics metrics) throws IOException {
+		metrics.onRequest();
+		boolean responded = false;
+		try {
+			final Response response = sendRequest(networkHelper, metrics);
+			responded = true;
+			return response;
+		} catch (final IOException e) {
+			fireEvent(RequestEvent.Type.FAILED, System.nanoTime(), -1, -1, -1,
+					-1, null, e);
+			throw e;
+		} finally {
+			if (!responded) metrics.onFailure();
+		}
+	}
+
+	private Response sendRequest(final NetworkHelper networkHelper,
+			final EndpointMetrics metrics) throws IOException {
 		networkHelper.connListener.onRequest(this);
-		HttpURLConnection urlConnection;
-		if (proxy != null) urlConnection = networkHelper.openConnection(url,
-				proxy);
-		else
-			urlConnection = networkHelper.openConnection(url);
-		urlConnection.setRequestMethod(method.name());
-		urlConnection.setConnectTimeout(connectTimeout > -1 ? connectTimeout
-				: networkHelper.defaultConnectTimeout);
-		urlConnection.setReadTimeout(readTimeout > -1 ? readTimeout
-				: networkHelper.defaultReadTimout);
-
-		if (!cookies.isEmpty()) CookieManager
-				.setCookies(urlConnection, cookies);
-		if (useCookies) networkHelper.cookieManager.setupCookies(urlConnection);
-
-		urlConnection.setInstanceFollowRedirects(followRedirects);
-
-		Map<String, String> headers = new HashMap<String, String>(
-				networkHelper.defaultHeaderMap);
+
+		// same rules as HttpURLConnection request properties
+		final Map<String, String> headers = new TreeMap<String, String>(
+				String.CASE_INSENSITIVE_ORDER);
+		headers.putAll(networkHelper.defaultHeaderMap);
 		headers.putAll(headerMap);
-		setupHeaders(urlConnection, headers);
-
-		switch (method) {
-		case POST:
-		case PUT:
-			if (urlConnection.getRequestProperty("Content-Type") == null) {
-				urlConnection.setRequestProperty("Content-Type",
-						"application/x-www-form-urlencoded");
+		if (!headers.containsKey("Cookie")) {
+			final List<Cookie> sent = new ArrayList<Cookie>(cookies);
+			if (useCookies) sent.addAll(networkHelper.cookieManager
+					.getCookies(url));
+			if (!sent.isEmpty()) headers.put("Cookie",
+					CookieManager.getCookieString(sent));
+		}
+		if ((method == Method.POST || method == Method.PUT)
+				&& !headers.containsKey("Content-Type")) headers.put(
+				"Content-Type", "application/x-www-form-urlencoded");
+
+		String cacheKey = null;
+		ValidatorCache.CachedEntry cached = null;
+		if (useValidatorCache) {
+			cacheKey = getCacheKey();
+			cached = networkHelper.validatorCache.get(cacheKey);
+			if (cached != null) {
+				if (cached.etag != null) headers.put("If-None-Match",
+						cached.etag);
+				if (cached.lastModified != null) headers.put(
+						"If-Modified-Since", cached.lastModified);
 			}
-			if (payload == null) break;
-			urlConnection.setDoOutput(true);
-			urlConnection.setFixedLengthStreamingMode(payload.length);
-			final OutputStream output = urlConnection.getOutputStream();
-			output.write(payload);
-			output.close();
-			break;
-		default:
-			break;
 		}
 
+		final TransportRequest request = new TransportRequest(this,
+				proxy != null ? proxy : networkHelper.proxy, headers,
+				connectTimeout > -1 ? connectTimeout
+						: networkHelper.defaultConnectTimeout,
+				readTimeout > -1 ? readTimeout
+						: networkHelper.defaultReadTimout);
+
+		networkHelper.log.info("Request {}:{}://{}{}", method,
+				url.getProtocol(), url.getAuthority(), url.getPath());
+		// network time runs until response headers are read
+		final long start = System.nanoTime();
+		fireEvent(RequestEvent.Type.CONNECTING, start);
+		TransportResponse exchange = null;
+		CountingInputStream compressed = null;
 		InputStream inputStream = null;
+		int statusCode;
 		try {
-			final URL url = urlConnection.getURL();
-			networkHelper.log.info("Request {}:{}://{}{}", method,
-					url.getProtocol(), url.getAuthority(), url.getPath());
-			urlConnection.connect();
-			inputStream = NetworkHelper.getInputStream(urlConnection);
+			exchange = networkHelper.transport.send(request);
+			statusCode = exchange.getStatusCode();
 			networkHelper.log.info("Response {}",
-					urlConnection.getResponseMessage());
+					exchange.getResponseMessage());
+			if (ignoreErrorChecks && statusCode >= 400
+					&& method != Method.HEAD) throw new IOException(
+					"Server returned HTTP response code: " + statusCode
+							+ " for URL: " + url);
+			compressed = CountingInputStream.wrap(exchange.getBody());
+			inputStream = NetworkHelper.decode(
+					exchange.getHeaderField("Content-Encoding"), compressed);
 		} catch (final IOException e) {
-			final int statusCode = urlConnection.getResponseCode();
-			if (!ignoreErrorChecks && statusCode >= 400) {
-				networkHelper.log.info("Response {}",
-						urlConnection.getResponseMessage());
-				inputStream = NetworkHelper.getErrorStream(urlConnection);
-			} else
-				throw e;
+			if (exchange != null) exchange.disconnect();
+			throw e;
 		} finally {
-			if (useCookies) networkHelper.cookieManager
-					.putCookieList(CookieManager.getCookies(urlConnection));
-			networkHelper.connListener.onFinish(url, urlConnection);
+			if (useCookies && exchange != null) networkHelper.cookieManager
+					.putCookieList(CookieManager.getCookies(exchange.getUrl(),
+							exchange.getHeaderFields()));
+			networkHelper.connListener.onFinish(url,
+					exchange != null ? exchange.getConnection() : null);
 		}
 
-		return getResponse(urlConnection, inputStream);
+		final CountingInputStream decompressed = CountingInputStream
+				.wrap(inputStream);
+		final Response response = getResponse(exchange, statusCode,
+				decompressed, cached);
+		final long firstByte = System.nanoTime();
+		metrics.onResponse(statusCode, firstByte - start);
+		fireEvent(RequestEvent.Type.FIRST_BYTE, firstByte, statusCode, -1,
+				-1, -1, null, null);
+		response.cacheKey = cacheKey;
+		response.metrics = metrics;
+		response.request = this;
+		if (decompressed != null) decompressed
+				.setListener(new CountingInputStream.Listener() {
+
+					@Override
+					public void onEnd(final CountingInputStream stream) {
+						response.onBodyComplete();
+					}
+
+				});
+		response.compressed = compressed;
+		response.decompressed = decompressed;
+		return response;
 
 	}
 
+	void onConnected() {
+		fireEvent(RequestEvent.Type.CONNECTED, System.nanoTime());
+	}
+
+	void onRequestSent() {
+		fireEvent(RequestEvent.Type.REQUEST_SENT, System.nanoTime());
+	}
+
+	/**
+	 * Gets key identifying request by method, URL, payload, and
+	 * {@link #setCacheScope(String) cache scope}. Used by
+	 * {@link ValidatorCache}.
+	 * 
+	 * @return request key
+	 */
+	public String getCacheKey() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append(method).append(':').append(url.toString());
+		if (payload != null) {
+			builder.append(':');
+			try {
+				final byte[] digest = MessageDigest.getInstance("SHA-1")
+						.digest(payload);
+				for (final byte b : digest) {
+					builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+					builder.append(Character.forDigit(b & 0xF, 16));
+				}
+			} catch (final NoSuchAlgorithmException e) {
+				builder.append(payload.length).append('-')
+						.append(Arrays.hashCode(payload));
+			}
+		}
+		if (cacheScope != null) builder.append('#').append(cacheScope);
+		return builder.toString();
+	}
+
 	@Override
 	public String toString() {
 		return method + ":" + url.toString();
 	}
 
-	private void setupHeaders(final HttpURLConnection urlConnection,
-			final Map<String, String> headers) {
-		final Iterator<Entry<String, String>> iterator = headers.entrySet()
-				.iterator();
-		Entry<String, String> entry;
-		while (iterator.hasNext()) {
-			entry = iterator.next();
-			urlConnection.setRequestProperty(entry.getKey(), entry.getValue());
+	private void fireEvent(final RequestEvent.Type type, final long nanoTime) {
+		fireEvent(type, nanoTime, -1, -1, -1, -1, null, null);
+	}
+
+	/**
+	 * Sends event to request listeners of the executing
+	 * {@link NetworkHelper}. A failing listener is logged and doesn't keep
+	 * the others from being called or fail the request. Event is only built
+	 * once a listener is active.
+	 */
+	void fireEvent(final RequestEvent.Type type, final long nanoTime,
+			final int statusCode, final long compressedBytes,
+			final long decompressedBytes, final int itemCount,
+			final String detail, final Throwable error) {
+		final List<RequestListener> current = listeners;
+		if (current == null || current.isEmpty()) return;
+		RequestEvent event = null;
+		for (final RequestListener listener : current) {
+			try {
+				if (!listener.isActive()) continue;
+				if (event == null) event = new RequestEvent(type,
+						correlationId, attempt, getEndpoint(), url, nanoTime,
+						statusCode, compressedBytes, decompressedBytes,
+						itemCount, detail, error);
+				listener.onEvent(event);
+			} catch (final RuntimeException e) {
+				log.warn("Request listener " + listener + " failed on "
+						+ type, e);
+			}
 		}
 	}
 
-	private Response getResponse(HttpURLConnection urlConnection,
-			InputStream inputStream) throws IOException {
-		int code = urlConnection.getResponseCode();
+	private Response getResponse(final TransportResponse exchange,
+			final int code, final InputStream inputStream,
+			final ValidatorCache.CachedEntry cached) {
 		@SuppressWarnings("resource")
-		UnclosableInputStream stream = (inputStream != null) ? new UnclosableInputStream(
+		final UnclosableInputStream stream = (inputStream != null) ? new UnclosableInputStream(
 				inputStream) : null;
-		String charset = NetworkHelper.getCharset(urlConnection);
+		final String charset = NetworkHelper.getCharset(exchange
+				.getHeaderField("Content-Type"));
 		switch (code) {
 		case HttpURLConnection.HTTP_MOVED_TEMP:
-			return new ResponseRedirect(urlConnection, stream, code, charset);
-		case HttpURLConnection.HTTP_UNAUTHORIZED:
-			return new ResponseAuthenticate(urlConnection, stream, code,
+			return new ResponseRedirect(exchange, stream, code, charset);
+		case HttpURLConnection.HTTP_NOT_MODIFIED:
+			if (cached == null) return new Response(exchange, stream, code,
 					charset);
+			return new ResponseNotModified(exchange, stream, code, charset,
+					cached.result);
+		case HttpURLConnection.HTTP_UNAUTHORIZED:
+			return new ResponseAuthenticate(exchange, stream, code, charset);
 		default:
-			return new Response(urlConnection, stream, code, charset);
+			return new Response(exchange, stream, code, charset);
 		}
 	}
+
+	static {
+		CORRELATION_IDS = new AtomicLong();
+	}
 }
@@ -0,0 +1,116 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares one call between threads making the same request at the same time.
+ * The first thread with a key runs the call, threads arriving with the same
+ * key while it's running wait and get its result or exception. Nothing is
+ * kept once the call finishes, so results are never stale.
+ * 
+ * <p>
+ * Key should identify the request by method, URL, and payload, like
+ * {@link RequestBuilder#getCacheKey()}. Results are handed to every waiter, so
+ * they should be immutable or copied by the caller.
+ * </p>
+ * 
+ * <p>
+ * RequestCoalescer is thread-safe.
+ * </p>
+ * 
+ * @see NetworkHelper#getRequestCoalescer()
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class RequestCoalescer {
+	private final ConcurrentMap<String, FutureTask<?>> inFlight;
+	private final AtomicLong coalesced;
+
+	public RequestCoalescer() {
+		inFlight = new ConcurrentHashMap<String, FutureTask<?>>();
+		coalesced = new AtomicLong();
+	}
+
+	/**
+	 * Runs call, or waits for the running call with the same key.
+	 * 
+	 * @param key
+	 *            request key
+	 * @param call
+	 *            sends request and parses response
+	 * @return result of call
+	 * @throws Exception
+	 *             exception thrown by call
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T execute(final String key, final Callable<T> call)
+			throws Exception {
+		final FutureTask<T> task = new FutureTask<T>(call);
+		final FutureTask<T> running = (FutureTask<T>) inFlight.putIfAbsent(
+				key, task);
+		if (running != null) {
+			coalesced.incrementAndGet();
+			return await(running);
+		}
+
+		try {
+			task.run();
+		} finally {
+			inFlight.remove(key, task);
+		}
+		return await(task);
+	}
+
+	/**
+	 * Gets amount of calls currently running.
+	 * 
+	 * @return in flight count
+	 */
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+
+	/**
+	 * Gets amount of calls that waited for another thread's call instead of
+	 * running their own.
+	 * 
+	 * @return coalesced count
+	 */
+	public long getCoalescedCount() {
+		return coalesced.get();
+	}
+
+	private static <T> T await(final FutureTask<T> task) throws Exception {
+		try {
+			return task.get();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof Exception) throw (Exception) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw e;
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+/**
+ * Listens on phases of requests sent through a {@link NetworkHelper}. Called
+ * on the thread doing the phase, so implementations should be quick and
+ * thread-safe. Runtime exceptions thrown by a listener are logged and don't
+ * fail the request. Events aren't built while every listener is inactive.
+ * 
+ * @see NetworkHelper#addRequestListener(RequestListener)
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public interface RequestListener {
+
+	/**
+	 * Called when a request reaches a phase.
+	 * 
+	 * @param event
+	 *            phase of request
+	 */
+	void onEvent(final RequestEvent event);
+
+	/**
+	 * Checked before each phase. Inactive listeners aren't called for it.
+	 * 
+	 * @return true if listener wants events
+	 */
+	boolean isActive();
+
+}
@@ -18,34 +18,102 @@
 package com.krobothsoftware.commons.network;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+
+import com.krobothsoftware.commons.parse.ParseListener;
+import com.krobothsoftware.commons.util.CountingInputStream;
 
 /**
  * Response holder from {@link RequestBuilder#execute(NetworkHelper)}. Make sure
- * to call {@link #disconnect()} to ensure connection is closed.
+ * to call {@link #release()} or {@link #disconnect()} when done. Release keeps
+ * the connection open for the next request to the host, disconnect closes it.
+ * Give it as {@link ParseListener} when parsing its stream to record the
+ * parse.
  * 
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Nov 25 2012
  * @author Kyle Kroboth
  */
-public class Response {
-	private final HttpURLConnection urlConnection;
+public class Response implements ParseListener {
+
+	/**
+	 * Default max bytes {@link #release()} skips before closing the connection
+	 * instead.
+	 */
+	public static final long DEFAULT_DRAIN_LIMIT = 64 * 1024;
+
+	private static final String DETAIL_REUSED = "connection reused";
+	private static final String DETAIL_CLOSED = "connection closed";
+
+	private final TransportResponse exchange;
 	private final UnclosableInputStream responseStream;
 	private final int responseCode;
 	private final String responseCharset;
+	String cacheKey;
+	RateLimiter limiter;
+	EndpointMetrics metrics;
+	RequestBuilder request;
+	private boolean closed;
+	CountingInputStream compressed;
+	CountingInputStream decompressed;
 
 	public Response(final HttpURLConnection conn,
 			final UnclosableInputStream in, final int respCode,
 			final String respChar) {
-		urlConnection = conn;
+		this(UrlConnectionTransport.wrap(conn, null), in, respCode, respChar);
+	}
+
+	public Response(final TransportResponse exchange,
+			final UnclosableInputStream in, final int respCode,
+			final String respChar) {
+		this.exchange = exchange;
 		responseStream = in;
 		responseCode = respCode;
 		responseCharset = respChar;
 	}
 
+	/**
+	 * Gets connection of response.
+	 * 
+	 * @return connection, or null if the {@link Transport} doesn't use
+	 *         {@link HttpURLConnection}
+	 */
 	public HttpURLConnection getConnection() {
-		return urlConnection;
+		return exchange.getConnection();
+	}
+
+	/**
+	 * Gets url of response, which is the last one if redirects were followed.
+	 * 
+	 * @return response url
+	 */
+	public URL getUrl() {
+		return exchange.getUrl();
+	}
+
+	/**
+	 * Gets last value of response header.
+	 * 
+	 * @param name
+	 *            header name, case-insensitive
+	 * @return header value, or null if not found
+	 */
+	public String getHeaderField(final String name) {
+		return exchange.getHeaderField(name);
+	}
+
+	/**
+	 * Gets all response headers.
+	 * 
+	 * @return unmodifiable map of header names to values
+	 */
+	public Map<String, List<String>> getHeaderFields() {
+		return exchange.getHeaderFields();
 	}
 
 	public UnclosableInputStream getStream() {
@@ -60,14 +128,165 @@ public class Response {
 		return responseCharset;
 	}
 
+	/**
+	 * Gets metrics of the request's endpoint.
+	 * 
+	 * @return endpoint metrics, or null if response wasn't made by a
+	 *         {@link RequestBuilder}
+	 */
+	public EndpointMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Gets id shared by {@link RequestEvent}s of the request.
+	 * 
+	 * @return correlation id, or 0 if response wasn't made by a
+	 *         {@link RequestBuilder}
+	 */
+	public long getCorrelationId() {
+		return request != null ? request.correlationId : 0;
+	}
+
+	/**
+	 * Sends {@link RequestEvent.Type#PARSING}.
+	 */
+	@Override
+	public void onParsing(final String handler) {
+		if (request != null) request.fireEvent(RequestEvent.Type.PARSING,
+				System.nanoTime(), responseCode, -1, -1, -1, handler, null);
+	}
+
+	/**
+	 * Records parse of response to its {@link EndpointMetrics}, and sends
+	 * {@link RequestEvent.Type#PARSED}. Stream of a stopped parse is closed
+	 * by force, so {@link #release()} doesn't drain it.
+	 */
+	@Override
+	public void onParsed(final String handler, final long nanos,
+			final long bytesRead, final int itemCount, final boolean stopped,
+			final Throwable error) {
+		if (stopped && responseStream != null) {
+			try {
+				responseStream.forceClose();
+			} catch (final IOException e) {
+				// already marked closed, release won't read it
+			}
+		}
+		if (metrics != null) metrics.onParse(nanos, itemCount, error != null);
+		if (request == null) return;
+		request.fireEvent(RequestEvent.Type.PARSED, System.nanoTime(),
+				responseCode, -1, bytesRead, error == null ? itemCount : -1,
+				handler, error);
+	}
+
+	void onBodyComplete() {
+		final CountingInputStream in = decompressed;
+		if (request == null || in == null) return;
+		request.fireEvent(RequestEvent.Type.BODY_COMPLETE, System.nanoTime(),
+				responseCode, compressed != null ? compressed.getCount() : 0,
+				in.getCount(), -1, null, null);
+	}
+
 	/**
 	 * disconnects connection and force closes inputstream in that order.
-	 * {@link UnclosableInputStream#forceClose()}
+	 * {@link UnclosableInputStream#forceClose()}. Frees the request's
+	 * {@link RateLimiter} slot, records bytes read to its
+	 * {@link EndpointMetrics}, and sends {@link RequestEvent.Type#CLOSED}.
 	 * 
 	 * @throws IOException
 	 */
 	public void disconnect() throws IOException {
-		urlConnection.disconnect();
-		if (responseStream != null) responseStream.forceClose();
+		try {
+			exchange.disconnect();
+			if (responseStream != null) responseStream.forceClose();
+		} finally {
+			final RateLimiter current = limiter;
+			limiter = null;
+			if (current != null) current.release();
+			onClosed(-1);
+		}
+	}
+
+	/**
+	 * Releases connection to the keep-alive cache, so the next request to the
+	 * host skips the TCP and TLS handshake. Drains up to
+	 * {@link #DEFAULT_DRAIN_LIMIT} bytes the handler didn't read.
+	 * 
+	 * @throws IOException
+	 * @see #release(long)
+	 */
+	public void release() throws IOException {
+		release(DEFAULT_DRAIN_LIMIT);
+	}
+
+	/**
+	 * Releases connection to the keep-alive cache. Rest of the body is skipped
+	 * without decompressing, then the stream is closed. Connection is
+	 * disconnected instead if more than <code>drainLimit</code> bytes are
+	 * left, the server asked to close it, or skipping fails. A stream already
+	 * closed, like by a stopped parse, is left as is. Frees the request's
+	 * {@link RateLimiter} slot, records bytes read and whether the connection
+	 * was reused to its {@link EndpointMetrics}, and sends
+	 * {@link RequestEvent.Type#CLOSED}.
+	 * 
+	 * @param drainLimit
+	 *            max bytes skipped
+	 * @throws IOException
+	 */
+	public void release(final long drainLimit) throws IOException {
+		long drained = -1;
+		try {
+			if (responseStream != null && responseStream.isClosed()) return;
+			if (!"close".equalsIgnoreCase(exchange
+					.getHeaderField("Connection"))) drained = drain(drainLimit);
+			if (drained == -1) exchange.disconnect();
+			if (responseStream != null) responseStream.forceClose();
+		} finally {
+			final RateLimiter current = limiter;
+			limiter = null;
+			if (current != null) current.release();
+			onClosed(drained);
+		}
+	}
+
+	/**
+	 * Reads stream to its end.
+	 * 
+	 * @return bytes skipped, or -1 if over limit or reading failed
+	 */
+	private long drain(final long drainLimit) {
+		if (responseStream == null) return 0;
+		// compressed bytes are skipped without inflating them
+		final InputStream in = compressed != null ? compressed
+				: responseStream;
+		final byte[] buffer = new byte[4096];
+		long drained = 0;
+		try {
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				drained += read;
+				if (drained > drainLimit) return -1;
+			}
+		} catch (final IOException e) {
+			return -1;
+		}
+		return drained;
+	}
+
+	private void onClosed(final long drained) {
+		if (closed) return;
+		closed = true;
+		final long compressedCount = compressed != null ? compressed.getCount() : 0;
+		final long decompressedCount = decompressed != null ? decompressed.getCount()
+				: 0;
+		if (metrics != null) {
+			metrics.onBytes(compressedCount, decompressedCount);
+			metrics.onConnectionEnd(drained != -1, Math.max(drained, 0));
+		}
+		if (request != null) request.fireEvent(RequestEvent.Type.CLOSED,
+				System.nanoTime(), responseCode, compressedCount,
+				decompressedCount, -1, drained != -1 ? DETAIL_REUSED
+						: DETAIL_CLOSED, null);
 	}
 }
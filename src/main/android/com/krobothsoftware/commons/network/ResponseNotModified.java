@@ -0,0 +1,48 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+/**
+ * Response holder from {@link RequestBuilder#execute(NetworkHelper)} if
+ * response code is 304(Not Modified) and the request's {@link ValidatorCache}
+ * entry is still valid. Make sure to call {@link #disconnect()} to ensure
+ * connection is closed.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class ResponseNotModified extends Response {
+	private final Object cachedResult;
+
+	public ResponseNotModified(TransportResponse exchange,
+			UnclosableInputStream in, int respCode, String respChar,
+			Object cachedResult) {
+		super(exchange, in, respCode, respChar);
+		this.cachedResult = cachedResult;
+	}
+
+	/**
+	 * Gets result stored with {@link ValidatorCache#put(Response, Object)}.
+	 * 
+	 * @return cached result
+	 */
+	public Object getCachedResult() {
+		return cachedResult;
+	}
+
+}
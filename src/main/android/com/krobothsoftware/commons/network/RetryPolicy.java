@@ -0,0 +1,272 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides if and when a failed request is sent again. Only idempotent requests
+ * are retried, see {@link RequestBuilder#setIdempotent(boolean)}.
+ * 
+ * <p>
+ * A request is retried if the connection failed or timed out, or if the
+ * response code is in the retry set, 500, 502, 503, and 504 by default. Delay
+ * before retry <i>n</i> is random between zero and
+ * <code>baseDelay * 2^(n-1)</code>, capped at <code>maxDelay</code>.
+ * </p>
+ * 
+ * <p>
+ * Retries are limited by a budget shared by all requests using the policy.
+ * Each request adds {@link #setBudgetRatio(double) budget ratio} of a retry to
+ * the budget, up to {@link #setMaxBudget(int) max budget}, and each retry
+ * takes one. When a host is down, retries stop once the budget is spent
+ * instead of multiplying the load on it.
+ * </p>
+ * 
+ * <p>
+ * RetryPolicy is thread-safe.
+ * </p>
+ * 
+ * @see NetworkHelper#setRetryPolicy(RetryPolicy)
+ * @see RequestBuilder#setRetryPolicy(RetryPolicy)
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class RetryPolicy {
+	private static final Random RANDOM = new Random();
+
+	private final Set<Integer> retryStatusCodes;
+	private final AtomicLong retries;
+	private final AtomicLong exhausted;
+	private volatile int maxAttempts;
+	private volatile long baseDelay;
+	private volatile long maxDelay;
+	private volatile double budgetRatio;
+	private volatile int maxBudget;
+	private double budget;
+
+	/**
+	 * Creates policy with 3 max attempts, 200 millisecond base delay, 5
+	 * second max delay, and a budget of 1 retry per 10 requests.
+	 */
+	public RetryPolicy() {
+		retryStatusCodes = new CopyOnWriteArraySet<Integer>();
+		retryStatusCodes.add(Integer.valueOf(500));
+		retryStatusCodes.add(Integer.valueOf(502));
+		retryStatusCodes.add(Integer.valueOf(503));
+		retryStatusCodes.add(Integer.valueOf(504));
+		retries = new AtomicLong();
+		exhausted = new AtomicLong();
+		maxAttempts = 3;
+		baseDelay = TimeUnit.MILLISECONDS.toNanos(200);
+		maxDelay = TimeUnit.SECONDS.toNanos(5);
+		budgetRatio = 0.1;
+		maxBudget = 10;
+		budget = maxBudget;
+	}
+
+	/**
+	 * Sets max attempts of a request, including the first.
+	 * 
+	 * @param maxAttempts
+	 *            max attempts, 1 for no retries
+	 * @return policy
+	 * @throws IllegalArgumentException
+	 *             thrown if maxAttempts is zero or less
+	 */
+	public RetryPolicy setMaxAttempts(final int maxAttempts) {
+		if (maxAttempts <= 0) throw new IllegalArgumentException(
+				"max attempts must be greater than 0");
+		this.maxAttempts = maxAttempts;
+		return this;
+	}
+
+	public RetryPolicy setBaseDelay(final long delay, final TimeUnit unit) {
+		baseDelay = unit.toNanos(delay);
+		return this;
+	}
+
+	public RetryPolicy setMaxDelay(final long delay, final TimeUnit unit) {
+		maxDelay = unit.toNanos(delay);
+		return this;
+	}
+
+	/**
+	 * Sets retries earned per request.
+	 * 
+	 * @param budgetRatio
+	 *            retries per request, like 0.1 for 1 retry every 10 requests
+	 * @return policy
+	 */
+	public RetryPolicy setBudgetRatio(final double budgetRatio) {
+		this.budgetRatio = budgetRatio;
+		return this;
+	}
+
+	/**
+	 * Sets max retries saved up in budget.
+	 * 
+	 * @param maxBudget
+	 *            max retries in budget
+	 * @return policy
+	 */
+	public synchronized RetryPolicy setMaxBudget(final int maxBudget) {
+		this.maxBudget = maxBudget;
+		budget = Math.min(budget, maxBudget);
+		return this;
+	}
+
+	/**
+	 * Adds response code to retry set.
+	 * 
+	 * @param statusCode
+	 *            response code
+	 * @return policy
+	 */
+	public RetryPolicy retryOn(final int statusCode) {
+		retryStatusCodes.add(Integer.valueOf(statusCode));
+		return this;
+	}
+
+	/**
+	 * Removes response code from retry set.
+	 * 
+	 * @param statusCode
+	 *            response code
+	 * @return policy
+	 */
+	public RetryPolicy dontRetryOn(final int statusCode) {
+		retryStatusCodes.remove(Integer.valueOf(statusCode));
+		return this;
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * Gets amount of retries made.
+	 * 
+	 * @return retry count
+	 */
+	public long getRetryCount() {
+		return retries.get();
+	}
+
+	/**
+	 * Gets amount of retries skipped because budget was spent.
+	 * 
+	 * @return budget exhausted count
+	 */
+	public long getBudgetExhaustedCount() {
+		return exhausted.get();
+	}
+
+	/**
+	 * Checks if response code should be retried.
+	 * 
+	 * @param statusCode
+	 *            response code
+	 * @return true, if in retry set
+	 */
+	public boolean isRetryable(final int statusCode) {
+		return retryStatusCodes.contains(Integer.valueOf(statusCode));
+	}
+
+	/**
+	 * Checks if exception is a connection failure or timeout worth retrying.
+	 * 
+	 * @param e
+	 *            exception thrown by attempt
+	 * @return true, if retryable
+	 */
+	public boolean isRetryable(final IOException e) {
+		return e instanceof SocketTimeoutException
+				|| e instanceof SocketException;
+	}
+
+	/**
+	 * Gets delay before attempt.
+	 * 
+	 * @param attempt
+	 *            attempt about to be made, 2 for first retry
+	 * @return delay in nanoseconds
+	 */
+	public long getDelay(final int attempt) {
+		final int shift = Math.min(30, Math.max(0, attempt - 2));
+		final long ceiling = Math.min(maxDelay, baseDelay << shift);
+		if (ceiling <= 0) return 0;
+		synchronized (RANDOM) {
+			return (long) (RANDOM.nextDouble() * ceiling);
+		}
+	}
+
+	/**
+	 * Called once per request before first attempt.
+	 */
+	synchronized void onRequest() {
+		budget = Math.min(maxBudget, budget + budgetRatio);
+	}
+
+	/**
+	 * Takes a retry from budget.
+	 * 
+	 * @param attempt
+	 *            attempt about to be made
+	 * @return false, if attempts or budget are spent
+	 */
+	boolean acquireRetry(final int attempt) {
+		if (attempt > maxAttempts) return false;
+		synchronized (this) {
+			if (budget < 1) {
+				exhausted.incrementAndGet();
+				return false;
+			}
+			budget -= 1;
+		}
+
+		retries.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Waits delay before attempt.
+	 * 
+	 * @param attempt
+	 *            attempt about to be made
+	 * @throws InterruptedIOException
+	 *             thrown if interrupted while waiting
+	 */
+	void backoff(final int attempt) throws InterruptedIOException {
+		try {
+			TimeUnit.NANOSECONDS.sleep(getDelay(attempt));
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted waiting to retry");
+		}
+	}
+
+}
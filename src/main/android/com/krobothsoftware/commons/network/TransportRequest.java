@@ -0,0 +1,132 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.net.Proxy;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+
+import com.krobothsoftware.commons.network.NetworkHelper.Method;
+
+/**
+ * Request handed to a {@link Transport}, with every header already set up by
+ * {@link RequestBuilder}, including cookies and authorization.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public final class TransportRequest {
+	private final RequestBuilder builder;
+	private final Method method;
+	private final URL url;
+	private final Proxy proxy;
+	private final Map<String, String> headers;
+	private final byte[] payload;
+	private final int connectTimeout;
+	private final int readTimeout;
+	private final boolean followRedirects;
+
+	TransportRequest(final RequestBuilder builder, final Proxy proxy,
+			final Map<String, String> headers, final int connectTimeout,
+			final int readTimeout) {
+		this.builder = builder;
+		method = builder.method;
+		url = builder.url;
+		this.proxy = proxy;
+		this.headers = Collections.unmodifiableMap(headers);
+		payload = builder.payload;
+		this.connectTimeout = connectTimeout;
+		this.readTimeout = readTimeout;
+		followRedirects = builder.followRedirects;
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	public URL getUrl() {
+		return url;
+	}
+
+	/**
+	 * Gets proxy of request.
+	 * 
+	 * @return proxy, or null if none is set
+	 */
+	public Proxy getProxy() {
+		return proxy;
+	}
+
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Gets body of request. Shouldn't be changed.
+	 * 
+	 * @return payload, or null if none
+	 */
+	public byte[] getPayload() {
+		return payload;
+	}
+
+	/**
+	 * Gets connect timeout in milliseconds.
+	 * 
+	 * @return connect timeout, 0 for none
+	 */
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	/**
+	 * Gets read timeout in milliseconds.
+	 * 
+	 * @return read timeout, 0 for none
+	 */
+	public int getReadTimeout() {
+		return readTimeout;
+	}
+
+	public boolean isFollowRedirects() {
+		return followRedirects;
+	}
+
+	/**
+	 * Sends {@link RequestEvent.Type#CONNECTED}. Called by transports which
+	 * can tell when the connection is open.
+	 */
+	public void onConnected() {
+		builder.onConnected();
+	}
+
+	/**
+	 * Sends {@link RequestEvent.Type#REQUEST_SENT}. Called by transports which
+	 * can tell when the payload is written.
+	 */
+	public void onRequestSent() {
+		builder.onRequestSent();
+	}
+
+	@Override
+	public String toString() {
+		return method + ":" + url;
+	}
+
+}
@@ -0,0 +1,85 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of a {@link Transport} whose headers have been read. The body is
+ * still encoded; {@link RequestBuilder} decodes gzip and deflate.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public interface TransportResponse {
+
+	URL getUrl();
+
+	int getStatusCode() throws IOException;
+
+	/**
+	 * Gets reason phrase of status line.
+	 * 
+	 * @return message, or null if there is none, like with HTTP/2
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	String getResponseMessage() throws IOException;
+
+	/**
+	 * Gets last value of header, ignoring case of name.
+	 * 
+	 * @param name
+	 *            header name
+	 * @return header value, or null if not found
+	 */
+	String getHeaderField(final String name);
+
+	/**
+	 * Gets headers, ignoring case of names.
+	 * 
+	 * @return unmodifiable headers
+	 */
+	Map<String, List<String>> getHeaderFields();
+
+	/**
+	 * Gets undecoded body, including the body of error responses.
+	 * 
+	 * @return body, or null if response has none
+	 */
+	InputStream getBody();
+
+	/**
+	 * Closes connection instead of keeping it for another request.
+	 */
+	void disconnect();
+
+	/**
+	 * Gets underlying connection, for code written against
+	 * {@link HttpURLConnection}.
+	 * 
+	 * @return connection, or null if transport doesn't use one
+	 */
+	HttpURLConnection getConnection();
+
+}
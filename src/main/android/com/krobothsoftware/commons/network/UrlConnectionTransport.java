@@ -0,0 +1,196 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Default {@link Transport}, sending requests with {@link HttpURLConnection}.
+ * Idle connections are kept in the JDK keep-alive cache, one request at a
+ * time each.
+ * 
+ * @see NetworkHelper#setMaxKeepAliveConnections(int)
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class UrlConnectionTransport implements Transport {
+
+	@Override
+	public TransportResponse send(final TransportRequest request)
+			throws IOException {
+		final HttpURLConnection urlConnection = openConnection(request);
+		final byte[] payload = request.getPayload();
+		if (payload != null && urlConnection.getDoOutput()) {
+			urlConnection.connect();
+			request.onConnected();
+			final OutputStream output = urlConnection.getOutputStream();
+			output.write(payload);
+			output.close();
+			request.onRequestSent();
+		} else {
+			urlConnection.connect();
+			request.onConnected();
+		}
+
+		InputStream body = null;
+		try {
+			if (!"HEAD".equals(urlConnection.getRequestMethod())) body = urlConnection
+					.getInputStream();
+		} catch (final IOException e) {
+			// error responses throw, their body is the error stream
+			if (urlConnection.getResponseCode() < 400) throw e;
+			body = urlConnection.getErrorStream();
+		}
+		return new UrlConnectionResponse(urlConnection, body);
+	}
+
+	/**
+	 * Opens connection and sets it up for request. Payload is only written
+	 * for POST and PUT.
+	 * 
+	 * @param request
+	 *            request to send
+	 * @return unconnected connection
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	protected HttpURLConnection openConnection(final TransportRequest request)
+			throws IOException {
+		final URL url = request.getUrl();
+		final HttpURLConnection urlConnection = (HttpURLConnection) (request
+				.getProxy() != null ? url.openConnection(request.getProxy())
+				: url.openConnection());
+		urlConnection.setRequestMethod(request.getMethod().name());
+		urlConnection.setConnectTimeout(request.getConnectTimeout());
+		urlConnection.setReadTimeout(request.getReadTimeout());
+		urlConnection.setInstanceFollowRedirects(request.isFollowRedirects());
+		for (final Map.Entry<String, String> header : request.getHeaders()
+				.entrySet())
+			urlConnection.setRequestProperty(header.getKey(), header.getValue());
+
+		final byte[] payload = request.getPayload();
+		switch (request.getMethod()) {
+		case POST:
+		case PUT:
+			if (payload == null) break;
+			urlConnection.setDoOutput(true);
+			urlConnection.setFixedLengthStreamingMode(payload.length);
+			break;
+		default:
+			break;
+		}
+		return urlConnection;
+	}
+
+	/**
+	 * Wraps connection whose response headers were read.
+	 * 
+	 * @param urlConnection
+	 *            connection
+	 * @param body
+	 *            body of connection, or null if none
+	 * @return transport response
+	 */
+	static TransportResponse wrap(final HttpURLConnection urlConnection,
+			final InputStream body) {
+		return new UrlConnectionResponse(urlConnection, body);
+	}
+
+	static final class UrlConnectionResponse implements TransportResponse {
+		private final HttpURLConnection urlConnection;
+		private final InputStream body;
+		private Map<String, List<String>> headers;
+
+		UrlConnectionResponse(final HttpURLConnection urlConnection,
+				final InputStream body) {
+			this.urlConnection = urlConnection;
+			this.body = body;
+		}
+
+		@Override
+		public URL getUrl() {
+			return urlConnection.getURL();
+		}
+
+		@Override
+		public int getStatusCode() throws IOException {
+			return urlConnection.getResponseCode();
+		}
+
+		@Override
+		public String getResponseMessage() throws IOException {
+			return urlConnection.getResponseMessage();
+		}
+
+		@Override
+		public String getHeaderField(final String name) {
+			return urlConnection.getHeaderField(name);
+		}
+
+		/**
+		 * Reads headers by index, since header maps of some
+		 * {@link HttpURLConnection}s don't keep the order values came in.
+		 */
+		@Override
+		public synchronized Map<String, List<String>> getHeaderFields() {
+			if (headers != null) return headers;
+			final Map<String, List<String>> fields = new TreeMap<String, List<String>>(
+					String.CASE_INSENSITIVE_ORDER);
+			String value;
+			for (int i = 0; (value = urlConnection.getHeaderField(i)) != null; i++) {
+				final String key = urlConnection.getHeaderFieldKey(i);
+				// status line has no key
+				if (key == null) continue;
+				List<String> values = fields.get(key);
+				if (values == null) {
+					values = new ArrayList<String>(1);
+					fields.put(key, values);
+				}
+				values.add(value);
+			}
+			headers = Collections.unmodifiableMap(fields);
+			return headers;
+		}
+
+		@Override
+		public InputStream getBody() {
+			return body;
+		}
+
+		@Override
+		public void disconnect() {
+			urlConnection.disconnect();
+		}
+
+		@Override
+		public HttpURLConnection getConnection() {
+			return urlConnection;
+		}
+
+	}
+
+}
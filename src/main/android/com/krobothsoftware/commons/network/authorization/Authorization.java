@@ -74,6 +74,20 @@ public abstract class Authorization {
 
 	public abstract void reset();
 
+	/**
+	 * Called when an authorized request was answered with 401(Unauthorized).
+	 * 
+	 * @param request
+	 *            request that was rejected
+	 * @param authenticate
+	 *            <code>WWW-Authenticate</code> header of response
+	 * @return true, if request should be authorized and sent once more
+	 */
+	public boolean onChallenge(final RequestBuilder request,
+			final String authenticate) {
+		return false;
+	}
+
 	final void setURL(final URL url) {
 		this.url = url;
 	}
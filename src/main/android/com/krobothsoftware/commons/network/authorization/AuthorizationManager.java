@@ -19,8 +19,7 @@ package com.krobothsoftware.commons.network.authorization;
 
 import java.io.IOException;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,14 +37,14 @@ import com.krobothsoftware.commons.network.RequestBuilder;
  * @author Kyle Kroboth
  */
 public class AuthorizationManager {
-	private final List<Authorization> authorizationList;
+	private final CopyOnWriteArrayList<Authorization> authorizationList;
 	private final NetworkHelper networkHelper;
 	private final Logger log;
 
 	public AuthorizationManager(final NetworkHelper networkHelper) {
 		log = LoggerFactory.getLogger(AuthorizationManager.class);
 		this.networkHelper = networkHelper;
-		authorizationList = new ArrayList<Authorization>();
+		authorizationList = new CopyOnWriteArrayList<Authorization>();
 	}
 
 	/**
@@ -61,7 +60,7 @@ public class AuthorizationManager {
 			auth.setNetworkHelper(networkHelper);
 			auth.setURL(url);
 			auth.setLogger(log);
-			authorizationList.add(auth);
+			authorizationList.addIfAbsent(auth);
 		}
 	}
 
@@ -29,31 +29,47 @@ import java.net.HttpURLConnection;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.util.ArrayList;
-import java.util.Formatter;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import com.krobothsoftware.commons.network.NetworkHelper.Method;
 import com.krobothsoftware.commons.network.RequestBuilder;
-import com.krobothsoftware.commons.network.values.NameValuePair;
+import com.krobothsoftware.commons.network.Response;
+import com.krobothsoftware.commons.network.authorization.DigestNonceStore.Challenge;
 import com.krobothsoftware.commons.util.CommonUtils;
 
 /**
- * Authorization with the digest scheme
+ * Authorization with the digest scheme. Challenges are kept in a
+ * {@link DigestNonceStore}, shared by default, so the server is asked for a
+ * nonce only once per user and host rather than per request or instance.
+ * Thread-safe; the hash of username, realm, and password is cached per realm.
  * 
- * @version 3.0
+ * @version 3.1
  * @since Nov 25 2012
  * @author Kyle Kroboth
  */
 public class DigestAuthorization extends Authorization {
 	private static final String DEFAULT_ELEMENT_CHARSET = "US-ASCII";
+	private static final String DETAIL_CHALLENGE = "digest challenge fetched";
+	private static final String DETAIL_REUSED = "digest nonce reused";
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+	private static final ThreadLocal<MessageDigest> MD5 = new ThreadLocal<MessageDigest>() {
+
+		@Override
+		protected MessageDigest initialValue() {
+			try {
+				return MessageDigest.getInstance("MD5");
+			} catch (final NoSuchAlgorithmException e) {
+				throw new IllegalStateException("MD5 not supported", e);
+			}
+		}
+
+	};
 
-	private String nonce;
-	private String realm;
-	private String algorithm;
-	private String qop;
-	private String charset;
-	private String nc;
-	private int nonceCount;
+	private final ConcurrentMap<String, String> hash1Cache;
+	private volatile DigestNonceStore nonceStore;
 
 	/**
 	 * Hexa values used when creating 32 character long digest in HTTP
@@ -67,149 +83,175 @@ public class DigestAuthorization extends Authorization {
 
 	public DigestAuthorization(final String username, final String password) {
 		super(username, password);
+		hash1Cache = new ConcurrentHashMap<String, String>(4);
+		nonceStore = DigestNonceStore.getShared();
+	}
 
+	/**
+	 * Sets store challenges are kept in.
+	 * 
+	 * @param nonceStore
+	 *            nonce store, if null the shared store is used
+	 */
+	public void setNonceStore(final DigestNonceStore nonceStore) {
+		this.nonceStore = nonceStore != null ? nonceStore : DigestNonceStore
+				.getShared();
 	}
 
+	/**
+	 * Authorizes request with the stored challenge of host. Server is only
+	 * asked for a challenge if none is stored. Whether it was asked is set as
+	 * the request's {@link RequestBuilder#setAuthorizationDetail(String)
+	 * authorization detail}.
+	 */
 	@Override
 	public void setup(final RequestBuilder request) throws IOException {
-		final String header = nonceUsable(request);
-
-		if (header != null) {
-			request.setHeader("Authorization", header);
-			return;
-		}
-
-		final HttpURLConnection tmpUrlConnection = networkHelper
-				.openConnection(request.getUrl());
-
-		try {
-			tmpUrlConnection.getInputStream();
-		} catch (final IOException e) {
-			if (tmpUrlConnection.getResponseCode() != HttpURLConnection.HTTP_UNAUTHORIZED) {
-				throw e;
+		final String key = getStoreKey(request);
+		Challenge challenge = nonceStore.get(key);
+
+		if (challenge != null) request.setAuthorizationDetail(DETAIL_REUSED);
+		else {
+			// sent through the transport like the request itself
+			final Response response = new RequestBuilder(Method.GET,
+					request.getUrl()).useCookies(false).execute(networkHelper);
+			try {
+				if (response.getStatusCode() != HttpURLConnection.HTTP_UNAUTHORIZED
+						&& response.getStatusCode() >= 400) throw new IOException(
+						"Server returned HTTP response code: "
+								+ response.getStatusCode() + " for URL: "
+								+ request.getUrl());
+				challenge = parseChallenge(response
+						.getHeaderField("WWW-Authenticate"));
+			} finally {
+				response.disconnect();
 			}
+			if (challenge == null) throw new IOException(
+					"No digest challenge from " + request.getUrl().getHost());
+			nonceStore.put(key, challenge);
+			request.setAuthorizationDetail(DETAIL_CHALLENGE);
 		}
 
-		nonceCount = 1;
-
-		realm = getHeaderValueByType("realm",
-				tmpUrlConnection.getHeaderField("WWW-Authenticate"));
-
-		nonce = getHeaderValueByType("nonce",
-				tmpUrlConnection.getHeaderField("WWW-Authenticate"));
-
-		algorithm = getHeaderValueByType("algorithm",
-				tmpUrlConnection.getHeaderField("WWW-Authenticate"));
-
-		qop = getHeaderValueByType("qop",
-				tmpUrlConnection.getHeaderField("WWW-Authenticate"));
+		request.setHeader("Authorization",
+				createHeader(request, challenge, challenge.nextCount()));
 
-		charset = getHeaderValueByType("charset",
-				tmpUrlConnection.getHeaderField("WWW-Authenticate"));
-
-		request.setHeader("Authorization", createHeader(request));
+	}
 
+	/**
+	 * Stores challenge of a 401 response. Request should be sent again if the
+	 * nonce was stale, or the server doesn't know a reused nonce anymore.
+	 */
+	@Override
+	public boolean onChallenge(final RequestBuilder request,
+			final String authenticate) {
+		final Challenge challenge = parseChallenge(authenticate);
+		if (challenge == null) return false;
+
+		final String key = getStoreKey(request);
+		final Challenge old = nonceStore.get(key);
+		nonceStore.put(key, challenge);
+		final boolean stale = "true".equalsIgnoreCase(getHeaderValueByType(
+				"stale", authenticate));
+		// new nonce for a rejected one is worth one more try
+		return stale || old != null && !old.nonce.equals(challenge.nonce);
 	}
 
+	/**
+	 * Removes stored challenge of this authorization's host.
+	 */
 	@Override
 	public void reset() {
-		nonce = null;
-		realm = null;
-		algorithm = null;
-		qop = null;
-		charset = null;
-		nc = null;
-		nonceCount = 0;
+		if (url == null) return;
+		final String key = getStoreKey(url.getHost());
+		final Challenge challenge = nonceStore.get(key);
+		if (challenge != null) nonceStore.remove(key, challenge);
+	}
 
+	private String getStoreKey(final RequestBuilder request) {
+		return getStoreKey(request.getUrl().getHost());
 	}
 
-	private String nonceUsable(final RequestBuilder request) {
+	private String getStoreKey(final String host) {
+		return username + '@' + host.toLowerCase(Locale.ENGLISH);
+	}
 
+	private Challenge parseChallenge(final String authenticate) {
+		if (authenticate == null || !authenticate.startsWith("Digest"))
+			return null;
+		final String nonce = getHeaderValueByType("nonce", authenticate);
 		if (nonce == null) return null;
-		nonceCount++;
-
-		return createHeader(request);
-
+		final String charset = getHeaderValueByType("charset", authenticate);
+		return new Challenge(getHeaderValueByType("realm", authenticate),
+				nonce, getHeaderValueByType("algorithm", authenticate),
+				getHeaderValueByType("qop", authenticate),
+				charset != null ? charset : DEFAULT_ELEMENT_CHARSET);
 	}
 
-	private String createHeader(final RequestBuilder request) {
-		MessageDigest messageDigest = null;
-		StringBuffer buffer = null;
+	private String createHeader(final RequestBuilder request,
+			final Challenge challenge, final int nonceCount)
+			throws UnsupportedEncodingException {
+		final MessageDigest messageDigest = MD5.get();
+		final String charset = challenge.charset;
+		final String uri = request.getUrl().getPath();
+		final String cnonce = createCnonce();
+		final String hash1 = getHash1(messageDigest, challenge);
+
+		// made MD5 hash of method name and url path
+		final StringBuilder buffer = new StringBuilder(384);
+		buffer.append(request.getMethod()).append(':').append(uri);
+		final String hash2 = encode(messageDigest.digest(buffer.toString()
+				.getBytes(charset)));
+
+		// make MD5 hash of hash1, nonce, nc, cnonce, qop, and hash2
+		buffer.setLength(0);
+		buffer.append(hash1).append(':').append(challenge.nonce).append(':');
+		appendCount(buffer, nonceCount);
+		buffer.append(':').append(cnonce).append(':').append(challenge.qop)
+				.append(':').append(hash2);
+		final String response = encode(messageDigest.digest(buffer
+				.toString().getBytes(charset)));
+
+		// setup header, nc and qop aren't quoted
+		buffer.setLength(0);
+		buffer.append("Digest username=\"").append(username)
+				.append("\", realm=\"").append(challenge.realm)
+				.append("\", nonce=\"").append(challenge.nonce)
+				.append("\", uri=\"").append(uri)
+				.append("\", algorithm=\"").append(challenge.algorithm)
+				.append("\", response=\"").append(response)
+				.append("\", qop=").append(challenge.qop).append(", nc=");
+		appendCount(buffer, nonceCount);
+		buffer.append(", cnonce=\"").append(cnonce).append('"');
 
-		try {
-			messageDigest = MessageDigest.getInstance("MD5");
-
-			final StringBuilder sb = new StringBuilder(256);
-			final Formatter formatter = new Formatter(sb, Locale.US);
-			formatter.format("%08x", nonceCount);
-			formatter.close();
-			nc = sb.toString();
-
-			if (charset == null) {
-				charset = DEFAULT_ELEMENT_CHARSET;
-			}
+		log.info("Authorizing Digest[{}] {}", nonceCount, url);
 
-			// generate client nonce
-			final String cnonce = createCnonce();
-
-			// make MD5 hash of username, realm, and password
-			buffer = new StringBuffer();
-			buffer.append(username).append(':').append(realm).append(':')
-					.append(password);
-			String hash1 = buffer.toString();
-			hash1 = encode(messageDigest.digest(hash1.getBytes(charset)));
-
-			// made MD5 hash of method name and url path
-			buffer = new StringBuffer();
-			buffer.append(request.getMethod()).append(':')
-					.append(request.getUrl().getPath());
-			String hash2 = buffer.toString();
-			hash2 = encode(messageDigest.digest(hash2.getBytes(charset)));
-
-			// make MD5 hash of hash1, nonce, nc, cnonce, qop, and hash2
-			buffer = new StringBuffer();
-			buffer.append(hash1).append(':').append(nonce).append(':')
-					.append(nc).append(':').append(cnonce).append(':')
-					.append(qop).append(':').append(hash2);
-			String response = buffer.toString();
-			response = encode(messageDigest.digest(response.getBytes(charset)));
-
-			// setup header
-			final ArrayList<NameValuePair> params = new ArrayList<NameValuePair>();
-			params.add(new NameValuePair("username", username));
-			params.add(new NameValuePair("realm", realm));
-			params.add(new NameValuePair("nonce", nonce));
-			params.add(new NameValuePair("uri", request.getUrl().getPath()));
-			params.add(new NameValuePair("algorithm", algorithm));
-			params.add(new NameValuePair("response", response));
-			params.add(new NameValuePair("qop", qop));
-			params.add(new NameValuePair("nc", nc));
-			params.add(new NameValuePair("cnonce", cnonce));
-
-			buffer = new StringBuffer();
-			buffer.append("Digest ");
-
-			for (final NameValuePair pair : params) {
-				if (!pair.getName().equalsIgnoreCase("username")) buffer
-						.append(", ");
-				// check if need parentheses
-				if (pair.getName().equalsIgnoreCase("nc")
-						|| pair.getName().equals("qop")) {
-					buffer.append(pair.getPair());
-				} else {
-					buffer.append(pair.getQuotedPair());
-				}
-			}
+		return buffer.toString();
+	}
 
-		} catch (final NoSuchAlgorithmException e1) {
-			e1.printStackTrace();
-		} catch (final UnsupportedEncodingException e) {
-			e.printStackTrace();
+	/**
+	 * Gets MD5 hash of username, realm, and password, which only changes with
+	 * realm.
+	 */
+	private String getHash1(final MessageDigest messageDigest,
+			final Challenge challenge) throws UnsupportedEncodingException {
+		final String key = challenge.realm + ':' + challenge.charset;
+		String hash1 = hash1Cache.get(key);
+		if (hash1 == null) {
+			final String value = username + ':' + challenge.realm + ':'
+					+ password;
+			hash1 = encode(messageDigest.digest(value
+					.getBytes(challenge.charset)));
+			hash1Cache.put(key, hash1);
 		}
+		return hash1;
+	}
 
-		log.info("Authorizing Digest[{}] {}", nonceCount, url);
-
-		return buffer.toString();
+	/**
+	 * Appends nonce count as 8 digit hex.
+	 */
+	private static void appendCount(final StringBuilder buffer,
+			final int nonceCount) {
+		for (int shift = 28; shift >= 0; shift -= 4)
+			buffer.append(HEXADECIMAL[(nonceCount >>> shift) & 0xf]);
 	}
 
 	private String getHeaderValueByType(final String type,
@@ -258,9 +300,8 @@ public class DigestAuthorization extends Authorization {
 	 * @return The cnonce value as String.
 	 */
 	public static String createCnonce() {
-		final SecureRandom rnd = new SecureRandom();
 		final byte[] tmp = new byte[8];
-		rnd.nextBytes(tmp);
+		RANDOM.nextBytes(tmp);
 		return encode(tmp);
 	}
 
@@ -0,0 +1,102 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network.authorization;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps digest challenges so a nonce can be reused by every request and every
+ * {@link DigestAuthorization} with the same user and host, instead of asking
+ * the server for a new challenge each time. Each challenge has its own atomic
+ * nonce count.
+ * 
+ * <p>
+ * DigestAuthorizations use {@link #getShared()} unless given their own store.
+ * DigestNonceStore is thread-safe.
+ * </p>
+ * 
+ * @see DigestAuthorization#setNonceStore(DigestNonceStore)
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class DigestNonceStore {
+	private static final DigestNonceStore SHARED = new DigestNonceStore();
+	private final ConcurrentMap<String, Challenge> challenges;
+
+	public DigestNonceStore() {
+		challenges = new ConcurrentHashMap<String, Challenge>();
+	}
+
+	/**
+	 * Gets store shared by the whole JVM.
+	 * 
+	 * @return shared store
+	 */
+	public static DigestNonceStore getShared() {
+		return SHARED;
+	}
+
+	public void clear() {
+		challenges.clear();
+	}
+
+	public int size() {
+		return challenges.size();
+	}
+
+	Challenge get(final String key) {
+		return challenges.get(key);
+	}
+
+	void put(final String key, final Challenge challenge) {
+		challenges.put(key, challenge);
+	}
+
+	/**
+	 * Removes challenge unless it was already replaced.
+	 */
+	void remove(final String key, final Challenge challenge) {
+		challenges.remove(key, challenge);
+	}
+
+	static final class Challenge {
+		final String realm;
+		final String nonce;
+		final String algorithm;
+		final String qop;
+		final String charset;
+		private final AtomicInteger nonceCount;
+
+		Challenge(final String realm, final String nonce,
+				final String algorithm, final String qop, final String charset) {
+			this.realm = realm;
+			this.nonce = nonce;
+			this.algorithm = algorithm;
+			this.qop = qop;
+			this.charset = charset;
+			nonceCount = new AtomicInteger();
+		}
+
+		int nextCount() {
+			return nonceCount.incrementAndGet();
+		}
+	}
+
+}
@@ -24,7 +24,7 @@ import org.xml.sax.helpers.DefaultHandler;
 /**
  * Filter applied to {@link Handler} for {@link Expression} evaluation.
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Dec 24 2012
  * @author Kyle Kroboth
  */
@@ -69,7 +69,7 @@ public interface ExpressionFilter {
 	 * @param uri
 	 * @param localName
 	 * @param qName
-	 * @return
+	 * @return true to search the next && path, ignored for || paths
 	 * @throws SAXException
 	 * 
 	 */
@@ -31,7 +31,7 @@ import com.krobothsoftware.commons.progress.ProgressHelper;
  * 
  * @see Parser#parse(java.io.InputStream, Handler, String)
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Nov 25 2012
  * @author Kyle Kroboth
  */
@@ -40,6 +40,8 @@ public abstract class Handler extends DefaultHandler {
 	protected Parser parser;
 	protected String startTag;
 	protected boolean calledStartElement;
+	volatile long bytesRead;
+	boolean skipRequested;
 	private static int SDK_VERSION = -1;
 
 	public Handler(final ProgressHelper progressHelper) {
@@ -78,6 +80,50 @@ public abstract class Handler extends DefaultHandler {
 		parser.log.error("Handler warning [{}]", e.toString());
 	}
 
+	/**
+	 * Called when the element matched by the last path of an
+	 * {@link ExpressionFilter}'s expression ends. Stops parsing by default
+	 * since the filter's data is inside that element; override to keep
+	 * parsing.
+	 * 
+	 * @param expr
+	 *            index of last path
+	 * @throws SAXException
+	 */
+	protected void endRegion(final int expr) throws SAXException {
+		throw new StopSAXException();
+	}
+
+	/**
+	 * Skips children of the element just started. Nothing inside it is
+	 * matched or passed to the handler, only its end element. Only works for
+	 * handlers implementing {@link ExpressionFilter}, which is where
+	 * {@link Expression} matching would otherwise look at every element.
+	 */
+	protected final void skipChildren() {
+		skipRequested = true;
+	}
+
+	/**
+	 * Gets amount of items parsed, like trophies or games. Recorded to
+	 * endpoint metrics when parsing a response.
+	 * 
+	 * @return item count, zero by default
+	 */
+	public int getItemCount() {
+		return 0;
+	}
+
+	/**
+	 * Gets bytes read from the stream while parsing. Parsing stopped early
+	 * reads less of the stream.
+	 * 
+	 * @return bytes read
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
 	void setParser(final Parser defaultParser) {
 		parser = defaultParser;
 	}
@@ -0,0 +1,61 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.parse;
+
+/**
+ * Listener for a single parse, given to
+ * {@link Parser#parse(java.io.InputStream, Handler, String, ParseListener)}.
+ * Lets the source of the stream record parse time without the parser knowing
+ * about it.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public interface ParseListener {
+
+	/**
+	 * Called before handler starts reading the stream.
+	 * 
+	 * @param handler
+	 *            name of handler
+	 */
+	void onParsing(final String handler);
+
+	/**
+	 * Called after parse whether or not an error occurred. Parser closes the
+	 * stream of a stopped parse, but streams ignoring
+	 * {@link java.io.InputStream#close()} have to be closed by the listener.
+	 * 
+	 * @param handler
+	 *            name of handler
+	 * @param nanos
+	 *            time spent parsing, including reading the stream
+	 * @param bytesRead
+	 *            bytes read by handler
+	 * @param itemCount
+	 *            items parsed
+	 * @param stopped
+	 *            whether handler stopped before the end of the document
+	 * @param error
+	 *            error parsing, or null if successful
+	 */
+	void onParsed(final String handler, final long nanos,
+			final long bytesRead, final int itemCount, final boolean stopped,
+			final Throwable error);
+
+}
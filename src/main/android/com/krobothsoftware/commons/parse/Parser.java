@@ -19,6 +19,11 @@ package com.krobothsoftware.commons.parse;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
@@ -28,30 +33,73 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.krobothsoftware.commons.util.CountingInputStream;
 
 /**
  * Parser is used to parse XML and HTML data. Xml is parsed by SAX and Html by
- * TagSoup(SAX).
+ * TagSoup(SAX). A {@link HandlerPull} reads Xml with a {@link PullReader}
+ * instead.
+ * <p>
+ * SAX parsers aren't thread-safe, so each parse borrows one from a bounded
+ * pool and resets it when done. Factories are created once for all Parsers,
+ * which makes one Parser safe to share between threads without locking while
+ * parsing.
+ * </p>
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Nov 25 2012
  * @author Kyle Kroboth
  */
 public class Parser {
-	final SAXParser xmlParser;
-	final SAXParser htmlParser;
+	static final SAXParserFactory XML_FACTORY;
+	static final SAXParserFactory HTML_FACTORY;
+	final Pool xmlPool;
+	final Pool htmlPool;
 	final Logger log;
+	private final AtomicLong bytesRead;
+	private final AtomicLong stoppedCount;
 
+	/**
+	 * Creates Parser keeping up to twice the number of processors of each
+	 * parser type.
+	 * 
+	 * @throws ParserConfigurationException
+	 * @throws SAXException
+	 */
 	public Parser() throws ParserConfigurationException, SAXException {
+		this(Runtime.getRuntime().availableProcessors() * 2);
+	}
+
+	/**
+	 * Creates Parser keeping up to <code>poolSize</code> idle parsers of each
+	 * type. More parsers are created when more threads parse at once, but only
+	 * <code>poolSize</code> are kept afterwards.
+	 * 
+	 * @param poolSize
+	 *            idle parsers kept per type
+	 * @throws ParserConfigurationException
+	 * @throws SAXException
+	 */
+	public Parser(final int poolSize) throws ParserConfigurationException,
+			SAXException {
+		if (poolSize < 1) throw new IllegalArgumentException(
+				"poolSize must be positive");
 		log = LoggerFactory.getLogger(Parser.class);
-		xmlParser = SAXParserFactory.newInstance().newSAXParser();
-		htmlParser = SAXParserFactory.newInstance(
-				"org.ccil.cowan.tagsoup.jaxp.SAXFactoryImpl",
-				Parser.class.getClassLoader()).newSAXParser();
+		xmlPool = new Pool(XML_FACTORY, poolSize);
+		htmlPool = new Pool(HTML_FACTORY, poolSize);
+		bytesRead = new AtomicLong();
+		stoppedCount = new AtomicLong();
+
+		// fail early if parsers can't be configured
+		xmlPool.release(xmlPool.create());
+		htmlPool.release(htmlPool.create());
 	}
 
 	/**
-	 * Parses inputstream for {@link Handler}
+	 * Parses inputstream for {@link Handler}. If handler stops before the end
+	 * of the document, the stream is closed so the rest isn't read.
 	 * 
 	 * @param inputStream
 	 *            inputstream to be parsed
@@ -61,30 +109,206 @@ public class Parser {
 	 */
 	public void parse(final InputStream inputStream, final Handler handler,
 			final String charset) throws ParseException {
-		log.debug("Parsing {}", handler.getClass().getSimpleName());
+		parse(inputStream, handler, charset, null);
+	}
+
+	/**
+	 * Parses inputstream for {@link Handler}, telling <code>listener</code>
+	 * when parsing starts and ends. If handler stops before the end of the
+	 * document, the stream is closed so the rest isn't read.
+	 * 
+	 * @param inputStream
+	 *            inputstream to be parsed
+	 * @param handler
+	 * @param charset
+	 * @param listener
+	 *            listener of parse, may be null
+	 * @throws ParseException
+	 */
+	public void parse(final InputStream inputStream, final Handler handler,
+			final String charset, final ParseListener listener)
+			throws ParseException {
+		final String name = handler.getClass().getSimpleName();
+		log.debug("Parsing {}", name);
 		handler.setParser(this);
+		if (listener != null) listener.onParsing(name);
+		final long start = System.nanoTime();
+		final CountingInputStream counter = new CountingInputStream(
+				inputStream);
+		boolean stopped = false;
+		Throwable error = null;
+		try {
+			if (handler instanceof HandlerPull) stopped = parsePull(counter,
+					(HandlerPull) handler, charset);
+			else
+				stopped = parseSax(counter, handler, charset);
+		} catch (final ParseException e) {
+			error = e;
+			throw e;
+		} catch (final RuntimeException e) {
+			error = e;
+			throw e;
+		} finally {
+			final long count = counter.getCount();
+			handler.bytesRead = count;
+			bytesRead.addAndGet(count);
+			if (stopped) {
+				log.debug("Stopped {} after {} bytes", name, count);
+				stoppedCount.incrementAndGet();
+				close(inputStream);
+			}
+			if (listener != null) listener.onParsed(name, System.nanoTime()
+					- start, count,
+					error == null ? handler.getItemCount() : 0, stopped,
+					error);
+		}
+	}
+
+	/**
+	 * Gets bytes read by all parses.
+	 * 
+	 * @return bytes read
+	 */
+	public long getBytesRead() {
+		return bytesRead.get();
+	}
+
+	/**
+	 * Gets number of parses stopped by their handler before the end of the
+	 * document.
+	 * 
+	 * @return stopped parses
+	 */
+	public long getStoppedCount() {
+		return stoppedCount.get();
+	}
+
+	private boolean parsePull(final InputStream inputStream,
+			final HandlerPull handler, final String charset)
+			throws ParseException {
+		final PullReader reader;
+		try {
+			reader = new PullReader(new InputStreamReader(inputStream,
+					charset != null ? charset : "UTF-8"));
+		} catch (final IOException e) {
+			throw new ParseException(e.getMessage(), e);
+		}
+		handler.parse(reader);
+		return reader.getEvent() != PullReader.END_DOCUMENT;
+	}
+
+	private boolean parseSax(final InputStream inputStream,
+			final Handler handler, final String charset) throws ParseException {
+		final Pool pool;
 		final InputSource inputSource = new InputSource(inputStream);
-		inputSource.setEncoding(charset);
+		if (handler instanceof HandlerXml) pool = xmlPool;
+		else if (handler instanceof HandlerHtml) {
+			pool = htmlPool;
+			inputSource.setEncoding(charset);
+		} else
+			throw new ParseException(String.format("Unsupported Handler [%s]",
+					handler.getClass()));
+
+		final SAXParser saxParser = pool.acquire();
 		try {
-			if (handler instanceof HandlerXml) {
-				xmlParser
-						.parse(inputStream,
-								(handler instanceof ExpressionFilter) ? new ExpressionHandler(
-										handler) : handler);
-			} else if (handler instanceof HandlerHtml) {
-				htmlParser
-						.parse(inputSource,
-								(handler instanceof ExpressionFilter) ? new ExpressionHandler(
-										handler) : handler);
-			} else
-				throw new ParseException(String.format(
-						"Unsupported Handler [%s]", handler.getClass()));
-		} catch (SAXException e) {
-			if (e instanceof StopSAXException) return;
+			final DefaultHandler saxHandler = (handler instanceof ExpressionFilter) ? new ExpressionHandler(
+					handler, isInterning(saxParser)) : handler;
+			saxParser.parse(inputSource, saxHandler);
+			return false;
+		} catch (final SAXException e) {
+			if (e instanceof StopSAXException) return true;
 			throw new ParseException(e.getMessage(), e);
-		} catch (IOException e) {
+		} catch (final IOException e) {
 			throw new ParseException(e.getMessage(), e);
+		} finally {
+			pool.release(saxParser);
+		}
+	}
+
+	/**
+	 * Checks if parser reports interned names, so expressions can compare
+	 * tags by reference.
+	 */
+	private static boolean isInterning(final SAXParser saxParser) {
+		try {
+			return saxParser.getXMLReader().getFeature(
+					"http://xml.org/sax/features/string-interning");
+		} catch (final SAXException e) {
+			// not recognized or supported
+			return false;
+		}
+	}
+
+	private void close(final InputStream inputStream) {
+		try {
+			inputStream.close();
+		} catch (final IOException e) {
+			log.debug("Couldn't close stopped stream [{}]", e.toString());
 		}
 	}
 
+	/**
+	 * Bounded pool of idle parsers from one factory.
+	 */
+	static final class Pool {
+		private final SAXParserFactory factory;
+		private final Queue<SAXParser> idle;
+		private final AtomicInteger idleCount;
+		private final int size;
+
+		Pool(final SAXParserFactory factory, final int size) {
+			this.factory = factory;
+			this.size = size;
+			idle = new ConcurrentLinkedQueue<SAXParser>();
+			idleCount = new AtomicInteger();
+		}
+
+		SAXParser acquire() throws ParseException {
+			final SAXParser saxParser = idle.poll();
+			if (saxParser != null) {
+				idleCount.decrementAndGet();
+				return saxParser;
+			}
+
+			try {
+				return create();
+			} catch (final ParserConfigurationException e) {
+				throw new ParseException(e.getMessage(), e);
+			} catch (final SAXException e) {
+				throw new ParseException(e.getMessage(), e);
+			}
+		}
+
+		SAXParser create() throws ParserConfigurationException, SAXException {
+			// factories aren't guaranteed to be thread-safe
+			synchronized (factory) {
+				return factory.newSAXParser();
+			}
+		}
+
+		/**
+		 * Resets parser and keeps it if pool isn't full.
+		 */
+		void release(final SAXParser saxParser) {
+			try {
+				saxParser.reset();
+			} catch (final UnsupportedOperationException e) {
+				// TagSoup starts with fresh state on every parse
+			}
+
+			if (idleCount.incrementAndGet() > size) {
+				idleCount.decrementAndGet();
+				return;
+			}
+			idle.offer(saxParser);
+		}
+	}
+
+	static {
+		XML_FACTORY = SAXParserFactory.newInstance();
+		HTML_FACTORY = SAXParserFactory.newInstance(
+				"org.ccil.cowan.tagsoup.jaxp.SAXFactoryImpl",
+				Parser.class.getClassLoader());
+	}
+
 }
@@ -25,11 +25,19 @@ import org.xml.sax.helpers.DefaultHandler;
  * SAX Exception for stopping parsing in {@link DefaultHandler} which is caught
  * internally.
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Dec 24 2012
  * @author Kyle Kroboth
  */
 public final class StopSAXException extends SAXException {
 	private static final long serialVersionUID = 5964448482034581273L;
 
+	/**
+	 * Stack trace isn't needed for stopping, so it isn't filled in.
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+
 }
@@ -0,0 +1,254 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.parse;
+
+/**
+ * Reusable text accumulator for SAX handlers. Text of an element may come in
+ * several <code>characters</code> calls; appending each chunk and reading the
+ * buffer at the end of the element gets the whole text. Numbers are parsed
+ * straight from the buffer, and repeated values can be shared with
+ * {@link #intern()}.
+ * <p>
+ * Static methods parse from <code>characters</code> arguments directly when
+ * text isn't accumulated. Not thread-safe.
+ * </p>
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public final class TextBuffer implements CharSequence {
+	private static final int INTERN_SIZE = 64;
+
+	private char[] chars;
+	private int length;
+	private String[] interned;
+
+	public TextBuffer() {
+		this(64);
+	}
+
+	public TextBuffer(final int capacity) {
+		chars = new char[capacity];
+	}
+
+	/**
+	 * Appends chunk of text.
+	 * 
+	 * @param ch
+	 *            characters from <code>characters</code>
+	 * @param start
+	 *            start of chunk
+	 * @param length
+	 *            length of chunk
+	 * @return this buffer
+	 */
+	public TextBuffer append(final char[] ch, final int start, final int length) {
+		final int required = this.length + length;
+		if (required > chars.length) {
+			final char[] tmp = new char[Math.max(required, chars.length * 2)];
+			System.arraycopy(chars, 0, tmp, 0, this.length);
+			chars = tmp;
+		}
+		System.arraycopy(ch, start, chars, this.length, length);
+		this.length = required;
+		return this;
+	}
+
+	public void clear() {
+		length = 0;
+	}
+
+	public boolean isEmpty() {
+		return length == 0;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(final int index) {
+		if (index >= length) throw new IndexOutOfBoundsException(
+				String.valueOf(index));
+		return chars[index];
+	}
+
+	@Override
+	public CharSequence subSequence(final int start, final int end) {
+		if (end > length) throw new IndexOutOfBoundsException(
+				String.valueOf(end));
+		return new String(chars, start, end - start);
+	}
+
+	/**
+	 * Checks text, ignoring case.
+	 * 
+	 * @param expected
+	 *            text to compare
+	 * @return true, if text matches
+	 */
+	public boolean equalsIgnoreCase(final String expected) {
+		return regionMatches(chars, 0, length, expected);
+	}
+
+	/**
+	 * Parses text as a decimal integer. Surrounding whitespace is ignored.
+	 * 
+	 * @return value
+	 * @throws NumberFormatException
+	 *             if text isn't a number
+	 */
+	public int parseInt() {
+		return parseInt(chars, 0, length, 10);
+	}
+
+	/**
+	 * Parses part of text as an integer. Surrounding whitespace of part is
+	 * ignored.
+	 * 
+	 * @param start
+	 *            start of part
+	 * @param end
+	 *            end of part, exclusive
+	 * @param radix
+	 *            radix of value
+	 * @return value
+	 * @throws NumberFormatException
+	 *             if part isn't a number
+	 */
+	public int parseInt(final int start, final int end, final int radix) {
+		if (start < 0 || end > length || start > end) throw new NumberFormatException(
+				String.format("For input [%s] part %d-%d", toString(), start,
+						end));
+		return parseInt(chars, start, end - start, radix);
+	}
+
+	/**
+	 * Parses text as a boolean, same as {@link Boolean#parseBoolean(String)}.
+	 */
+	public boolean parseBoolean() {
+		return equalsIgnoreCase("true");
+	}
+
+	/**
+	 * Gets text as a string shared with previous equal texts of this buffer.
+	 * Only recent values are remembered, so use for values that repeat, like
+	 * platforms or presence.
+	 * 
+	 * @return text
+	 */
+	public String intern() {
+		if (interned == null) interned = new String[INTERN_SIZE];
+		int hash = 0;
+		for (int i = 0; i < length; i++)
+			hash = 31 * hash + chars[i];
+		final int slot = (hash ^ hash >>> 16) & (INTERN_SIZE - 1);
+
+		final String value = interned[slot];
+		if (value != null && value.length() == length) {
+			int i = 0;
+			while (i < length && value.charAt(i) == chars[i])
+				i++;
+			if (i == length) return value;
+		}
+
+		return interned[slot] = toString();
+	}
+
+	@Override
+	public String toString() {
+		return new String(chars, 0, length);
+	}
+
+	/**
+	 * Parses integer from characters. Surrounding whitespace is ignored.
+	 * 
+	 * @param ch
+	 *            characters
+	 * @param start
+	 *            start of number
+	 * @param length
+	 *            length of number
+	 * @param radix
+	 *            radix of value
+	 * @return value
+	 * @throws NumberFormatException
+	 *             if characters aren't a number
+	 */
+	public static int parseInt(final char[] ch, final int start,
+			final int length, final int radix) {
+		int begin = start;
+		int end = start + length;
+		while (begin < end && isWhitespace(ch[begin]))
+			begin++;
+		while (end > begin && isWhitespace(ch[end - 1]))
+			end--;
+
+		boolean negative = false;
+		if (begin < end && (ch[begin] == '-' || ch[begin] == '+')) {
+			negative = ch[begin] == '-';
+			begin++;
+		}
+		if (begin == end) throw notNumber(ch, start, length);
+
+		// accumulated negatively so Integer.MIN_VALUE fits
+		final int min = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+		final int multiMin = min / radix;
+		int result = 0;
+		for (int i = begin; i < end; i++) {
+			final int digit = Character.digit(ch[i], radix);
+			if (digit < 0 || result < multiMin) throw notNumber(ch, start,
+					length);
+			result *= radix;
+			if (result < min + digit) throw notNumber(ch, start, length);
+			result -= digit;
+		}
+
+		return negative ? result : -result;
+	}
+
+	static boolean regionMatches(final char[] ch, final int start,
+			final int length, final String expected) {
+		if (length != expected.length()) return false;
+		for (int i = 0; i < length; i++) {
+			final char c = ch[start + i];
+			final char e = expected.charAt(i);
+			if (c != e && Character.toLowerCase(c) != Character.toLowerCase(e))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Same whitespace as <code>CommonUtils.trim(String)</code>, which includes
+	 * no-break spaces of Html.
+	 */
+	private static boolean isWhitespace(final char c) {
+		return Character.isWhitespace(c) || c == '\u00A0' || c == '\u2007'
+				|| c == '\u202F';
+	}
+
+	private static NumberFormatException notNumber(final char[] ch,
+			final int start, final int length) {
+		return new NumberFormatException(String.format("For input [%s]",
+				new String(ch, start, length)));
+	}
+
+}
@@ -0,0 +1,115 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts bytes read from stream, and tells its {@link Listener} when the end
+ * is reached. Count may be read from other threads.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public final class CountingInputStream extends FilterInputStream {
+	private volatile long count;
+	private Listener listener;
+	private boolean ended;
+
+	public CountingInputStream(final InputStream in) {
+		super(in);
+	}
+
+	/**
+	 * Wraps <code>in</code> if not null.
+	 * 
+	 * @param in
+	 *            stream to count
+	 * @return counting stream, or null if <code>in</code> is null
+	 */
+	public static CountingInputStream wrap(final InputStream in) {
+		return in != null ? new CountingInputStream(in) : null;
+	}
+
+	/**
+	 * Gets bytes read or skipped so far.
+	 * 
+	 * @return byte count
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Sets listener told once when the end of the stream is read.
+	 * 
+	 * @param listener
+	 *            end listener, or null for none
+	 */
+	public void setListener(final Listener listener) {
+		this.listener = listener;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final int b = super.read();
+		if (b != -1) count++;
+		else
+			onEnd();
+		return b;
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+			throws IOException {
+		final int read = super.read(b, off, len);
+		if (read > 0) count += read;
+		else if (read == -1) onEnd();
+		return read;
+	}
+
+	@Override
+	public long skip(final long n) throws IOException {
+		final long skipped = super.skip(n);
+		count += skipped;
+		return skipped;
+	}
+
+	private void onEnd() {
+		if (ended) return;
+		ended = true;
+		if (listener != null) listener.onEnd(this);
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	/**
+	 * Listener for the end of a {@link CountingInputStream}.
+	 */
+	public interface Listener {
+
+		void onEnd(CountingInputStream stream);
+
+	}
+
+}
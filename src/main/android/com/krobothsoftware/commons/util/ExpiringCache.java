@@ -0,0 +1,216 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size bounded cache where every value expires after its own time to live.
+ * Least recently used values are evicted when the cache is full.
+ * 
+ * <p>
+ * Values are loaded with {@link #get(Object, long, TimeUnit, Callable)}. If
+ * several threads miss the same key at once, only one runs the loader and the
+ * others wait for its value. Failed loads aren't cached.
+ * </p>
+ * 
+ * <p>
+ * ExpiringCache is thread-safe.
+ * </p>
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class ExpiringCache<K, V> {
+	private final LinkedHashMap<K, CachedValue<V>> values;
+	private final ConcurrentMap<K, FutureTask<V>> loading;
+	private final AtomicLong hits;
+	private final AtomicLong misses;
+	private final AtomicLong evictions;
+	private int maxEntries;
+
+	/**
+	 * Instantiates a new cache.
+	 * 
+	 * @param maxEntries
+	 *            max values kept
+	 * @throws IllegalArgumentException
+	 *             thrown if maxEntries is zero or less
+	 */
+	public ExpiringCache(final int maxEntries) {
+		setMaxEntries(maxEntries);
+		loading = new ConcurrentHashMap<K, FutureTask<V>>();
+		hits = new AtomicLong();
+		misses = new AtomicLong();
+		evictions = new AtomicLong();
+		values = new LinkedHashMap<K, CachedValue<V>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					final Map.Entry<K, CachedValue<V>> eldest) {
+				if (size() <= ExpiringCache.this.maxEntries) return false;
+				evictions.incrementAndGet();
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Sets max values kept. Extra values are evicted on next store.
+	 * 
+	 * @param maxEntries
+	 *            max values
+	 * @throws IllegalArgumentException
+	 *             thrown if maxEntries is zero or less
+	 */
+	public synchronized void setMaxEntries(final int maxEntries) {
+		if (maxEntries <= 0) throw new IllegalArgumentException(
+				"max entries must be greater than 0");
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Gets value of key, loading it if missing or expired. Loaded value is
+	 * kept for <code>ttl</code>, or not at all if ttl is zero or less.
+	 * 
+	 * @param key
+	 *            key
+	 * @param ttl
+	 *            time to live of loaded value
+	 * @param unit
+	 *            unit of ttl
+	 * @param loader
+	 *            loads value
+	 * @return value
+	 * @throws Exception
+	 *             exception thrown by loader
+	 */
+	public V get(final K key, final long ttl, final TimeUnit unit,
+			final Callable<V> loader) throws Exception {
+		synchronized (this) {
+			final CachedValue<V> cached = values.get(key);
+			if (cached != null) {
+				if (cached.expires - System.nanoTime() > 0) {
+					hits.incrementAndGet();
+					return cached.value;
+				}
+				values.remove(key);
+			}
+		}
+
+		misses.incrementAndGet();
+		final FutureTask<V> task = new FutureTask<V>(loader);
+		final FutureTask<V> running = loading.putIfAbsent(key, task);
+		if (running != null) return await(running);
+
+		try {
+			task.run();
+			final V value = await(task);
+			if (ttl > 0) put(key, value, ttl, unit);
+			return value;
+		} finally {
+			loading.remove(key, task);
+		}
+	}
+
+	/**
+	 * Stores value of key for <code>ttl</code>.
+	 * 
+	 * @param key
+	 *            key
+	 * @param value
+	 *            value
+	 * @param ttl
+	 *            time to live
+	 * @param unit
+	 *            unit of ttl
+	 */
+	public void put(final K key, final V value, final long ttl,
+			final TimeUnit unit) {
+		final CachedValue<V> cached = new CachedValue<V>(value,
+				System.nanoTime() + unit.toNanos(ttl));
+		synchronized (this) {
+			values.put(key, cached);
+		}
+	}
+
+	public synchronized void remove(final K key) {
+		values.remove(key);
+	}
+
+	public synchronized void clear() {
+		values.clear();
+	}
+
+	/**
+	 * Gets amount of stored values, including expired ones not removed yet.
+	 * 
+	 * @return size
+	 */
+	public synchronized int size() {
+		return values.size();
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Gets amount of values evicted because cache was full.
+	 * 
+	 * @return eviction count
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	private V await(final FutureTask<V> task) throws Exception {
+		try {
+			return task.get();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof Exception) throw (Exception) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw e;
+		}
+	}
+
+	private static final class CachedValue<V> {
+		final V value;
+		final long expires;
+
+		CachedValue(final V value, final long expires) {
+			this.value = value;
+			this.expires = expires;
+		}
+	}
+
+}
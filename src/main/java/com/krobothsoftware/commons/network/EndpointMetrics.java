@@ -0,0 +1,347 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and timings of one endpoint. Network time runs from sending the
+ * request until the response headers are read; the body is streamed while
+ * parsing, so downloading it counts as parse time. Compressed bytes are read
+ * off the connection, decompressed bytes are what the reader received.
+ * Connections are counted as reused when a {@link Response#release() released}
+ * response left them to the keep-alive cache, and as closed otherwise.
+ * 
+ * @see MetricsRegistry
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class EndpointMetrics {
+	private final String endpoint;
+	private final AtomicLong requests;
+	private final AtomicLong failures;
+	private final AtomicLong retries;
+	private final AtomicLong rejected;
+	private final AtomicLong parseFailures;
+	private final AtomicLong items;
+	private final AtomicLong compressedBytes;
+	private final AtomicLong decompressedBytes;
+	private final AtomicLong reused;
+	private final AtomicLong closed;
+	private final AtomicLong drainedBytes;
+	private final ConcurrentMap<Integer, AtomicLong> statusCodes;
+	private final Histogram limiterTime;
+	private final Histogram networkTime;
+	private final Histogram parseTime;
+
+	EndpointMetrics(final String endpoint) {
+		this.endpoint = endpoint;
+		requests = new AtomicLong();
+		failures = new AtomicLong();
+		retries = new AtomicLong();
+		rejected = new AtomicLong();
+		parseFailures = new AtomicLong();
+		items = new AtomicLong();
+		compressedBytes = new AtomicLong();
+		decompressedBytes = new AtomicLong();
+		reused = new AtomicLong();
+		closed = new AtomicLong();
+		drainedBytes = new AtomicLong();
+		statusCodes = new ConcurrentHashMap<Integer, AtomicLong>(8);
+		limiterTime = new Histogram();
+		networkTime = new Histogram();
+		parseTime = new Histogram();
+	}
+
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	void onRequest() {
+		requests.incrementAndGet();
+	}
+
+	void onResponse(final int statusCode, final long networkNanos) {
+		final Integer key = Integer.valueOf(statusCode);
+		AtomicLong counter = statusCodes.get(key);
+		if (counter == null) {
+			final AtomicLong created = new AtomicLong();
+			counter = statusCodes.putIfAbsent(key, created);
+			if (counter == null) counter = created;
+		}
+		counter.incrementAndGet();
+		networkTime.record(networkNanos);
+	}
+
+	void onFailure() {
+		failures.incrementAndGet();
+	}
+
+	void onRetry() {
+		retries.incrementAndGet();
+	}
+
+	void onRejected() {
+		rejected.incrementAndGet();
+	}
+
+	void onLimiterWait(final long nanos) {
+		limiterTime.record(nanos);
+	}
+
+	void onBytes(final long compressed, final long decompressed) {
+		compressedBytes.addAndGet(compressed);
+		decompressedBytes.addAndGet(decompressed);
+	}
+
+	void onConnectionEnd(final boolean reusedConnection, final long drained) {
+		if (reusedConnection) reused.incrementAndGet();
+		else
+			closed.incrementAndGet();
+		drainedBytes.addAndGet(drained);
+	}
+
+	/**
+	 * Records parse of a response from this endpoint.
+	 * 
+	 * @param nanos
+	 *            time spent parsing, including reading the body
+	 * @param itemCount
+	 *            items parsed
+	 * @param failed
+	 *            true, if parsing failed
+	 */
+	public void onParse(final long nanos, final int itemCount,
+			final boolean failed) {
+		parseTime.record(nanos);
+		if (failed) parseFailures.incrementAndGet();
+		else
+			items.addAndGet(itemCount);
+	}
+
+	/**
+	 * Gets copy of counters and timings.
+	 * 
+	 * @return snapshot
+	 */
+	public Snapshot getSnapshot() {
+		final Map<Integer, Long> codes = new TreeMap<Integer, Long>();
+		for (final Map.Entry<Integer, AtomicLong> entry : statusCodes
+				.entrySet())
+			codes.put(entry.getKey(), Long.valueOf(entry.getValue().get()));
+		return new Snapshot(this, Collections.unmodifiableMap(codes));
+	}
+
+	void reset() {
+		requests.set(0);
+		failures.set(0);
+		retries.set(0);
+		rejected.set(0);
+		parseFailures.set(0);
+		items.set(0);
+		compressedBytes.set(0);
+		decompressedBytes.set(0);
+		reused.set(0);
+		closed.set(0);
+		drainedBytes.set(0);
+		statusCodes.clear();
+		limiterTime.reset();
+		networkTime.reset();
+		parseTime.reset();
+	}
+
+	/**
+	 * Immutable copy of {@link EndpointMetrics}.
+	 */
+	public static final class Snapshot {
+		private final String endpoint;
+		private final long requests;
+		private final long failures;
+		private final long retries;
+		private final long rejected;
+		private final long parseFailures;
+		private final long items;
+		private final long compressedBytes;
+		private final long decompressedBytes;
+		private final long reused;
+		private final long closed;
+		private final long drainedBytes;
+		private final Map<Integer, Long> statusCodes;
+		private final Histogram.Snapshot limiterTime;
+		private final Histogram.Snapshot networkTime;
+		private final Histogram.Snapshot parseTime;
+
+		Snapshot(final EndpointMetrics metrics,
+				final Map<Integer, Long> statusCodes) {
+			endpoint = metrics.endpoint;
+			requests = metrics.requests.get();
+			failures = metrics.failures.get();
+			retries = metrics.retries.get();
+			rejected = metrics.rejected.get();
+			parseFailures = metrics.parseFailures.get();
+			items = metrics.items.get();
+			compressedBytes = metrics.compressedBytes.get();
+			decompressedBytes = metrics.decompressedBytes.get();
+			reused = metrics.reused.get();
+			closed = metrics.closed.get();
+			drainedBytes = metrics.drainedBytes.get();
+			this.statusCodes = statusCodes;
+			limiterTime = metrics.limiterTime.getSnapshot();
+			networkTime = metrics.networkTime.getSnapshot();
+			parseTime = metrics.parseTime.getSnapshot();
+		}
+
+		public String getEndpoint() {
+			return endpoint;
+		}
+
+		/**
+		 * Gets amount of requests sent, including retries.
+		 * 
+		 * @return request count
+		 */
+		public long getRequestCount() {
+			return requests;
+		}
+
+		/**
+		 * Gets amount of requests failing without a response.
+		 * 
+		 * @return failure count
+		 */
+		public long getFailureCount() {
+			return failures;
+		}
+
+		public long getRetryCount() {
+			return retries;
+		}
+
+		/**
+		 * Gets amount of requests not sent because the host's
+		 * {@link CircuitBreaker} was open.
+		 * 
+		 * @return rejected count
+		 */
+		public long getRejectedCount() {
+			return rejected;
+		}
+
+		public long getParseFailureCount() {
+			return parseFailures;
+		}
+
+		/**
+		 * Gets amount of items parsed, like trophies or games.
+		 * 
+		 * @return item count
+		 */
+		public long getItemCount() {
+			return items;
+		}
+
+		public long getCompressedBytes() {
+			return compressedBytes;
+		}
+
+		public long getDecompressedBytes() {
+			return decompressedBytes;
+		}
+
+		/**
+		 * Gets amount of connections left to the keep-alive cache.
+		 * 
+		 * @return reused count
+		 */
+		public long getReusedCount() {
+			return reused;
+		}
+
+		/**
+		 * Gets amount of connections closed, either by
+		 * {@link Response#disconnect()} or because the body was too large to
+		 * drain.
+		 * 
+		 * @return closed count
+		 */
+		public long getClosedCount() {
+			return closed;
+		}
+
+		/**
+		 * Gets fraction of finished responses whose connection was reused.
+		 * 
+		 * @return reuse rate from 0 to 1, or 0 if no response finished
+		 */
+		public double getReuseRate() {
+			final long total = reused + closed;
+			return total == 0 ? 0 : (double) reused / total;
+		}
+
+		/**
+		 * Gets bytes skipped by {@link Response#release()} after the body
+		 * wasn't read to its end.
+		 * 
+		 * @return drained bytes
+		 */
+		public long getDrainedBytes() {
+			return drainedBytes;
+		}
+
+		/**
+		 * Gets amount of responses per status code, ordered by code.
+		 * 
+		 * @return status code counts
+		 */
+		public Map<Integer, Long> getStatusCodes() {
+			return statusCodes;
+		}
+
+		/**
+		 * Gets time requests waited on a {@link RateLimiter}.
+		 * 
+		 * @return limiter time
+		 */
+		public Histogram.Snapshot getLimiterTime() {
+			return limiterTime;
+		}
+
+		public Histogram.Snapshot getNetworkTime() {
+			return networkTime;
+		}
+
+		public Histogram.Snapshot getParseTime() {
+			return parseTime;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"%s[requests=%d, failures=%d, retries=%d, status=%s, network={%s}, parse={%s}, bytes=%d/%d, items=%d, reused=%d/%d]",
+					endpoint, requests, failures, retries, statusCodes,
+					networkTime, parseTime, compressedBytes,
+					decompressedBytes, items, reused, reused + closed);
+		}
+	}
+
+}
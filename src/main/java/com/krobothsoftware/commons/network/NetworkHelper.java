@@ -23,9 +23,13 @@ import java.net.HttpURLConnection;
 import java.net.Proxy;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
@@ -33,6 +37,7 @@ import java.util.zip.InflaterInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.krobothsoftware.commons.network.CircuitBreaker.State;
 import com.krobothsoftware.commons.network.authorization.AuthorizationManager;
 import com.krobothsoftware.commons.network.values.NameValuePair;
 
@@ -40,9 +45,14 @@ import com.krobothsoftware.commons.network.values.NameValuePair;
  * Helper class for creating, and retrieving data using
  * {@link java.net.HttpURLConnection}
  * 
+ * <p>
+ * NetworkHelper is thread-safe. One instance can be shared by any number of
+ * threads executing {@link RequestBuilder}s at the same time, which also
+ * shares the cookies, authorizations, and the JDK keep-alive connection cache.
+ * </p>
  * 
  * @see HttpURLConnection
- * @version 3.0.2
+ * @version 3.1
  * @since Nov 25 2012
  * @author Kyle Kroboth
  */
@@ -50,28 +60,50 @@ public class NetworkHelper {
 	public static final String AGENT_DEFAULT;
 	private static final String VERSION = "3.0.2";
 	private static final ConnectionListener CONNDUMMY;
+	private static final Transport TRANSPORT_DEFAULT;
 	protected final CookieManager cookieManager;
 	protected final AuthorizationManager authManager;
+	protected final ValidatorCache validatorCache;
+	protected final RequestCoalescer coalescer;
+	protected final MetricsRegistry metrics;
+	final List<RequestListener> requestListeners;
+	final ConcurrentMap<String, RateLimiter> rateLimiters;
+	final ConcurrentMap<String, CircuitBreaker> circuitBreakers;
 	protected final Logger log;
 
-	Proxy proxy;
-	ConnectionListener connListener;
+	volatile Proxy proxy;
+	volatile Transport transport;
+	volatile ConnectionListener connListener;
+	volatile RetryPolicy retryPolicy;
 	final Map<String, String> defaultHeaderMap;
-	int defaultConnectTimeout;
-	int defaultReadTimout;
+	volatile int defaultConnectTimeout;
+	volatile int defaultReadTimout;
+	volatile double defaultRate;
+	volatile int defaultBurst;
+	volatile int defaultMaxConcurrent;
+	volatile float defaultFailureRate;
+	volatile int defaultWindowSize;
+	volatile long defaultOpenDuration;
 
 	public NetworkHelper() {
 		log = LoggerFactory.getLogger(NetworkHelper.class);
 		cookieManager = new CookieManager();
 		authManager = new AuthorizationManager(this);
-		defaultHeaderMap = new HashMap<String, String>(2);
+		validatorCache = new ValidatorCache();
+		coalescer = new RequestCoalescer();
+		metrics = new MetricsRegistry();
+		requestListeners = new CopyOnWriteArrayList<RequestListener>();
+		rateLimiters = new ConcurrentHashMap<String, RateLimiter>();
+		circuitBreakers = new ConcurrentHashMap<String, CircuitBreaker>();
+		defaultHeaderMap = new ConcurrentHashMap<String, String>(8);
 		connListener = CONNDUMMY;
+		transport = TRANSPORT_DEFAULT;
 		setupHeaders();
 	}
 
 	/**
-	 * Cleans up cookies, authorizations, sets default headers, and removes
-	 * proxy.
+	 * Cleans up cookies, authorizations, validator cache, sets default
+	 * headers, and removes proxy.
 	 */
 	public void reset() {
 		log.info("Cleaning up");
@@ -81,6 +113,7 @@ public class NetworkHelper {
 		connListener = CONNDUMMY;
 		cookieManager.clearCookies();
 		authManager.clearAuthorizations();
+		validatorCache.clear();
 		defaultHeaderMap.clear();
 		setupHeaders();
 	}
@@ -151,10 +184,220 @@ public class NetworkHelper {
 		defaultReadTimout = readTimeout;
 	}
 
+	/**
+	 * Sets the transport that executes requests built by
+	 * {@link RequestBuilder}. Isn't changed by {@link #reset()}.
+	 * 
+	 * @param transport
+	 *            new transport, if null the default is used
+	 * @see UrlConnectionTransport
+	 */
+	public void setTransport(final Transport transport) {
+		this.transport = transport != null ? transport : TRANSPORT_DEFAULT;
+	}
+
+	public Transport getTransport() {
+		return transport;
+	}
+
+	/**
+	 * Sets retry policy used by requests without their own. Isn't changed by
+	 * {@link #reset()}.
+	 * 
+	 * @param retryPolicy
+	 *            retry policy, null for no retries
+	 * @see RequestBuilder#setRetryPolicy(RetryPolicy)
+	 */
+	public void setRetryPolicy(final RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	/**
+	 * Limits requests to host. Replaces the host's previous limiter. Isn't
+	 * changed by {@link #reset()}.
+	 * 
+	 * @param host
+	 *            host name, like <code>us.playstation.com</code>
+	 * @param requestsPerSecond
+	 *            max request rate
+	 * @param burst
+	 *            requests allowed at once before rate applies
+	 * @param maxConcurrent
+	 *            max open requests, zero or less for no cap
+	 * @return limiter of host
+	 * @see RateLimiter
+	 */
+	public RateLimiter setRateLimit(final String host,
+			final double requestsPerSecond, final int burst,
+			final int maxConcurrent) {
+		final RateLimiter limiter = new RateLimiter(requestsPerSecond, burst,
+				maxConcurrent);
+		rateLimiters.put(host.toLowerCase(Locale.ENGLISH), limiter);
+		return limiter;
+	}
+
+	/**
+	 * Limits requests to every host without its own limit from
+	 * {@link #setRateLimit(String, double, int, int)}. Each host gets its own
+	 * limiter on first request. Isn't changed by {@link #reset()}.
+	 * 
+	 * @param requestsPerSecond
+	 *            max request rate per host, zero or less to remove default
+	 *            limit from hosts not requested yet
+	 * @param burst
+	 *            requests allowed at once before rate applies
+	 * @param maxConcurrent
+	 *            max open requests per host, zero or less for no cap
+	 */
+	public void setDefaultRateLimit(final double requestsPerSecond,
+			final int burst, final int maxConcurrent) {
+		defaultBurst = burst;
+		defaultMaxConcurrent = maxConcurrent;
+		defaultRate = requestsPerSecond;
+	}
+
+	/**
+	 * Removes limiter of host.
+	 * 
+	 * @param host
+	 *            host name
+	 */
+	public void removeRateLimit(final String host) {
+		rateLimiters.remove(host.toLowerCase(Locale.ENGLISH));
+	}
+
+	/**
+	 * Gets limiter of host.
+	 * 
+	 * @param host
+	 *            host name
+	 * @return limiter, or null if host isn't limited or hasn't been requested
+	 *         with a default limit
+	 */
+	public RateLimiter getRateLimiter(final String host) {
+		return rateLimiters.get(host.toLowerCase(Locale.ENGLISH));
+	}
+
+	RateLimiter getRateLimiterFor(final String host) {
+		final String key = host.toLowerCase(Locale.ENGLISH);
+		RateLimiter limiter = rateLimiters.get(key);
+		if (limiter == null && defaultRate > 0) {
+			final RateLimiter created = new RateLimiter(defaultRate,
+					defaultBurst, defaultMaxConcurrent);
+			limiter = rateLimiters.putIfAbsent(key, created);
+			if (limiter == null) limiter = created;
+		}
+		return limiter;
+	}
+
+	/**
+	 * Guards host with a circuit breaker. Replaces the host's previous
+	 * breaker. Isn't changed by {@link #reset()}.
+	 * 
+	 * @param host
+	 *            host name, like <code>trophy.ww.np.community.playstation.net</code>
+	 * @param failureRate
+	 *            failure rate opening breaker, from 0 to 1
+	 * @param windowSize
+	 *            amount of recent requests failure rate is measured over
+	 * @param openDuration
+	 *            time breaker stays open before probing
+	 * @param unit
+	 *            unit of openDuration
+	 * @return breaker of host
+	 * @see CircuitBreaker
+	 */
+	public CircuitBreaker setCircuitBreaker(final String host,
+			final float failureRate, final int windowSize,
+			final long openDuration, final TimeUnit unit) {
+		final String key = host.toLowerCase(Locale.ENGLISH);
+		final CircuitBreaker breaker = new CircuitBreaker(this, key,
+				failureRate, windowSize, openDuration, unit);
+		circuitBreakers.put(key, breaker);
+		return breaker;
+	}
+
+	/**
+	 * Guards every host without its own breaker from
+	 * {@link #setCircuitBreaker(String, float, int, long, TimeUnit)}. Each host
+	 * gets its own breaker on first request. Isn't changed by {@link #reset()}.
+	 * 
+	 * @param failureRate
+	 *            failure rate opening breaker, zero or less to remove default
+	 *            from hosts not requested yet
+	 * @param windowSize
+	 *            amount of recent requests failure rate is measured over
+	 * @param openDuration
+	 *            time breaker stays open before probing
+	 * @param unit
+	 *            unit of openDuration
+	 */
+	public void setDefaultCircuitBreaker(final float failureRate,
+			final int windowSize, final long openDuration, final TimeUnit unit) {
+		defaultWindowSize = windowSize;
+		defaultOpenDuration = unit.toNanos(openDuration);
+		defaultFailureRate = failureRate;
+	}
+
+	/**
+	 * Removes circuit breaker of host.
+	 * 
+	 * @param host
+	 *            host name
+	 */
+	public void removeCircuitBreaker(final String host) {
+		circuitBreakers.remove(host.toLowerCase(Locale.ENGLISH));
+	}
+
+	/**
+	 * Gets circuit breaker of host.
+	 * 
+	 * @param host
+	 *            host name
+	 * @return breaker, or null if host isn't guarded or hasn't been requested
+	 *         with a default breaker
+	 */
+	public CircuitBreaker getCircuitBreaker(final String host) {
+		return circuitBreakers.get(host.toLowerCase(Locale.ENGLISH));
+	}
+
+	CircuitBreaker getCircuitBreakerFor(final String host) {
+		final String key = host.toLowerCase(Locale.ENGLISH);
+		CircuitBreaker breaker = circuitBreakers.get(key);
+		if (breaker == null && defaultFailureRate > 0) {
+			final CircuitBreaker created = new CircuitBreaker(this, key,
+					defaultFailureRate, defaultWindowSize,
+					defaultOpenDuration, TimeUnit.NANOSECONDS);
+			breaker = circuitBreakers.putIfAbsent(key, created);
+			if (breaker == null) breaker = created;
+		}
+		return breaker;
+	}
+
 	public void addConnectionListener(ConnectionListener connListener) {
 		this.connListener = connListener;
 	}
 
+	/**
+	 * Adds listener on request phases. Unlike
+	 * {@link #addConnectionListener(ConnectionListener)}, any amount of
+	 * listeners can be added. Isn't changed by {@link #reset()}.
+	 * 
+	 * @param listener
+	 *            request listener
+	 */
+	public void addRequestListener(final RequestListener listener) {
+		requestListeners.add(listener);
+	}
+
+	public void removeRequestListener(final RequestListener listener) {
+		requestListeners.remove(listener);
+	}
+
 	public AuthorizationManager getAuthorizationManager() {
 		return authManager;
 	}
@@ -163,8 +406,27 @@ public class NetworkHelper {
 		return cookieManager;
 	}
 
+	public ValidatorCache getValidatorCache() {
+		return validatorCache;
+	}
+
+	public RequestCoalescer getRequestCoalescer() {
+		return coalescer;
+	}
+
 	/**
-	 * Opens connection and sets proxy if not null.
+	 * Gets metrics of requests sent through this helper. Isn't changed by
+	 * {@link #reset()}.
+	 * 
+	 * @return metrics registry
+	 */
+	public MetricsRegistry getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Opens connection and sets proxy if not null. Doesn't go through the
+	 * transport.
 	 * 
 	 * @param url
 	 *            url for connection
@@ -174,18 +436,13 @@ public class NetworkHelper {
 	 * @see #setProxy(Proxy)
 	 */
 	public HttpURLConnection openConnection(final URL url) throws IOException {
-		HttpURLConnection urlConnection = null;
-		if (proxy != null) urlConnection = (HttpURLConnection) url
-				.openConnection(proxy);
-		else
-			urlConnection = (HttpURLConnection) url.openConnection();
-
-		return urlConnection;
-
+		final Proxy proxy = this.proxy;
+		if (proxy != null) return openConnection(url, proxy);
+		return (HttpURLConnection) url.openConnection();
 	}
 
 	/**
-	 * Opens connection with proxy.
+	 * Opens connection with proxy. Doesn't go through the transport.
 	 * 
 	 * @param url
 	 *            url for connection
@@ -197,10 +454,20 @@ public class NetworkHelper {
 	 */
 	public HttpURLConnection openConnection(final URL url, final Proxy proxy)
 			throws IOException {
-		HttpURLConnection urlConnection = null;
-		urlConnection = (HttpURLConnection) url.openConnection(proxy);
+		return (HttpURLConnection) url.openConnection(proxy);
+	}
 
-		return urlConnection;
+	/**
+	 * Sets the max amount of idle keep-alive connections the JDK caches per
+	 * destination. Must be called before the first connection is opened since
+	 * the cache reads the value only once. Default is 5.
+	 * 
+	 * @param maxConnections
+	 *            max idle connections per destination
+	 */
+	public static void setMaxKeepAliveConnections(final int maxConnections) {
+		System.setProperty("http.maxConnections",
+				String.valueOf(maxConnections));
 	}
 
 	public static String setUrlQuery(String url, List<NameValuePair> query) {
@@ -246,7 +513,20 @@ public class NetworkHelper {
 	 * @return charset
 	 */
 	public static String getCharset(final HttpURLConnection urlConnection) {
-		final String[] values = urlConnection.getContentType().split(";");
+		return getCharset(urlConnection.getContentType());
+	}
+
+	/**
+	 * Gets the charset from <code>contentType</code> header value. If none
+	 * found, will return the default UTF-8.
+	 * 
+	 * @param contentType
+	 *            Content-Type header value, may be null
+	 * @return charset
+	 */
+	public static String getCharset(final String contentType) {
+		if (contentType == null) return "UTF-8";
+		final String[] values = contentType.split(";");
 
 		String charset = null;
 
@@ -280,15 +560,8 @@ public class NetworkHelper {
 	public static InputStream getInputStream(
 			final HttpURLConnection urlConnection) throws IOException {
 		if (urlConnection.getRequestMethod().equals("HEAD")) return null;
-		final String encoding = urlConnection.getContentEncoding();
-		if (encoding == null) return urlConnection.getInputStream();
-		else if (encoding.equalsIgnoreCase("gzip")) return new GZIPInputStream(
+		return decode(urlConnection.getContentEncoding(),
 				urlConnection.getInputStream());
-		else if (encoding.equalsIgnoreCase("deflate")) return new InflaterInputStream(
-				urlConnection.getInputStream(), new Inflater(true));
-
-		return null;
-
 	}
 
 	/**
@@ -305,12 +578,22 @@ public class NetworkHelper {
 	public static InputStream getErrorStream(
 			final HttpURLConnection urlConnection) throws IOException {
 		if (urlConnection.getRequestMethod().equals("HEAD")) return null;
-		final String encoding = urlConnection.getContentEncoding();
-		if (encoding == null) return urlConnection.getErrorStream();
-		else if (encoding.equalsIgnoreCase("gzip")) return new GZIPInputStream(
+		return decode(urlConnection.getContentEncoding(),
 				urlConnection.getErrorStream());
+	}
+
+	/**
+	 * Decodes stream by its Content-Encoding.
+	 * 
+	 * @return decoded stream, or null if encoding isn't supported
+	 */
+	static InputStream decode(final String encoding,
+			final InputStream inputStream) throws IOException {
+		if (encoding == null || inputStream == null) return inputStream;
+		else if (encoding.equalsIgnoreCase("gzip")) return new GZIPInputStream(
+				inputStream);
 		else if (encoding.equalsIgnoreCase("deflate")) return new InflaterInputStream(
-				urlConnection.getErrorStream(), new Inflater(true));
+				inputStream, new Inflater(true));
 
 		return null;
 	}
@@ -328,6 +611,7 @@ public class NetworkHelper {
 				VERSION, System.getProperty("os.name"),
 				System.getProperty("os.version"),
 				System.getProperty("java.version"));
+		TRANSPORT_DEFAULT = new UrlConnectionTransport();
 		CONNDUMMY = new ConnectionListener() {
 
 			@Override
@@ -340,6 +624,11 @@ public class NetworkHelper {
 
 			}
 
+			@Override
+			public void onCircuitStateChange(String host, State state) {
+
+			}
+
 		};
 	}
 }
@@ -0,0 +1,199 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits requests made to one host. A token bucket spaces requests out to a
+ * request rate with room for bursts, and an optional cap limits how many
+ * requests are open at once. A request holds its slot until
+ * {@link Response#release()} or {@link Response#disconnect()} is called.
+ * 
+ * <p>
+ * Rate adapts to the host. Every 429 (Too Many Requests) or 503 (Service
+ * Unavailable) response halves the rate, down to 1/32 of the configured rate.
+ * Every other response adds 1/32 of it back, up to the configured rate.
+ * </p>
+ * 
+ * <p>
+ * RateLimiter is thread-safe.
+ * </p>
+ * 
+ * @see NetworkHelper#setRateLimit(String, double, int, int)
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class RateLimiter {
+	private static final int HTTP_TOO_MANY_REQUESTS = 429;
+	private static final double ADAPT_FACTOR = 32;
+
+	private final double maxRate;
+	private final double burst;
+	private final int maxConcurrent;
+	private final Semaphore concurrent;
+	private final AtomicLong waitNanos;
+	private final AtomicLong waitCount;
+	private final AtomicLong throttleCount;
+	private double rate;
+	private double tokens;
+	private long lastRefill;
+
+	/**
+	 * Instantiates a new limiter.
+	 * 
+	 * @param requestsPerSecond
+	 *            max request rate
+	 * @param burst
+	 *            requests allowed at once before rate applies, at least 1
+	 * @param maxConcurrent
+	 *            max open requests, zero or less for no cap
+	 * @throws IllegalArgumentException
+	 *             thrown if requestsPerSecond is zero or less
+	 */
+	public RateLimiter(final double requestsPerSecond, final int burst,
+			final int maxConcurrent) {
+		if (requestsPerSecond <= 0) throw new IllegalArgumentException(
+				"requests per second must be greater than 0");
+		maxRate = requestsPerSecond;
+		this.burst = Math.max(1, burst);
+		this.maxConcurrent = maxConcurrent;
+		concurrent = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true)
+				: null;
+		waitNanos = new AtomicLong();
+		waitCount = new AtomicLong();
+		throttleCount = new AtomicLong();
+		rate = maxRate;
+		tokens = this.burst;
+		lastRefill = System.nanoTime();
+	}
+
+	/**
+	 * Waits until a request may be sent.
+	 * 
+	 * @throws InterruptedIOException
+	 *             thrown if thread was interrupted while waiting
+	 */
+	public void acquire() throws InterruptedIOException {
+		final long start = System.nanoTime();
+		long delay;
+		synchronized (this) {
+			refill(start);
+			// reserve token, a negative balance is paid off by waiting
+			tokens -= 1;
+			delay = tokens >= 0 ? 0 : (long) (-tokens / rate * 1E9);
+		}
+
+		boolean blocked = delay > 0;
+		try {
+			if (delay > 0) TimeUnit.NANOSECONDS.sleep(delay);
+			if (concurrent != null && !concurrent.tryAcquire()) {
+				blocked = true;
+				concurrent.acquire();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted waiting for host");
+		}
+
+		if (blocked) {
+			waitNanos.addAndGet(System.nanoTime() - start);
+			waitCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Frees slot taken by {@link #acquire()}.
+	 */
+	public void release() {
+		if (concurrent != null) concurrent.release();
+	}
+
+	/**
+	 * Adapts rate to response code.
+	 * 
+	 * @param statusCode
+	 *            response code
+	 */
+	public synchronized void onResponse(final int statusCode) {
+		refill(System.nanoTime());
+		if (statusCode == HTTP_TOO_MANY_REQUESTS
+				|| statusCode == HttpURLConnection.HTTP_UNAVAILABLE) {
+			throttleCount.incrementAndGet();
+			rate = Math.max(maxRate / ADAPT_FACTOR, rate / 2);
+		} else if (rate < maxRate) {
+			rate = Math.min(maxRate, rate + maxRate / ADAPT_FACTOR);
+		}
+	}
+
+	/**
+	 * Gets current request rate, lowered while host is throttling.
+	 * 
+	 * @return requests per second
+	 */
+	public synchronized double getRate() {
+		return rate;
+	}
+
+	public double getMaxRate() {
+		return maxRate;
+	}
+
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+
+	/**
+	 * Gets total time requests waited for rate or a free slot.
+	 * 
+	 * @param unit
+	 *            unit of returned time
+	 * @return wait time
+	 */
+	public long getWaitTime(final TimeUnit unit) {
+		return unit.convert(waitNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Gets amount of requests that had to wait.
+	 * 
+	 * @return wait count
+	 */
+	public long getWaitCount() {
+		return waitCount.get();
+	}
+
+	/**
+	 * Gets amount of 429 and 503 responses.
+	 * 
+	 * @return throttle count
+	 */
+	public long getThrottleCount() {
+		return throttleCount.get();
+	}
+
+	private void refill(final long now) {
+		tokens = Math.min(burst, tokens + (now - lastRefill) / 1E9 * rate);
+		lastRefill = now;
+	}
+
+}
@@ -28,7 +28,7 @@ import com.krobothsoftware.commons.network.authorization.AuthorizationManager;
  * Builder for authorization HTTP connections. If <code>authorization</code> is
  * null, will check {@link AuthorizationManager}
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Dec 24 2012
  * @author Kyle Kroboth
  */
@@ -38,6 +38,7 @@ public class RequestBuilderAuthorization extends RequestBuilder {
 	public RequestBuilderAuthorization(Method method, URL url,
 			Authorization auth) {
 		super(method, url);
+		this.auth = auth;
 	}
 
 	public RequestBuilderAuthorization(Method method, URL url) {
@@ -46,7 +47,9 @@ public class RequestBuilderAuthorization extends RequestBuilder {
 
 	/**
 	 * Sends HTTP request based on request builder with authorization.
-	 * Connection is not closed.
+	 * Connection is not closed. If the server rejects the request with a new
+	 * challenge, like a stale digest nonce, request is authorized and sent
+	 * once more.
 	 * 
 	 * @param networkHelper
 	 *            network helper
@@ -56,11 +59,59 @@ public class RequestBuilderAuthorization extends RequestBuilder {
 	 */
 	@Override
 	public Response execute(NetworkHelper networkHelper) throws IOException {
-		if (auth != null) networkHelper.authManager.authorizeConnection(this,
-				auth);
-		else
-			networkHelper.authManager.authorizeConnection(this);
+		final Response response = super.execute(networkHelper);
+		if (!(response instanceof ResponseAuthenticate)) return response;
+
+		final Authorization current = auth != null ? auth
+				: networkHelper.authManager.getAuthorization(url);
+		final String authenticate = ((ResponseAuthenticate) response)
+				.getAuthentication();
+		if (current == null || !current.onChallenge(this, authenticate)) return response;
+
+		networkHelper.log.info("Challenged again, authorizing {}", this);
+		response.release();
 		return super.execute(networkHelper);
 	}
 
+	/**
+	 * Authorizes request before every attempt, so retries are sent with fresh
+	 * credentials. Sends {@link RequestEvent.Type#AUTHORIZING} and
+	 * {@link RequestEvent.Type#AUTHORIZED} around it.
+	 * 
+	 * @param networkHelper
+	 *            network helper
+	 * @param attempt
+	 *            attempt about to be made
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	@Override
+	protected void beforeAttempt(NetworkHelper networkHelper, int attempt)
+			throws IOException {
+		final Authorization current = auth != null ? auth
+				: networkHelper.authManager.getAuthorization(url);
+		if (current == null) return;
+
+		authorizationDetail = null;
+		fireEvent(RequestEvent.Type.AUTHORIZING, System.nanoTime(), -1, -1,
+				-1, -1, null, null);
+		try {
+			if (auth != null) networkHelper.authManager.authorizeConnection(
+					this, auth);
+			else
+				current.setup(this);
+		} catch (final IOException e) {
+			fireEvent(RequestEvent.Type.AUTHORIZED, System.nanoTime(), -1, -1,
+					-1, -1, getAuthorizationDetail(current), e);
+			throw e;
+		}
+		fireEvent(RequestEvent.Type.AUTHORIZED, System.nanoTime(), -1, -1, -1,
+				-1, getAuthorizationDetail(current), null);
+	}
+
+	private String getAuthorizationDetail(final Authorization current) {
+		final String detail = authorizationDetail;
+		return detail != null ? detail : current.getClass().getSimpleName();
+	}
+
 }
@@ -0,0 +1,222 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.net.URL;
+
+/**
+ * Phase of a request. Events of one
+ * {@link RequestBuilder#execute(NetworkHelper)} call, including its retries
+ * and the parse of its response, share a correlation id. Timestamps are from {@link System#nanoTime()}, so only the
+ * difference between two events means anything.
+ * 
+ * @see RequestListener
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public final class RequestEvent {
+	private final Type type;
+	private final long correlationId;
+	private final int attempt;
+	private final String endpoint;
+	private final URL url;
+	private final long nanoTime;
+	private final int statusCode;
+	private final long compressedBytes;
+	private final long decompressedBytes;
+	private final int itemCount;
+	private final String detail;
+	private final Throwable error;
+
+	RequestEvent(final Type type, final long correlationId,
+			final int attempt, final String endpoint, final URL url,
+			final long nanoTime, final int statusCode,
+			final long compressedBytes, final long decompressedBytes,
+			final int itemCount, final String detail, final Throwable error) {
+		this.type = type;
+		this.correlationId = correlationId;
+		this.attempt = attempt;
+		this.endpoint = endpoint;
+		this.url = url;
+		this.nanoTime = nanoTime;
+		this.statusCode = statusCode;
+		this.compressedBytes = compressedBytes;
+		this.decompressedBytes = decompressedBytes;
+		this.itemCount = itemCount;
+		this.detail = detail;
+		this.error = error;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public long getCorrelationId() {
+		return correlationId;
+	}
+
+	/**
+	 * Gets attempt event belongs to, starting at 1.
+	 * 
+	 * @return attempt
+	 */
+	public int getAttempt() {
+		return attempt;
+	}
+
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	public URL getUrl() {
+		return url;
+	}
+
+	/**
+	 * Gets time of event from {@link System#nanoTime()}.
+	 * 
+	 * @return nano time
+	 */
+	public long getNanoTime() {
+		return nanoTime;
+	}
+
+	/**
+	 * Gets response code.
+	 * 
+	 * @return status code, or -1 before {@link Type#FIRST_BYTE}
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * Gets bytes read off the connection.
+	 * 
+	 * @return compressed bytes, or -1 before {@link Type#BODY_COMPLETE}
+	 */
+	public long getCompressedBytes() {
+		return compressedBytes;
+	}
+
+	/**
+	 * Gets bytes read after decompressing. For {@link Type#PARSED}, bytes read
+	 * by the handler.
+	 * 
+	 * @return decompressed bytes, or -1 before {@link Type#BODY_COMPLETE}
+	 */
+	public long getDecompressedBytes() {
+		return decompressedBytes;
+	}
+
+	/**
+	 * Gets items parsed.
+	 * 
+	 * @return item count, or -1 if event isn't {@link Type#PARSED}
+	 */
+	public int getItemCount() {
+		return itemCount;
+	}
+
+	/**
+	 * Gets description of phase, like the handler of {@link Type#PARSED} or how
+	 * request was {@link Type#AUTHORIZED}.
+	 * 
+	 * @return detail, or null
+	 */
+	public String getDetail() {
+		return detail;
+	}
+
+	/**
+	 * Gets error of a failed phase.
+	 * 
+	 * @return error, or null
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("RequestEvent[%s #%d.%d %s @%d]", type,
+				correlationId, attempt, endpoint, nanoTime);
+	}
+
+	/**
+	 * Phases in the order they happen. Not every request goes through every
+	 * phase.
+	 */
+	public enum Type {
+
+		/** Attempt started, before authorization is set up. */
+		ATTEMPT,
+
+		/** Setting up authorization. */
+		AUTHORIZING,
+
+		/**
+		 * Authorization is set up. Has detail, and error if it failed. Time
+		 * since {@link #AUTHORIZING} includes fetching a challenge.
+		 */
+		AUTHORIZED,
+
+		/** Waiting on host's {@link RateLimiter}. */
+		QUEUED,
+
+		/** Got through host's {@link RateLimiter}. */
+		DEQUEUED,
+
+		/** Opening connection. */
+		CONNECTING,
+
+		/**
+		 * Connection is open. Includes the TLS handshake for https; near zero
+		 * when a kept-alive connection is reused.
+		 */
+		CONNECTED,
+
+		/** Payload is written. Only for requests with a payload. */
+		REQUEST_SENT,
+
+		/** Response headers are read. Has status code. */
+		FIRST_BYTE,
+
+		/** Body read to its end. Has compressed and decompressed bytes. */
+		BODY_COMPLETE,
+
+		/** Handler started parsing the body. Has handler as detail. */
+		PARSING,
+
+		/**
+		 * Handler finished parsing the body. Has handler as detail, bytes it
+		 * read, and item count or error.
+		 */
+		PARSED,
+
+		/**
+		 * Response released or disconnected. Has bytes read, which may be
+		 * partial, and whether the connection was reused as detail.
+		 */
+		CLOSED,
+
+		/** Attempt failed without a response. Has error. */
+		FAILED;
+	}
+
+}
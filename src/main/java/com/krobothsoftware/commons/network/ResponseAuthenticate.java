@@ -24,7 +24,7 @@ import java.net.HttpURLConnection;
  * response code is 401(Unauthorized). Make sure to call {@link #disconnect()}
  * to ensure connection is closed.
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Dec 24 2012
  * @author Kyle Kroboth
  */
@@ -37,6 +37,12 @@ public class ResponseAuthenticate extends Response {
 		authenticate = conn.getHeaderField("WWW-Authenticate");
 	}
 
+	public ResponseAuthenticate(TransportResponse exchange,
+			UnclosableInputStream in, int respCode, String respChar) {
+		super(exchange, in, respCode, respChar);
+		authenticate = exchange.getHeaderField("WWW-Authenticate");
+	}
+
 	/**
 	 * Gets header <code>WWW-Authenticate</code>
 	 * 
@@ -24,7 +24,7 @@ import java.net.HttpURLConnection;
  * response code is 302(Temporary Redirect). Make sure to call
  * {@link #disconnect()} to ensure connection is closed.
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Dec 24 2012
  * @author Kyle Kroboth
  */
@@ -37,6 +37,12 @@ public class ResponseRedirect extends Response {
 		redirectUrl = conn.getHeaderField("Location");
 	}
 
+	public ResponseRedirect(TransportResponse exchange,
+			UnclosableInputStream in, int respCode, String respChar) {
+		super(exchange, in, respCode, respChar);
+		redirectUrl = exchange.getHeaderField("Location");
+	}
+
 	/**
 	 * Gets header <code>Location</code>
 	 * 
@@ -0,0 +1,50 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.io.IOException;
+
+/**
+ * Transport sends the requests of {@link RequestBuilder} and reads the
+ * response headers. Cookies, redirect handling, gzip/deflate, retries, and
+ * authorizations are done by the request builder, so they work the same with
+ * any transport. Implementations decide how connections are made and kept,
+ * for example multiplexing requests over HTTP/2.
+ * 
+ * @see NetworkHelper#setTransport(Transport)
+ * @see UrlConnectionTransport
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public interface Transport {
+
+	/**
+	 * Sends request and returns once the response headers are read. Error
+	 * responses (4xx and 5xx) are returned, not thrown, with their body.
+	 * Implementations must be thread-safe.
+	 * 
+	 * @param request
+	 *            request to send
+	 * @return response with unread body
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred. Timeouts are
+	 *             thrown as {@link java.net.SocketTimeoutException}
+	 */
+	TransportResponse send(final TransportRequest request) throws IOException;
+
+}
@@ -29,13 +29,14 @@ import java.net.HttpURLConnection;
  * "http://stackoverflow.com/questions/4767553/safe-use-of-httpurlconnection/11533423#11533423"
  * > More Info</a>
  * 
- * @version 3.0.1
+ * @version 3.1
  * @since Dec 1 2012
  * @author Kyle Kroboth
  * 
  */
 public class UnclosableInputStream extends InputStream {
 	private final InputStream in;
+	private volatile boolean closed;
 
 	public UnclosableInputStream(InputStream in) {
 		this.in = in;
@@ -67,9 +68,19 @@ public class UnclosableInputStream extends InputStream {
 	}
 
 	public void forceClose() throws IOException {
+		closed = true;
 		in.close();
 	}
 
+	/**
+	 * Checks if {@link #forceClose()} was called.
+	 * 
+	 * @return true, if closed
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
 	/**
 	 * Call {@link #forceClose()} to close stream
 	 */
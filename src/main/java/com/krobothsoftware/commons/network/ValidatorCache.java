@@ -0,0 +1,155 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.network;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of HTTP validators and the parsed results they belong to.
+ * Requests built with {@link RequestBuilder#useValidatorCache(boolean)} send
+ * <code>If-None-Match</code> and <code>If-Modified-Since</code> of a cached
+ * entry, and a 304 (Not Modified) response is returned as a
+ * {@link ResponseNotModified} holding the cached result, so the body doesn't
+ * have to be parsed again.
+ * 
+ * <p>
+ * Entries are keyed by {@link RequestBuilder#getCacheKey()} and stored with
+ * {@link #put(Response, Object)} once a response has been parsed. Least
+ * recently used entries are removed when the cache is full. Cached results are
+ * shared, so they should be immutable or copied before being handed out.
+ * </p>
+ * 
+ * <p>
+ * ValidatorCache is thread-safe.
+ * </p>
+ * 
+ * @see NetworkHelper#getValidatorCache()
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class ValidatorCache {
+
+	/**
+	 * Default amount of entries kept.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 256;
+
+	private final LinkedHashMap<String, CachedEntry> entries;
+	private int maxEntries;
+
+	public ValidatorCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Instantiates a new cache.
+	 * 
+	 * @param maxEntries
+	 *            max entries kept
+	 * @throws IllegalArgumentException
+	 *             thrown if maxEntries is zero or less
+	 */
+	public ValidatorCache(final int maxEntries) {
+		setMaxEntries(maxEntries);
+		entries = new LinkedHashMap<String, CachedEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					final Map.Entry<String, CachedEntry> eldest) {
+				return size() > ValidatorCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Sets max entries kept. Extra entries are removed on next store.
+	 * 
+	 * @param maxEntries
+	 *            max entries
+	 * @throws IllegalArgumentException
+	 *             thrown if maxEntries is zero or less
+	 */
+	public synchronized void setMaxEntries(final int maxEntries) {
+		if (maxEntries <= 0) throw new IllegalArgumentException(
+				"max entries must be greater than 0");
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Stores validators of <code>response</code> with its parsed result.
+	 * Nothing is stored if response has no <code>ETag</code> or
+	 * <code>Last-Modified</code> header, or wasn't built with the validator
+	 * cache enabled.
+	 * 
+	 * @param response
+	 *            response that was parsed
+	 * @param result
+	 *            parsed result
+	 */
+	public void put(final Response response, final Object result) {
+		if (response.cacheKey == null
+				|| response instanceof ResponseNotModified) return;
+		final String etag = response.getHeaderField("ETag");
+		final String lastModified = response.getHeaderField("Last-Modified");
+		if (etag == null && lastModified == null) return;
+
+		final CachedEntry entry = new CachedEntry(etag, lastModified, result);
+		synchronized (this) {
+			entries.put(response.cacheKey, entry);
+		}
+	}
+
+	/**
+	 * Removes entry.
+	 * 
+	 * @param key
+	 *            request key
+	 * @see RequestBuilder#getCacheKey()
+	 */
+	public synchronized void remove(final String key) {
+		entries.remove(key);
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	synchronized CachedEntry get(final String key) {
+		return entries.get(key);
+	}
+
+	static final class CachedEntry {
+		final String etag;
+		final String lastModified;
+		final Object result;
+
+		CachedEntry(final String etag, final String lastModified,
+				final Object result) {
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.result = result;
+		}
+	}
+
+}
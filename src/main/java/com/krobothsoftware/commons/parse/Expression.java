@@ -17,9 +17,10 @@
 
 package com.krobothsoftware.commons.parse;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 
+import org.xml.sax.Attributes;
+
 /**
  * Limited XPath expression for SAX handler implementations. Each expression
  * consists of nodes separated by a forward slash. Features include tag,
@@ -69,7 +70,18 @@ import java.util.ArrayList;
  * /&&
  * </td>
  * <td>
- * Separates multiple paths
+ * Separates paths matched one after another. Next path is searched once
+ * {@link ExpressionFilter#endElement(int, String, String, String)} returns
+ * true
+ * </td>
+ * </tr>
+ * <tr>
+ * <td>
+ * /||
+ * </td>
+ * <td>
+ * Separates paths matched at the same time, each ending with its element.
+ * Can't be mixed with &&
  * </td>
  * </tr>
  * </table>
@@ -84,13 +96,18 @@ import java.util.ArrayList;
  * 
  * @see ExpressionFilter
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Dec 24 2012
  * @author Kyle Kroboth
  */
 public final class Expression {
-	private ArrayList<Node> stack;
-	private ArrayDeque<Node> nodeStack;
+	private static final String SEQUENTIAL = "&&";
+	private static final String SIMULTANEOUS = "||";
+	// states of all paths; state i goes to i + 1 on match unless last of path
+	final Node[] nodes;
+	// first state of each path
+	final int[] paths;
+	final boolean simultaneous;
 
 	/**
 	 * Parses expression using limited xpath syntax. Will not check for errors.
@@ -98,79 +115,149 @@ public final class Expression {
 	 * @param expression
 	 *            formatted path
 	 * @return the expression
+	 * @throws IllegalArgumentException
+	 *             thrown if && and || are mixed
 	 */
 	public static Expression parse(String expr) {
 		return new Expression(expr);
 	}
 
+	/**
+	 * Compiles expression into an immutable state table. Expressions are
+	 * shared between handlers and threads, so each parse only keeps its
+	 * states in {@link ExpressionHandler}.
+	 */
 	private Expression(String expr) {
-		stack = new ArrayList<Node>();
-		nodeStack = new ArrayDeque<Node>();
+		ArrayList<Node> list = new ArrayList<Node>();
 		char[] ch = expr.toCharArray();
 		int start = 0;
 		do
-			start = nextNode(ch, start);
+			start = nextNode(ch, start, list);
 		while (start != -1);
+
+		ArrayList<Node> states = new ArrayList<Node>(list.size());
+		int[] starts = new int[list.size()];
+		int path = 0;
+		String separator = null;
+		for (int i = 0; i < list.size(); i++) {
+			Node node = list.get(i);
+			if (node.tag != SEQUENTIAL && node.tag != SIMULTANEOUS) {
+				// last state of a path accepts
+				boolean last = i + 1 == list.size()
+						|| list.get(i + 1).tag == SEQUENTIAL
+						|| list.get(i + 1).tag == SIMULTANEOUS;
+				states.add(last ? new Node(node) : node);
+				continue;
+			}
+			if (separator != null && separator != node.tag) throw new IllegalArgumentException(
+					"Can't mix && and || in " + expr);
+			separator = node.tag;
+			starts[++path] = states.size();
+		}
+
+		nodes = states.toArray(new Node[states.size()]);
+		paths = new int[path + 1];
+		System.arraycopy(starts, 0, paths, 0, paths.length);
+		simultaneous = separator == SIMULTANEOUS;
 	}
 
-	Node popNode() {
-		if (nodeStack.isEmpty()) return null;
-		return nodeStack.pop();
+	/**
+	 * Gets amount of paths.
+	 * 
+	 * @return path count
+	 */
+	public int getPathCount() {
+		return paths.length;
 	}
 
-	void reset() {
-		nodeStack.clear();
-		nodeStack.addAll(stack);
+	/**
+	 * Checks if paths are matched at the same time.
+	 * 
+	 * @return true, if paths are separated by ||
+	 */
+	public boolean isSimultaneous() {
+		return simultaneous;
 	}
 
-	private int nextNode(char[] ch, int start) {
-		Node node = new Node();
+	private static int nextNode(char[] ch, int start, ArrayList<Node> list) {
+		String tag = null;
+		String attrib = null;
+		String attribV = null;
+		int index = 1;
 		int old = start;
 		start++;
 		for (; start < ch.length; start++) {
 			if (ch[start] == '[') {
-				if (node.tag == null) node.tag = new String(ch, old + 1, start
-						- old - 1);
+				if (tag == null) tag = new String(ch, old + 1, start - old - 1);
 				old = start;
 				do
 					start++;
 				while (ch[start] != '=' && ch[start] != ']');
 
 				if (ch[old + 1] == '@') {
-					node.attrib = new String(ch, old + 2, start - old - 2);
+					attrib = new String(ch, old + 2, start - old - 2);
 					if (ch[start] == '=') {
 						old = ++start;
 						do
 							start++;
 						while (ch[start] != '\'');
-						node.attribV = new String(ch, old + 1, start - old - 1);
+						attribV = new String(ch, old + 1, start - old - 1);
 					}
 				} else {
-					node.index = Integer.parseInt(new String(ch, old + 1, start
+					index = Integer.parseInt(new String(ch, old + 1, start
 							- old - 1));
 				}
 				continue;
 			} else if (ch[start] == '/') {
-				if (node.tag == null) node.tag = new String(ch, old + 1, start
-						- old - 1);
-				stack.add(node);
+				if (tag == null) tag = new String(ch, old + 1, start - old - 1);
+				list.add(new Node(tag, attrib, attribV, index));
 				return start;
 			}
 		}
 
 		if (start == ch.length) {
-			if (node.tag == null) node.tag = new String(ch, old + 1, start
-					- old - 1);
-			stack.add(node);
+			if (tag == null) tag = new String(ch, old + 1, start - old - 1);
+			list.add(new Node(tag, attrib, attribV, index));
 		}
 
 		return -1;
 	}
 
-	static class Node {
-		String tag;
-		String attrib;
-		String attribV;
-		int index = 1;
+	static final class Node {
+		final String tag;
+		final String attrib;
+		final String attribV;
+		final int index;
+		// last state of its path
+		final boolean last;
+
+		Node(String tag, String attrib, String attribV, int index) {
+			// parsers usually intern names, so tags mostly match by reference
+			this.tag = tag.intern();
+			this.attrib = attrib;
+			this.attribV = attribV;
+			this.index = index;
+			last = false;
+		}
+
+		Node(Node node) {
+			tag = node.tag;
+			attrib = node.attrib;
+			attribV = node.attribV;
+			index = node.index;
+			last = true;
+		}
+
+		/**
+		 * Checks if element matches tag and attribute. Index is counted by
+		 * the caller.
+		 */
+		boolean matches(String name, boolean interned, Attributes attributes) {
+			if (interned ? tag != name : !tag.equals(name)) return false;
+			if (attrib == null) return true;
+			int i = attributes.getIndex(attrib);
+			if (i == -1) return false;
+			return attribV == null || attribV.equals(attributes.getValue(i));
+		}
 	}
 }
@@ -29,29 +29,71 @@ import org.xml.sax.helpers.DefaultHandler;
 import com.krobothsoftware.commons.parse.Expression.Node;
 
 /**
+ * Evaluates {@link Expression} of an {@link ExpressionFilter} for one parse.
+ * Expression states are shared; only the state of each path is kept here.
+ * Paths separated by && are searched one after another, paths separated by ||
+ * all at once. Children of an element are skipped without matching or
+ * reaching the handler once it calls {@link Handler#skipChildren()}.
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Dec 24 2012
  * @author Kyle Kroboth
  */
 class ExpressionHandler extends DefaultHandler {
 	private Handler delegate;
 	private ExpressionFilter filter;
-	private Expression expr;
+	private final Node[] nodes;
+	private final int[] paths;
+	private final boolean interned;
+	private int depth;
+	// depth of element whose children are skipped
+	private int skipDepth = -1;
+
+	// && paths: one cursor
+	private int state;
 	private int index = 0;
 	private boolean cont;
-	private Node node;
 	private boolean reached;
-	private boolean hasAttrib;
-	private boolean hasAttribV;
 	private int count = 1;
+	// depth of element the current path matched
+	private int regionDepth = -1;
+
+	// || paths: cursor per path, region depth -1 while searching
+	private final int[] states;
+	private final int[] counts;
+	private final int[] regions;
+	private int searching;
 
-	public ExpressionHandler(Handler delegate) {
+	/**
+	 * Creates handler for <code>delegate</code>.
+	 * 
+	 * @param delegate
+	 *            handler implementing {@link ExpressionFilter}
+	 * @param interned
+	 *            whether parser interns names, so tags are compared by
+	 *            reference
+	 */
+	public ExpressionHandler(Handler delegate, boolean interned) {
 		this.delegate = delegate;
 		this.filter = (ExpressionFilter) delegate;
-		expr = filter.getExpression();
-		expr.reset();
-		popNode();
+		this.interned = interned;
+		final Expression expression = filter.getExpression();
+		nodes = expression.nodes;
+		paths = expression.paths;
+		if (expression.simultaneous) {
+			states = paths.clone();
+			counts = new int[paths.length];
+			regions = new int[paths.length];
+			for (int i = 0; i < paths.length; i++) {
+				counts[i] = 1;
+				regions[i] = -1;
+			}
+			searching = paths.length;
+		} else {
+			states = null;
+			counts = null;
+			regions = null;
+		}
 	}
 
 	@Override
@@ -101,41 +143,112 @@ class ExpressionHandler extends DefaultHandler {
 	@Override
 	public void startElement(String uri, String localName, String qName,
 			Attributes attributes) throws SAXException {
+		depth++;
+		if (skipDepth != -1) return;
 		delegate.startElement(uri, localName, qName, attributes);
+		if (states != null) startSimultaneous(uri, localName, qName,
+				attributes);
+		else
+			startSequential(uri, localName, qName, attributes);
+		if (delegate.skipRequested) {
+			delegate.skipRequested = false;
+			skipDepth = depth;
+		}
+	}
+
+	private void startSequential(String uri, String localName, String qName,
+			Attributes attributes) throws SAXException {
 		if (reached) {
-			if (node != null && cont) {
-				popNode();
+			if (cont && index + 1 < paths.length) {
 				index++;
+				state = paths[index];
+				count = 1;
 				reached = false;
 				cont = false;
 			} else
 				filter.startElement(index, uri, localName, qName, attributes);
 			return;
 		}
-		if (!node.tag.equals(delegate.startTag)) return;
-		if (hasAttrib) {
-			int index = attributes.getIndex(node.attrib);
-			if (index == -1) return;
-			if (hasAttribV && !attributes.getValue(index).equals(node.attribV)) return;
-		}
+		final Node node = nodes[state];
+		if (!node.matches(delegate.startTag, interned, attributes)) return;
 		if (count++ != node.index) return;
-		popNode();
-		if (reached) filter.startElement(index, uri, localName, qName,
-				attributes);
+		count = 1;
+		if (!node.last) {
+			state++;
+			return;
+		}
+		reached = true;
+		cont = false;
+		regionDepth = depth;
+		filter.startElement(index, uri, localName, qName, attributes);
+	}
 
+	private void startSimultaneous(String uri, String localName,
+			String qName, Attributes attributes) throws SAXException {
+		for (int i = 0; i < paths.length; i++) {
+			if (regions[i] != -1) {
+				filter.startElement(i, uri, localName, qName, attributes);
+				continue;
+			}
+			final int current = states[i];
+			// path already ended
+			if (current == -1) continue;
+			final Node node = nodes[current];
+			if (!node.matches(delegate.startTag, interned, attributes)) continue;
+			if (counts[i]++ != node.index) continue;
+			counts[i] = 1;
+			if (!node.last) {
+				states[i]++;
+				continue;
+			}
+			regions[i] = depth;
+			filter.startElement(i, uri, localName, qName, attributes);
+		}
 	}
 
 	@Override
 	public void endElement(String uri, String localName, String qName)
 			throws SAXException {
+		if (skipDepth != -1) {
+			if (depth-- != skipDepth) return;
+			// text after a skipped element doesn't follow its start tag
+			skipDepth = -1;
+			delegate.calledStartElement = false;
+			depth++;
+		}
 		delegate.endElement(uri, localName, qName);
+		if (states != null) {
+			endSimultaneous(uri, localName, qName);
+			depth--;
+			return;
+		}
 		if (reached) cont = filter.endElement(index, uri, localName, qName);
+		// filter's data ends with the element its last path matched
+		if (depth-- == regionDepth && index == paths.length - 1 && reached) delegate
+				.endRegion(index);
+	}
+
+	private void endSimultaneous(String uri, String localName, String qName)
+			throws SAXException {
+		for (int i = 0; i < paths.length; i++) {
+			if (regions[i] == -1) continue;
+			filter.endElement(i, uri, localName, qName);
+			if (regions[i] != depth) continue;
+			regions[i] = -1;
+			states[i] = -1;
+			// filter's data ends with the last region
+			if (--searching == 0) delegate.endRegion(i);
+		}
 	}
 
 	@Override
 	public void characters(char[] ch, int start, int length)
 			throws SAXException {
-		if (reached) filter.characters(index, ch, start, length);
+		if (skipDepth != -1) return;
+		if (states != null) {
+			for (int i = 0; i < paths.length; i++)
+				if (regions[i] != -1) filter.characters(i, ch, start, length);
+		} else if (reached) filter.characters(index, ch, start, length);
 		delegate.characters(ch, start, length);
 	}
 
@@ -171,19 +284,4 @@ class ExpressionHandler extends DefaultHandler {
 		delegate.fatalError(e);
 	}
 
-	private void popNode() {
-		count = 1;
-		node = expr.popNode();
-		if (node == null) {
-			reached = true;
-			return;
-		} else if (node.tag.equals("&&")) {
-			cont = false;
-			reached = true;
-			return;
-		}
-		hasAttrib = node.attrib != null;
-		hasAttribV = node.attribV != null;
-	}
-
 }
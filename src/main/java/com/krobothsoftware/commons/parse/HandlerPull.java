@@ -0,0 +1,50 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.parse;
+
+import com.krobothsoftware.commons.progress.ProgressHelper;
+
+/**
+ * Base Handler for XML data read with a {@link PullReader} instead of SAX.
+ * Handler drives the reader itself and may stop by returning before the end
+ * of the document.
+ * 
+ * @see Parser#parse(java.io.InputStream, Handler, String)
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public abstract class HandlerPull extends Handler {
+	public HandlerPull(final ProgressHelper progressHelper) {
+		super(progressHelper);
+	}
+
+	public HandlerPull() {
+
+	}
+
+	/**
+	 * Reads document from <code>reader</code>.
+	 * 
+	 * @param reader
+	 *            reader positioned at start of document
+	 * @throws ParseException
+	 *             if document is malformed or unexpected
+	 */
+	protected abstract void parse(PullReader reader) throws ParseException;
+
+}
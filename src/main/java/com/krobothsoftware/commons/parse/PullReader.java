@@ -0,0 +1,538 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.commons.parse;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Small pull tokenizer for the plain XML documents returned by official
+ * endpoints. Names, attributes, and text are kept in reused char buffers, so
+ * handlers can compare and convert them without creating strings.
+ * <p>
+ * Doesn't validate or resolve DTDs. Comments, processing instructions, and
+ * whitespace-only text are skipped; only the predefined and numeric entities
+ * are decoded. Not thread-safe.
+ * </p>
+ * 
+ * @see HandlerPull
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public final class PullReader {
+	public static final int START_ELEMENT = 1;
+	public static final int END_ELEMENT = 2;
+	public static final int TEXT = 3;
+	public static final int END_DOCUMENT = 4;
+
+	private final Reader reader;
+	private final char[] buffer;
+	private int position;
+	private int limit;
+
+	private char[] name;
+	private int nameLength;
+	private char[] text;
+	private int textLength;
+
+	// attribute names and values share one buffer, offsets are kept in
+	// groups of name start, name end, value start, value end
+	private char[] attributes;
+	private int attributesLength;
+	private int[] offsets;
+	private int attributeCount;
+
+	private final char[] entity;
+
+	private boolean emptyElement;
+	private int depth;
+	private int event;
+
+	public PullReader(final Reader reader) {
+		this.reader = reader;
+		buffer = new char[8192];
+		name = new char[32];
+		text = new char[256];
+		attributes = new char[256];
+		offsets = new int[32];
+		entity = new char[10];
+	}
+
+	/**
+	 * Moves to next event.
+	 * 
+	 * @return {@link #START_ELEMENT}, {@link #END_ELEMENT}, {@link #TEXT}, or
+	 *         {@link #END_DOCUMENT}
+	 * @throws ParseException
+	 *             if document is malformed or couldn't be read
+	 */
+	public int next() throws ParseException {
+		try {
+			return event = read();
+		} catch (final IOException e) {
+			throw new ParseException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Gets current event.
+	 */
+	public int getEvent() {
+		return event;
+	}
+
+	/**
+	 * Gets depth of current element, root element being 1.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Gets name of current element.
+	 * 
+	 * @return name, creates a new string
+	 */
+	public String getName() {
+		return new String(name, 0, nameLength);
+	}
+
+	/**
+	 * Checks name of current element, ignoring case.
+	 * 
+	 * @param expected
+	 *            name to compare
+	 * @return true, if names match
+	 */
+	public boolean isName(final String expected) {
+		return regionMatches(name, 0, nameLength, expected);
+	}
+
+	public int getAttributeCount() {
+		return attributeCount;
+	}
+
+	public boolean hasAttribute(final String attribute) {
+		return indexOf(attribute) != -1;
+	}
+
+	/**
+	 * Gets value of attribute in current start element.
+	 * 
+	 * @param attribute
+	 *            case-sensitive name
+	 * @return value, or null if not found
+	 */
+	public String getAttribute(final String attribute) {
+		final int index = indexOf(attribute);
+		if (index == -1) return null;
+		return new String(attributes, offsets[index + 2], offsets[index + 3]
+				- offsets[index + 2]);
+	}
+
+	/**
+	 * Parses value of attribute in current start element as an integer.
+	 * 
+	 * @param attribute
+	 *            case-sensitive name
+	 * @param radix
+	 *            radix of value
+	 * @return value
+	 * @throws ParseException
+	 *             if attribute is missing or isn't a number
+	 */
+	public int getAttributeInt(final String attribute, final int radix)
+			throws ParseException {
+		final int index = indexOf(attribute);
+		if (index == -1) throw new ParseException(String.format(
+				"Missing attribute [%s] in [%s]", attribute, getName()));
+		return parseInt(attributes, offsets[index + 2], offsets[index + 3],
+				radix);
+	}
+
+	/**
+	 * Gets text of current text event.
+	 * 
+	 * @return text, creates a new string
+	 */
+	public String getText() {
+		return new String(text, 0, textLength);
+	}
+
+	/**
+	 * Checks text of current text event, ignoring case.
+	 * 
+	 * @param expected
+	 *            text to compare
+	 * @return true, if text matches
+	 */
+	public boolean isText(final String expected) {
+		return regionMatches(text, 0, textLength, expected);
+	}
+
+	/**
+	 * Parses text of current text event as a decimal integer. Surrounding
+	 * whitespace is ignored.
+	 * 
+	 * @return value
+	 * @throws ParseException
+	 *             if text isn't a number
+	 */
+	public int getTextInt() throws ParseException {
+		return parseInt(text, 0, textLength, 10);
+	}
+
+	private int read() throws IOException, ParseException {
+		if (emptyElement) {
+			emptyElement = false;
+			depth--;
+			return END_ELEMENT;
+		}
+
+		int c;
+		while ((c = readChar()) != -1) {
+			if (c != '<') {
+				if (readText(c)) return TEXT;
+				continue;
+			}
+
+			c = readChar();
+			if (c == '/') {
+				c = readName(readChar());
+				while (c != '>') {
+					if (c == -1) throw malformed();
+					c = readChar();
+				}
+				depth--;
+				return END_ELEMENT;
+			} else if (c == '?') {
+				skipTo("?>");
+			} else if (c == '!') {
+				if (skipPrefix("--")) skipTo("-->");
+				else if (skipPrefix("[CDATA[")) {
+					readCdata();
+					return TEXT;
+				} else
+					skipTo(">");
+			} else {
+				readStartElement(c);
+				return START_ELEMENT;
+			}
+		}
+
+		return END_DOCUMENT;
+	}
+
+	private void readStartElement(final int first) throws IOException,
+			ParseException {
+		int c = readName(first);
+		attributeCount = 0;
+		attributesLength = 0;
+		depth++;
+
+		while (true) {
+			while (isWhitespace(c))
+				c = readChar();
+			if (c == '>') return;
+			if (c == '/') {
+				if (readChar() != '>') throw malformed();
+				emptyElement = true;
+				return;
+			}
+			if (c == -1) throw malformed();
+			c = readAttribute(c);
+		}
+	}
+
+	/**
+	 * Reads attribute into attribute buffer.
+	 * 
+	 * @return first character after attribute
+	 */
+	private int readAttribute(int c) throws IOException, ParseException {
+		final int index = attributeCount * 4;
+		if (index == offsets.length) {
+			final int[] tmp = new int[offsets.length * 2];
+			System.arraycopy(offsets, 0, tmp, 0, index);
+			offsets = tmp;
+		}
+
+		offsets[index] = attributesLength;
+		while (c != '=' && c != -1 && !isWhitespace(c)) {
+			appendAttribute((char) c);
+			c = readChar();
+		}
+		offsets[index + 1] = attributesLength;
+
+		while (isWhitespace(c))
+			c = readChar();
+		if (c != '=') throw malformed();
+		c = readChar();
+		while (isWhitespace(c))
+			c = readChar();
+		if (c != '"' && c != '\'') throw malformed();
+
+		final int quote = c;
+		offsets[index + 2] = attributesLength;
+		while ((c = readChar()) != quote) {
+			if (c == -1) throw malformed();
+			if (c == '&') readEntity(false);
+			else
+				appendAttribute((char) c);
+		}
+		offsets[index + 3] = attributesLength;
+		attributeCount++;
+
+		return readChar();
+	}
+
+	/**
+	 * Reads name into name buffer.
+	 * 
+	 * @return first character after name
+	 */
+	private int readName(int c) throws IOException, ParseException {
+		nameLength = 0;
+		while (c != '>' && c != '/' && c != -1 && !isWhitespace(c)) {
+			if (nameLength == name.length) name = grow(name);
+			name[nameLength++] = (char) c;
+			c = readChar();
+		}
+		if (nameLength == 0) throw malformed();
+		return c;
+	}
+
+	/**
+	 * Reads text up to next tag.
+	 * 
+	 * @return false if text is only whitespace
+	 */
+	private boolean readText(int c) throws IOException, ParseException {
+		textLength = 0;
+		boolean whitespace = true;
+		while (true) {
+			if (c == '&') {
+				readEntity(true);
+				whitespace = false;
+			} else {
+				if (whitespace && !isWhitespace(c)) whitespace = false;
+				appendText((char) c);
+			}
+
+			c = peekChar();
+			if (c == '<' || c == -1) break;
+			position++;
+		}
+
+		return !whitespace;
+	}
+
+	private void readCdata() throws IOException, ParseException {
+		textLength = 0;
+		int c;
+		while ((c = readChar()) != -1) {
+			if (c == '>' && textLength >= 2 && text[textLength - 1] == ']'
+					&& text[textLength - 2] == ']') {
+				textLength -= 2;
+				return;
+			}
+			appendText((char) c);
+		}
+		throw malformed();
+	}
+
+	/**
+	 * Decodes entity after '&amp;' and appends it to text or attribute
+	 * buffer. Unknown entities are appended as is.
+	 */
+	private void readEntity(final boolean toText) throws IOException,
+			ParseException {
+		int length = 0;
+		int c;
+		while ((c = peekChar()) != ';') {
+			if (c == -1 || c == '<' || c == '&' || isWhitespace(c)
+					|| length == entity.length) {
+				appendEntity(toText, length, false);
+				return;
+			}
+			entity[length++] = (char) c;
+			position++;
+		}
+		position++;
+
+		final int value;
+		if (length > 1 && entity[0] == '#') {
+			if (entity[1] == 'x' || entity[1] == 'X') value = parseInt(entity,
+					2, length, 16);
+			else
+				value = parseInt(entity, 1, length, 10);
+		} else if (regionMatches(entity, 0, length, "amp")) value = '&';
+		else if (regionMatches(entity, 0, length, "lt")) value = '<';
+		else if (regionMatches(entity, 0, length, "gt")) value = '>';
+		else if (regionMatches(entity, 0, length, "quot")) value = '"';
+		else if (regionMatches(entity, 0, length, "apos")) value = '\'';
+		else {
+			appendEntity(toText, length, true);
+			return;
+		}
+
+		if (!Character.isValidCodePoint(value)) appendEntity(toText, length,
+				true);
+		else if (value < Character.MIN_SUPPLEMENTARY_CODE_POINT) append(toText,
+				(char) value);
+		else {
+			for (final char surrogate : Character.toChars(value))
+				append(toText, surrogate);
+		}
+	}
+
+	/**
+	 * Appends undecoded entity.
+	 */
+	private void appendEntity(final boolean toText, final int length,
+			final boolean terminated) {
+		append(toText, '&');
+		for (int i = 0; i < length; i++)
+			append(toText, entity[i]);
+		if (terminated) append(toText, ';');
+	}
+
+	private void append(final boolean toText, final char c) {
+		if (toText) appendText(c);
+		else
+			appendAttribute(c);
+	}
+
+	private void appendText(final char c) {
+		if (textLength == text.length) text = grow(text);
+		text[textLength++] = c;
+	}
+
+	private void appendAttribute(final char c) {
+		if (attributesLength == attributes.length) attributes = grow(attributes);
+		attributes[attributesLength++] = c;
+	}
+
+	private int indexOf(final String attribute) {
+		final int end = attributeCount * 4;
+		for (int i = 0; i < end; i += 4) {
+			final int length = offsets[i + 1] - offsets[i];
+			if (length != attribute.length()) continue;
+			int j = 0;
+			while (j < length
+					&& attributes[offsets[i] + j] == attribute.charAt(j))
+				j++;
+			if (j == length) return i;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Skips input until after <code>end</code>.
+	 */
+	private void skipTo(final String end) throws IOException,
+			ParseException {
+		final int length = end.length();
+		int matched = 0;
+		int c;
+		while ((c = readChar()) != -1) {
+			if (c == end.charAt(matched)) {
+				if (++matched == length) return;
+			} else if (matched != 0) {
+				// ends only repeat their first character, like "--->"
+				if (c != end.charAt(0) || c != end.charAt(matched - 1))
+					matched = c == end.charAt(0) ? 1 : 0;
+			}
+		}
+		throw malformed();
+	}
+
+	/**
+	 * Skips <code>prefix</code> if input continues with it. Input is only
+	 * consumed on a match.
+	 */
+	private boolean skipPrefix(final String prefix) throws IOException {
+		final int length = prefix.length();
+		if (limit - position < length) {
+			// move remaining characters to start so prefix fits in buffer
+			System.arraycopy(buffer, position, buffer, 0, limit - position);
+			limit -= position;
+			position = 0;
+			while (limit < length) {
+				final int read = reader.read(buffer, limit, buffer.length
+						- limit);
+				if (read == -1) return false;
+				limit += read;
+			}
+		}
+
+		for (int i = 0; i < length; i++)
+			if (buffer[position + i] != prefix.charAt(i)) return false;
+		position += length;
+		return true;
+	}
+
+	private int readChar() throws IOException {
+		if (position == limit && !fill()) return -1;
+		return buffer[position++];
+	}
+
+	private int peekChar() throws IOException {
+		if (position == limit && !fill()) return -1;
+		return buffer[position];
+	}
+
+	private boolean fill() throws IOException {
+		final int read = reader.read(buffer, 0, buffer.length);
+		if (read <= 0) return false;
+		position = 0;
+		limit = read;
+		return true;
+	}
+
+	private ParseException malformed() {
+		return new ParseException(String.format(
+				"Malformed XML near element [%s]", getName()));
+	}
+
+	private static boolean isWhitespace(final int c) {
+		return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+	}
+
+	private static boolean regionMatches(final char[] chars, final int start,
+			final int end, final String expected) {
+		return TextBuffer.regionMatches(chars, start, end - start, expected);
+	}
+
+	private static int parseInt(final char[] chars, final int start,
+			final int end, final int radix) throws ParseException {
+		try {
+			return TextBuffer.parseInt(chars, start, end - start, radix);
+		} catch (final NumberFormatException e) {
+			throw new ParseException(e.getMessage(), e);
+		}
+	}
+
+	private static char[] grow(final char[] chars) {
+		final char[] tmp = new char[chars.length * 2];
+		System.arraycopy(chars, 0, tmp, 0, chars.length);
+		return tmp;
+	}
+
+}
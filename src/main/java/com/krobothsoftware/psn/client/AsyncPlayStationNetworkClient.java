@@ -0,0 +1,410 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.client;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.krobothsoftware.psn.PlatformType;
+import com.krobothsoftware.psn.model.PsnFriendData;
+import com.krobothsoftware.psn.model.PsnGameData;
+import com.krobothsoftware.psn.model.PsnGameDataOfficial;
+import com.krobothsoftware.psn.model.PsnProfileData;
+import com.krobothsoftware.psn.model.PsnTrophyData;
+import com.krobothsoftware.psn.model.PsnTrophyDataOfficial;
+
+/**
+ * Asynchronous companion of {@link PlayStationNetworkClient}. Every call is
+ * run on an executor and returns an {@link AsyncResult} right away. Results
+ * can be waited on, listened to with a {@link ResultListener}, cancelled, or
+ * given a deadline with {@link AsyncResult#cancelAfter(long, TimeUnit)}.
+ * 
+ * <p>
+ * The default executor uses virtual threads when the JVM supports them
+ * (Java 21+), otherwise a cached pool of daemon threads.
+ * </p>
+ * 
+ * <pre>
+ * AsyncPlayStationNetworkClient async = new AsyncPlayStationNetworkClient(
+ * 		psnClient);
+ * async.getOfficialTrophyList(&quot;jid&quot;, &quot;NPWR00001_00&quot;, listener).cancelAfter(10,
+ * 		TimeUnit.SECONDS);
+ * </pre>
+ * 
+ * @see PlayStationNetworkClient
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class AsyncPlayStationNetworkClient {
+	private final PlayStationNetworkClient client;
+	private final ExecutorService executor;
+	private volatile long defaultDeadline;
+
+	/**
+	 * Creates async client with default executor.
+	 * 
+	 * @param client
+	 *            initialized client
+	 */
+	public AsyncPlayStationNetworkClient(final PlayStationNetworkClient client) {
+		this(client, newDefaultExecutor());
+	}
+
+	/**
+	 * Creates async client running calls on <code>executor</code>.
+	 * 
+	 * @param client
+	 *            initialized client
+	 * @param executor
+	 *            executor for calls
+	 */
+	public AsyncPlayStationNetworkClient(
+			final PlayStationNetworkClient client,
+			final ExecutorService executor) {
+		this.client = client;
+		this.executor = executor;
+	}
+
+	public PlayStationNetworkClient getClient() {
+		return client;
+	}
+
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets deadline used for every call. Zero or less disables it.
+	 * 
+	 * @param deadline
+	 *            time until call is cancelled
+	 * @param unit
+	 *            unit of deadline
+	 */
+	public void setDefaultDeadline(final long deadline, final TimeUnit unit) {
+		defaultDeadline = unit.toNanos(deadline);
+	}
+
+	/**
+	 * Shuts down executor. Calls already submitted will still finish.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Submits any call to the executor. Used by all methods of this class.
+	 * 
+	 * @param call
+	 *            call to run
+	 * @param listener
+	 *            result listener, can be null
+	 * @return pending result
+	 */
+	public <T> AsyncResult<T> submit(final Callable<T> call,
+			final ResultListener<T> listener) {
+		final AsyncResult<T> result = new AsyncResult<T>(call, listener);
+		final long deadline = defaultDeadline;
+		if (deadline > 0) result.cancelAfter(deadline, TimeUnit.NANOSECONDS);
+		executor.execute(result);
+		return result;
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getClientFriendList()
+	 */
+	public AsyncResult<List<PsnFriendData>> getClientFriendList(
+			final ResultListener<List<PsnFriendData>> listener) {
+		return submit(new Callable<List<PsnFriendData>>() {
+
+			@Override
+			public List<PsnFriendData> call() throws Exception {
+				return client.getClientFriendList();
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getClientGameList()
+	 */
+	public AsyncResult<List<PsnGameData>> getClientGameList(
+			final ResultListener<List<PsnGameData>> listener) {
+		return submit(new Callable<List<PsnGameData>>() {
+
+			@Override
+			public List<PsnGameData> call() throws Exception {
+				return client.getClientGameList();
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getClientTrophyList(String)
+	 */
+	public AsyncResult<List<PsnTrophyData>> getClientTrophyList(
+			final String titleLinkId,
+			final ResultListener<List<PsnTrophyData>> listener) {
+		return submit(new Callable<List<PsnTrophyData>>() {
+
+			@Override
+			public List<PsnTrophyData> call() throws Exception {
+				return client.getClientTrophyList(titleLinkId);
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getClientFriendGameList(String)
+	 */
+	public AsyncResult<List<PsnGameData>> getClientFriendGameList(
+			final String friendPsnId,
+			final ResultListener<List<PsnGameData>> listener) {
+		return submit(new Callable<List<PsnGameData>>() {
+
+			@Override
+			public List<PsnGameData> call() throws Exception {
+				return client.getClientFriendGameList(friendPsnId);
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getClientFriendTrophyList(String, String)
+	 */
+	public AsyncResult<List<PsnTrophyData>> getClientFriendTrophyList(
+			final String friendPsnId, final String titleLinkId,
+			final ResultListener<List<PsnTrophyData>> listener) {
+		return submit(new Callable<List<PsnTrophyData>>() {
+
+			@Override
+			public List<PsnTrophyData> call() throws Exception {
+				return client.getClientFriendTrophyList(friendPsnId,
+						titleLinkId);
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getPublicGameList(String)
+	 */
+	public AsyncResult<List<PsnGameData>> getPublicGameList(
+			final String psnId,
+			final ResultListener<List<PsnGameData>> listener) {
+		return submit(new Callable<List<PsnGameData>>() {
+
+			@Override
+			public List<PsnGameData> call() throws Exception {
+				return client.getPublicGameList(psnId);
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getPublicTrophyList(String, String, String)
+	 */
+	public AsyncResult<List<PsnTrophyData>> getPublicTrophyList(
+			final String psnId, final String titleLinkId, final String gameId,
+			final ResultListener<List<PsnTrophyData>> listener) {
+		return submit(new Callable<List<PsnTrophyData>>() {
+
+			@Override
+			public List<PsnTrophyData> call() throws Exception {
+				return client.getPublicTrophyList(psnId, titleLinkId, gameId);
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialProfile(String)
+	 */
+	public AsyncResult<PsnProfileData> getOfficialProfile(final String jid,
+			final ResultListener<PsnProfileData> listener) {
+		return submit(new Callable<PsnProfileData>() {
+
+			@Override
+			public PsnProfileData call() throws Exception {
+				return client.getOfficialProfile(jid);
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialFirmwareVersion(PlatformType)
+	 */
+	public AsyncResult<String> getOfficialFirmwareVersion(
+			final PlatformType platform, final ResultListener<String> listener) {
+		return submit(new Callable<String>() {
+
+			@Override
+			public String call() throws Exception {
+				return client.getOfficialFirmwareVersion(platform);
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialJid(String)
+	 */
+	public AsyncResult<String> getOfficialJid(final String psnId,
+			final ResultListener<String> listener) {
+		return submit(new Callable<String>() {
+
+			@Override
+			public String call() throws Exception {
+				return client.getOfficialJid(psnId);
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialGameList(String, int, int,
+	 *      PlatformType...)
+	 */
+	public AsyncResult<List<PsnGameDataOfficial>> getOfficialGameList(
+			final String jid, final int start, final int max,
+			final ResultListener<List<PsnGameDataOfficial>> listener,
+			final PlatformType... platforms) {
+		return submit(new Callable<List<PsnGameDataOfficial>>() {
+
+			@Override
+			public List<PsnGameDataOfficial> call() throws Exception {
+				return client.getOfficialGameList(jid, start, max, platforms);
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialTrophyList(String, String)
+	 */
+	public AsyncResult<List<PsnTrophyDataOfficial>> getOfficialTrophyList(
+			final String jid, final String gameId,
+			final ResultListener<List<PsnTrophyDataOfficial>> listener) {
+		return submit(new Callable<List<PsnTrophyDataOfficial>>() {
+
+			@Override
+			public List<PsnTrophyDataOfficial> call() throws Exception {
+				return client.getOfficialTrophyList(jid, gameId);
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialTrophyLists(String, Collection,
+	 *      int)
+	 */
+	public AsyncResult<Map<String, List<PsnTrophyDataOfficial>>> getOfficialTrophyLists(
+			final String jid, final Collection<String> gameIds,
+			final int batchSize,
+			final ResultListener<Map<String, List<PsnTrophyDataOfficial>>> listener) {
+		return submit(
+				new Callable<Map<String, List<PsnTrophyDataOfficial>>>() {
+
+					@Override
+					public Map<String, List<PsnTrophyDataOfficial>> call()
+							throws Exception {
+						return client.getOfficialTrophyLists(jid, gameIds,
+								batchSize);
+					}
+
+				}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialLatestTrophyList(String, int,
+	 *      PlatformType...)
+	 */
+	public AsyncResult<List<PsnTrophyDataOfficial>> getOfficialLatestTrophyList(
+			final String jid, final int max,
+			final ResultListener<List<PsnTrophyDataOfficial>> listener,
+			final PlatformType... platforms) {
+		return submit(new Callable<List<PsnTrophyDataOfficial>>() {
+
+			@Override
+			public List<PsnTrophyDataOfficial> call() throws Exception {
+				return client.getOfficialLatestTrophyList(jid, max, platforms);
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialTrophyListSince(String, int,
+	 *      String, PlatformType...)
+	 */
+	public AsyncResult<List<PsnTrophyDataOfficial>> getOfficialTrophyListSince(
+			final String jid, final int max, final String since,
+			final ResultListener<List<PsnTrophyDataOfficial>> listener,
+			final PlatformType... platforms) {
+		return submit(new Callable<List<PsnTrophyDataOfficial>>() {
+
+			@Override
+			public List<PsnTrophyDataOfficial> call() throws Exception {
+				return client.getOfficialTrophyListSince(jid, max, since,
+						platforms);
+			}
+
+		}, listener);
+	}
+
+	/**
+	 * Creates virtual thread executor if supported, otherwise a cached pool of
+	 * daemon threads.
+	 */
+	private static ExecutorService newDefaultExecutor() {
+		try {
+			final Method method = Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch (final Exception e) {
+			// virtual threads not supported
+		}
+
+		return Executors.newCachedThreadPool(new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, "psn-async-"
+						+ count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+
+		});
+	}
+}
@@ -0,0 +1,121 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.client;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pending result of an {@link AsyncPlayStationNetworkClient} call. Cancelling
+ * interrupts the running call; a connection already reading will finish its
+ * read, bounded by the read timeout, and the result is discarded.
+ * 
+ * @see ResultListener
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public final class AsyncResult<T> extends FutureTask<T> {
+	private static final ScheduledExecutorService DEADLINES;
+	private final ResultListener<T> listener;
+	private volatile ScheduledFuture<?> deadline;
+	private volatile boolean timedOut;
+
+	AsyncResult(final Callable<T> callable, final ResultListener<T> listener) {
+		super(callable);
+		this.listener = listener;
+	}
+
+	/**
+	 * Cancels call if it hasn't finished after <code>timeout</code>. Replaces
+	 * previous deadline.
+	 * 
+	 * @param timeout
+	 *            time until cancelled
+	 * @param unit
+	 *            unit of timeout
+	 * @return this result
+	 */
+	public AsyncResult<T> cancelAfter(final long timeout, final TimeUnit unit) {
+		final ScheduledFuture<?> old = deadline;
+		if (old != null) old.cancel(false);
+		deadline = DEADLINES.schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				timedOut = true;
+				cancel(true);
+			}
+
+		}, timeout, unit);
+
+		// finished before deadline was set
+		if (isDone()) deadline.cancel(false);
+		return this;
+	}
+
+	/**
+	 * Checks if call was cancelled because its deadline passed.
+	 * 
+	 * @return true, if deadline passed
+	 */
+	public boolean isTimedOut() {
+		return timedOut && isCancelled();
+	}
+
+	@Override
+	protected void done() {
+		final ScheduledFuture<?> current = deadline;
+		if (current != null) current.cancel(false);
+		if (listener == null) return;
+
+		if (isCancelled()) {
+			listener.onError(timedOut ? new TimeoutException(
+					"deadline passed") : new CancellationException());
+			return;
+		}
+
+		try {
+			listener.onResult(get());
+		} catch (final ExecutionException e) {
+			listener.onError(e.getCause());
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	static {
+		DEADLINES = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, "psn-async-deadline");
+				thread.setDaemon(true);
+				return thread;
+			}
+
+		});
+	}
+}
@@ -0,0 +1,320 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import com.krobothsoftware.commons.util.ExpiringCache;
+import com.krobothsoftware.psn.PlatformType;
+import com.krobothsoftware.psn.PlayStationNetworkException;
+import com.krobothsoftware.psn.PlayStationNetworkLoginException;
+import com.krobothsoftware.psn.model.PsnGameData;
+import com.krobothsoftware.psn.model.PsnGameDataOfficial;
+import com.krobothsoftware.psn.model.PsnProfileData;
+import com.krobothsoftware.psn.model.PsnTrophyData;
+import com.krobothsoftware.psn.model.PsnTrophyDataOfficial;
+
+/**
+ * Caching layer in front of the public and <i>Official</i> methods of
+ * {@link PlayStationNetworkClient}. Results are cached per method and
+ * arguments, and concurrent identical calls share a single request.
+ * 
+ * <p>
+ * Time to live per kind of result
+ * </p>
+ * 
+ * <pre>
+ *  <li>Profiles - 5 minutes</li>
+ *  <li>Firmware versions - 1 hour</li>
+ *  <li>Jids - 1 hour</li>
+ *  <li>Game lists - 5 minutes</li>
+ *  <li>Trophy lists - 5 minutes</li>
+ * </pre>
+ * 
+ * Each can be changed, and a time to live of zero turns caching off for that
+ * kind. Hit, miss, and eviction counts are available from {@link #getCache()}.
+ * Returned lists are copies and can be changed freely. Client methods
+ * depending on the login session aren't cached; call them on
+ * {@link #getClient()}.
+ * 
+ * <p>
+ * CachedPlayStationNetworkClient is thread-safe.
+ * </p>
+ * 
+ * @see ExpiringCache
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class CachedPlayStationNetworkClient {
+
+	/**
+	 * Default max amount of cached results.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+	private final PlayStationNetworkClient client;
+	private final ExpiringCache<String, Object> cache;
+	private volatile long profileTtl;
+	private volatile long firmwareTtl;
+	private volatile long jidTtl;
+	private volatile long gameTtl;
+	private volatile long trophyTtl;
+
+	public CachedPlayStationNetworkClient(final PlayStationNetworkClient client) {
+		this(client, DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Instantiates a new cached client.
+	 * 
+	 * @param client
+	 *            initialized client
+	 * @param maxEntries
+	 *            max amount of cached results
+	 */
+	public CachedPlayStationNetworkClient(
+			final PlayStationNetworkClient client, final int maxEntries) {
+		this.client = client;
+		cache = new ExpiringCache<String, Object>(maxEntries);
+		profileTtl = TimeUnit.MINUTES.toNanos(5);
+		firmwareTtl = TimeUnit.HOURS.toNanos(1);
+		jidTtl = TimeUnit.HOURS.toNanos(1);
+		gameTtl = TimeUnit.MINUTES.toNanos(5);
+		trophyTtl = TimeUnit.MINUTES.toNanos(5);
+	}
+
+	public PlayStationNetworkClient getClient() {
+		return client;
+	}
+
+	public ExpiringCache<String, Object> getCache() {
+		return cache;
+	}
+
+	public void setProfileTtl(final long ttl, final TimeUnit unit) {
+		profileTtl = unit.toNanos(ttl);
+	}
+
+	public void setFirmwareTtl(final long ttl, final TimeUnit unit) {
+		firmwareTtl = unit.toNanos(ttl);
+	}
+
+	public void setJidTtl(final long ttl, final TimeUnit unit) {
+		jidTtl = unit.toNanos(ttl);
+	}
+
+	public void setGameTtl(final long ttl, final TimeUnit unit) {
+		gameTtl = unit.toNanos(ttl);
+	}
+
+	public void setTrophyTtl(final long ttl, final TimeUnit unit) {
+		trophyTtl = unit.toNanos(ttl);
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getPublicGameList(String)
+	 */
+	public List<PsnGameData> getPublicGameList(final String psnId)
+			throws PlayStationNetworkException, IOException {
+		return copy(this.<List<PsnGameData>> load(
+				key("getPublicGameList", psnId), gameTtl,
+				new Callable<List<PsnGameData>>() {
+
+					@Override
+					public List<PsnGameData> call() throws Exception {
+						return client.getPublicGameList(psnId);
+					}
+
+				}));
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getPublicTrophyList(String, String,
+	 *      String)
+	 */
+	public List<PsnTrophyData> getPublicTrophyList(final String psnId,
+			final String titleLinkId, final String gameId) throws IOException,
+			PlayStationNetworkException, PlayStationNetworkLoginException {
+		return copy(this.<List<PsnTrophyData>> load(
+				key("getPublicTrophyList", psnId, titleLinkId, gameId),
+				trophyTtl, new Callable<List<PsnTrophyData>>() {
+
+					@Override
+					public List<PsnTrophyData> call() throws Exception {
+						return client.getPublicTrophyList(psnId, titleLinkId,
+								gameId);
+					}
+
+				}));
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialProfile(String)
+	 */
+	public PsnProfileData getOfficialProfile(final String jid)
+			throws PlayStationNetworkException, IOException {
+		return load(key("getOfficialProfile", jid), profileTtl,
+				new Callable<PsnProfileData>() {
+
+					@Override
+					public PsnProfileData call() throws Exception {
+						return client.getOfficialProfile(jid);
+					}
+
+				});
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialFirmwareVersion(PlatformType)
+	 */
+	public String getOfficialFirmwareVersion(final PlatformType platform)
+			throws IOException {
+		try {
+			return load(key("getOfficialFirmwareVersion", platform),
+					firmwareTtl, new Callable<String>() {
+
+						@Override
+						public String call() throws Exception {
+							return client.getOfficialFirmwareVersion(platform);
+						}
+
+					});
+		} catch (final PlayStationNetworkException e) {
+			// client method only throws IOException
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialJid(String)
+	 */
+	public String getOfficialJid(final String psnId) throws IOException {
+		try {
+			return load(key("getOfficialJid", psnId), jidTtl,
+					new Callable<String>() {
+
+						@Override
+						public String call() throws Exception {
+							return client.getOfficialJid(psnId);
+						}
+
+					});
+		} catch (final PlayStationNetworkException e) {
+			// client method only throws IOException
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialGameList(String, int, int,
+	 *      PlatformType...)
+	 */
+	public List<PsnGameDataOfficial> getOfficialGameList(final String jid,
+			final int start, final int max, final PlatformType... platforms)
+			throws IOException, PlayStationNetworkException {
+		return copy(this.<List<PsnGameDataOfficial>> load(
+				key("getOfficialGameList", jid, start, max, platforms),
+				gameTtl, new Callable<List<PsnGameDataOfficial>>() {
+
+					@Override
+					public List<PsnGameDataOfficial> call() throws Exception {
+						return client.getOfficialGameList(jid, start, max,
+								platforms);
+					}
+
+				}));
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialTrophyList(String, String)
+	 */
+	public List<PsnTrophyDataOfficial> getOfficialTrophyList(final String jid,
+			final String gameId) throws IOException,
+			PlayStationNetworkException {
+		return copy(this.<List<PsnTrophyDataOfficial>> load(
+				key("getOfficialTrophyList", jid, gameId), trophyTtl,
+				new Callable<List<PsnTrophyDataOfficial>>() {
+
+					@Override
+					public List<PsnTrophyDataOfficial> call() throws Exception {
+						return client.getOfficialTrophyList(jid, gameId);
+					}
+
+				}));
+	}
+
+	/**
+	 * @see PlayStationNetworkClient#getOfficialLatestTrophyList(String, int,
+	 *      PlatformType...)
+	 */
+	public List<PsnTrophyDataOfficial> getOfficialLatestTrophyList(
+			final String jid, final int max, final PlatformType... platforms)
+			throws PlayStationNetworkException, IOException {
+		return copy(this.<List<PsnTrophyDataOfficial>> load(
+				key("getOfficialLatestTrophyList", jid, max, platforms),
+				trophyTtl, new Callable<List<PsnTrophyDataOfficial>>() {
+
+					@Override
+					public List<PsnTrophyDataOfficial> call() throws Exception {
+						return client.getOfficialLatestTrophyList(jid, max,
+								platforms);
+					}
+
+				}));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T load(final String key, final long ttl,
+			final Callable<T> loader) throws IOException,
+			PlayStationNetworkException {
+		try {
+			return (T) cache.get(key, ttl, TimeUnit.NANOSECONDS,
+					(Callable<Object>) loader);
+		} catch (final IOException e) {
+			throw e;
+		} catch (final PlayStationNetworkException e) {
+			throw e;
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final InterruptedException e) {
+			// waiting on another thread's load was interrupted
+			Thread.currentThread().interrupt();
+			final InterruptedIOException interrupted = new InterruptedIOException(
+					"Interrupted waiting for " + key);
+			interrupted.initCause(e);
+			throw interrupted;
+		} catch (final Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String key(final String method, final Object... args) {
+		return method + Arrays.deepToString(args);
+	}
+
+	private static <T> List<T> copy(final List<T> list) {
+		return list == null ? null : new ArrayList<T>(list);
+	}
+
+}
@@ -0,0 +1,600 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.client;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent index of psn ids to jids, in front of
+ * {@link PlayStationNetworkClient#getOfficialJid(String)}. A jid practically
+ * never changes, so once looked up it's kept for good. Ids without a jid are
+ * kept as unknown for {@link #DEFAULT_NEGATIVE_TTL}, so they aren't asked for
+ * again on every import.
+ * 
+ * <p>
+ * Entries live in memory and are appended to a log file, one line per lookup.
+ * The log is read back when an index is opened, so it survives restarts; the
+ * last line of an id wins. A line cut off by a crash is ignored. The log is
+ * compacted when it holds more than twice as many lines as entries, which
+ * also drops expired unknown ids. The old log is kept as a backup until the
+ * compacted one replaces it, and is put back if compacting was cut off.
+ * </p>
+ * 
+ * <p>
+ * {@link #getOfficialJids(Collection)} resolves many ids at once with at most
+ * {@link #setConcurrency(int) concurrency} lookups in flight. The client's
+ * rate limits still apply.
+ * </p>
+ * 
+ * <p>
+ * JidIndex is thread-safe. Only one index should have a file open at a time.
+ * </p>
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class JidIndex implements Closeable {
+
+	/**
+	 * Default time an id without a jid is remembered as unknown.
+	 */
+	public static final long DEFAULT_NEGATIVE_TTL = TimeUnit.DAYS.toMillis(1);
+
+	/**
+	 * Default max lookups in flight of {@link #getOfficialJids(Collection)}.
+	 */
+	public static final int DEFAULT_CONCURRENCY = 4;
+
+	private static final int COMPACT_MIN_LINES = 4096;
+	private static final int FLUSH_INTERVAL = 256;
+	private static final String CHARSET = "UTF-8";
+	private static final String TMP_SUFFIX = ".tmp";
+	private static final String BACKUP_SUFFIX = ".bak";
+	private static final ThreadFactory THREAD_FACTORY;
+
+	private final PlayStationNetworkClient client;
+	private final File file;
+	private final ConcurrentMap<String, Entry> entries;
+	private final AtomicLong hits;
+	private final AtomicLong lookups;
+	private final Object lock;
+	private final Logger log;
+	private volatile long negativeTtl;
+	private volatile int concurrency;
+	private Writer writer;
+	private int lines;
+	private int unflushed;
+
+	/**
+	 * Opens index, reading entries of <code>file</code> if it exists.
+	 * 
+	 * @param client
+	 *            initialized client
+	 * @param file
+	 *            log file, created on first lookup
+	 * @throws IOException
+	 *             thrown if file can't be read
+	 */
+	public JidIndex(final PlayStationNetworkClient client, final File file)
+			throws IOException {
+		this.client = client;
+		this.file = file;
+		entries = new ConcurrentHashMap<String, Entry>();
+		hits = new AtomicLong();
+		lookups = new AtomicLong();
+		lock = new Object();
+		log = LoggerFactory.getLogger(JidIndex.class);
+		negativeTtl = DEFAULT_NEGATIVE_TTL;
+		concurrency = DEFAULT_CONCURRENCY;
+
+		synchronized (lock) {
+			load();
+			if (isCompactable()) compact();
+		}
+	}
+
+	/**
+	 * Sets time an id without a jid is remembered as unknown. Zero looks them
+	 * up every time.
+	 * 
+	 * @param ttl
+	 *            time to live
+	 * @param unit
+	 *            unit of ttl
+	 */
+	public void setNegativeTtl(final long ttl, final TimeUnit unit) {
+		negativeTtl = unit.toMillis(ttl);
+	}
+
+	/**
+	 * Sets max lookups in flight of {@link #getOfficialJids(Collection)}.
+	 * 
+	 * @param concurrency
+	 *            max lookups at once
+	 * @throws IllegalArgumentException
+	 *             thrown if concurrency is zero or less
+	 */
+	public void setConcurrency(final int concurrency) {
+		if (concurrency <= 0) throw new IllegalArgumentException(
+				"concurrency must be greater than 0");
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * Gets jid of psn id, looking it up only if it isn't indexed.
+	 * 
+	 * @param psnId
+	 *            psn id
+	 * @return jid, or null if psn id is unknown
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public String getOfficialJid(final String psnId) throws IOException {
+		final Entry entry = getEntry(psnId);
+		if (entry != null) {
+			hits.incrementAndGet();
+			return entry.jid;
+		}
+
+		final String jid = lookup(psnId);
+		flush();
+		return jid;
+	}
+
+	/**
+	 * Gets jids of psn ids, looking up the ones not indexed on threads owned by
+	 * the index.
+	 * 
+	 * @see #getOfficialJids(Collection, Executor)
+	 * 
+	 * @param psnIds
+	 *            psn ids
+	 * @return jids by psn id, in order of <code>psnIds</code>
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public Map<String, String> getOfficialJids(final Collection<String> psnIds)
+			throws IOException {
+		return getOfficialJids(psnIds, null);
+	}
+
+	/**
+	 * Gets jids of psn ids, looking up the ones not indexed on
+	 * <code>executor</code>. Ids differing only in case are looked up once.
+	 * If a lookup fails, the rest aren't started and its exception is thrown.
+	 * Ids resolved before are kept, so calling again continues where it
+	 * stopped.
+	 * 
+	 * @param psnIds
+	 *            psn ids
+	 * @param executor
+	 *            executor for lookups, isn't shut down by index. If null,
+	 *            threads are created for the call
+	 * @return jids by psn id, in order of <code>psnIds</code>. Unknown ids map
+	 *         to null
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public Map<String, String> getOfficialJids(
+			final Collection<String> psnIds, final Executor executor)
+			throws IOException {
+		final Map<String, String> jids = new LinkedHashMap<String, String>();
+		final Queue<String> missing = new ConcurrentLinkedQueue<String>();
+		final Set<String> queued = new HashSet<String>();
+		for (final String psnId : psnIds) {
+			if (jids.containsKey(psnId)) continue;
+			final Entry entry = getEntry(psnId);
+			if (entry != null) {
+				hits.incrementAndGet();
+				jids.put(psnId, entry.jid);
+			} else {
+				jids.put(psnId, null);
+				if (queued.add(key(psnId))) missing.add(psnId);
+			}
+		}
+
+		if (missing.isEmpty()) return jids;
+		log.debug("Looking up {} of {} jids", missing.size(), jids.size());
+		resolve(missing, executor);
+
+		for (final Map.Entry<String, String> jid : jids.entrySet()) {
+			if (jid.getValue() != null) continue;
+			final Entry entry = entries.get(key(jid.getKey()));
+			if (entry != null) jid.setValue(entry.jid);
+		}
+		return jids;
+	}
+
+	/**
+	 * Gets amount of indexed psn ids, including unknown ones.
+	 * 
+	 * @return entry count
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Gets amount of psn ids answered from the index.
+	 * 
+	 * @return hit count
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Gets amount of psn ids looked up with the client.
+	 * 
+	 * @return lookup count
+	 */
+	public long getLookupCount() {
+		return lookups.get();
+	}
+
+	/**
+	 * Writes appended entries to file.
+	 * 
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public void flush() throws IOException {
+		synchronized (lock) {
+			if (writer == null || unflushed == 0) return;
+			writer.flush();
+			unflushed = 0;
+		}
+	}
+
+	/**
+	 * Rewrites log with one line per entry, dropping expired unknown ids.
+	 * 
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public void compact() throws IOException {
+		synchronized (lock) {
+			closeWriter();
+			final long now = System.currentTimeMillis();
+			final File tmp = getSibling(TMP_SUFFIX);
+			final Writer out = new BufferedWriter(new OutputStreamWriter(
+					new FileOutputStream(tmp), CHARSET));
+			int count = 0;
+			try {
+				for (final Map.Entry<String, Entry> entry : entries
+						.entrySet()) {
+					if (isExpired(entry.getValue(), now)) {
+						entries.remove(entry.getKey(), entry.getValue());
+						continue;
+					}
+					write(out, entry.getKey(), entry.getValue());
+					count++;
+				}
+			} finally {
+				out.close();
+			}
+
+			// old log stays until the new one is in place
+			final File backup = getSibling(BACKUP_SUFFIX);
+			if (backup.exists() && !backup.delete()) throw new IOException(
+					"Couldn't delete " + backup);
+			if (file.exists() && !file.renameTo(backup)) throw new IOException(
+					"Couldn't back up " + file);
+			if (!tmp.renameTo(file)) {
+				if (backup.exists() && !backup.renameTo(file)) log.error(
+						"Couldn't restore {}", backup);
+				throw new IOException("Couldn't replace " + file);
+			}
+			if (!backup.delete()) log.warn("Couldn't delete {}", backup);
+			log.debug("Compacted {} lines to {}", lines, count);
+			lines = count;
+		}
+	}
+
+	/**
+	 * Flushes and closes log. Index can still be used; the log is opened again
+	 * on the next lookup.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (lock) {
+			closeWriter();
+		}
+	}
+
+	private String lookup(final String psnId) throws IOException {
+		lookups.incrementAndGet();
+		final String jid = client.getOfficialJid(psnId);
+		put(key(psnId), new Entry(jid, System.currentTimeMillis()));
+		return jid;
+	}
+
+	/**
+	 * Looks up psn ids with at most {@link #concurrency} workers, each taking
+	 * ids from <code>missing</code> until it's empty.
+	 */
+	private void resolve(final Queue<String> missing, final Executor executor)
+			throws IOException {
+		final int workers = Math.min(concurrency, missing.size());
+		final ExecutorService ownedExecutor = executor == null ? Executors
+				.newFixedThreadPool(workers, THREAD_FACTORY) : null;
+		final List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>(
+				workers);
+		IOException error = null;
+
+		try {
+			for (int i = 0; i < workers; i++) {
+				final FutureTask<Void> task = new FutureTask<Void>(
+						new Callable<Void>() {
+
+							@Override
+							public Void call() throws Exception {
+								String psnId;
+								while ((psnId = missing.poll()) != null) {
+									try {
+										lookup(psnId);
+									} catch (final Exception e) {
+										// don't start remaining lookups
+										missing.clear();
+										throw e;
+									}
+								}
+								return null;
+							}
+
+						});
+				tasks.add(task);
+				(executor != null ? executor : ownedExecutor).execute(task);
+			}
+
+			for (final FutureTask<Void> task : tasks) {
+				try {
+					task.get();
+				} catch (final ExecutionException e) {
+					if (error != null) continue;
+					final Throwable cause = e.getCause();
+					if (cause instanceof IOException)
+						error = (IOException) cause;
+					else if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					else
+						error = new IOException(cause.toString());
+				}
+			}
+		} catch (final InterruptedException e) {
+			missing.clear();
+			for (final FutureTask<Void> task : tasks)
+				task.cancel(true);
+			Thread.currentThread().interrupt();
+			error = new InterruptedIOException("Interrupted looking up jids");
+		} finally {
+			if (ownedExecutor != null) ownedExecutor.shutdown();
+			flush();
+			compactIfNeeded();
+		}
+
+		if (error != null) throw error;
+	}
+
+	/**
+	 * Gets entry of psn id, or null if not indexed or expired.
+	 */
+	private Entry getEntry(final String psnId) {
+		final Entry entry = entries.get(key(psnId));
+		if (entry == null || isExpired(entry, System.currentTimeMillis()))
+			return null;
+		return entry;
+	}
+
+	private boolean isExpired(final Entry entry, final long now) {
+		return entry.jid == null && now - entry.time >= negativeTtl;
+	}
+
+	private void put(final String key, final Entry entry) throws IOException {
+		entries.put(key, entry);
+		// psn ids can't hold these, don't let one break the log
+		if (key.indexOf('\t') != -1 || key.indexOf('\n') != -1
+				|| key.indexOf('\r') != -1) return;
+
+		synchronized (lock) {
+			if (writer == null) writer = openWriter();
+			write(writer, key, entry);
+			lines++;
+			if (++unflushed >= FLUSH_INTERVAL) {
+				writer.flush();
+				unflushed = 0;
+			}
+		}
+	}
+
+	private void compactIfNeeded() throws IOException {
+		synchronized (lock) {
+			if (isCompactable()) compact();
+		}
+	}
+
+	private boolean isCompactable() {
+		return lines > COMPACT_MIN_LINES && lines > entries.size() * 2;
+	}
+
+	/**
+	 * Reads log into entries. Lines that don't parse are skipped.
+	 */
+	private void load() throws IOException {
+		recover();
+		if (!file.exists()) return;
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), CHARSET));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines++;
+				final String[] fields = line.split("\t", -1);
+				if (fields.length != 3) continue;
+				final long time;
+				try {
+					time = Long.parseLong(fields[2]);
+				} catch (final NumberFormatException e) {
+					continue;
+				}
+				entries.put(fields[0], new Entry(
+						fields[1].length() > 0 ? fields[1] : null, time));
+			}
+		} finally {
+			reader.close();
+		}
+		log.debug("Loaded {} jids from {} lines", entries.size(), lines);
+	}
+
+	/**
+	 * Puts back log of a compaction that was cut off. The backup is the whole
+	 * old log; without one, the compacted log was already written when the
+	 * old one went missing. Leftovers next to an existing log are deleted.
+	 */
+	private void recover() throws IOException {
+		final File tmp = getSibling(TMP_SUFFIX);
+		final File backup = getSibling(BACKUP_SUFFIX);
+		if (!file.exists()) {
+			final File previous = backup.exists() ? backup : tmp;
+			if (previous.exists()) {
+				log.warn("Restoring {} from {}", file, previous);
+				if (!previous.renameTo(file)) throw new IOException(
+						"Couldn't restore " + previous);
+			}
+		}
+
+		if (tmp.exists() && !tmp.delete()) log.warn("Couldn't delete {}", tmp);
+		if (backup.exists() && !backup.delete()) log.warn(
+				"Couldn't delete {}", backup);
+	}
+
+	private File getSibling(final String suffix) {
+		return new File(file.getPath() + suffix);
+	}
+
+	/**
+	 * Opens log for appending. A line cut off by a crash is ended first, so
+	 * the next line isn't joined to it.
+	 */
+	private Writer openWriter() throws IOException {
+		boolean ended = true;
+		if (file.length() > 0) {
+			final RandomAccessFile raf = new RandomAccessFile(file, "r");
+			try {
+				raf.seek(raf.length() - 1);
+				ended = raf.read() == '\n';
+			} finally {
+				raf.close();
+			}
+		}
+
+		final Writer out = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(file, true), CHARSET));
+		if (!ended) out.write('\n');
+		return out;
+	}
+
+	private void closeWriter() throws IOException {
+		if (writer == null) return;
+		try {
+			writer.close();
+		} finally {
+			writer = null;
+			unflushed = 0;
+		}
+	}
+
+	private static void write(final Writer out, final String key,
+			final Entry entry) throws IOException {
+		out.write(key);
+		out.write('\t');
+		if (entry.jid != null) out.write(entry.jid);
+		out.write('\t');
+		out.write(Long.toString(entry.time));
+		out.write('\n');
+	}
+
+	/**
+	 * Psn ids aren't case sensitive.
+	 */
+	private static String key(final String psnId) {
+		return psnId.toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * Jid of a psn id, null if unknown, and the time it was looked up.
+	 */
+	static final class Entry {
+		final String jid;
+		final long time;
+
+		Entry(final String jid, final long time) {
+			this.jid = jid;
+			this.time = time;
+		}
+	}
+
+	static {
+		THREAD_FACTORY = new ThreadFactory() {
+
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, "psn-jid-lookup");
+				thread.setDaemon(true);
+				return thread;
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,234 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.client;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.krobothsoftware.psn.PlatformType;
+import com.krobothsoftware.psn.internal.HandlerPullGame;
+import com.krobothsoftware.psn.model.PsnGameDataOfficial;
+
+/**
+ * Lazily walks an official game list page by page. While the current page is
+ * read, up to <code>prefetch</code> following pages are already being fetched.
+ * Iteration ends at the first short page, so at most <code>prefetch</code>
+ * requests past the end of the list are made.
+ * 
+ * <p>
+ * Iterator must only be used by one thread. Failed page requests are thrown
+ * from {@link #hasNext()} and {@link #next()} as an
+ * {@link IllegalStateException} with the original exception as cause. Call
+ * {@link #close()} when stopping early so pending requests are cancelled.
+ * </p>
+ * 
+ * @see PlayStationNetworkClient#iterateOfficialGameList(String, int, int,
+ *      PlatformType...)
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public final class OfficialGameListIterator implements
+		Iterator<PsnGameDataOfficial>, Closeable {
+	// server returns at most 64 games, a larger page would look like the last
+	private static final int MAX_PAGE_SIZE = 64;
+	// idle owned threads end so an iterator that's never closed doesn't leak
+	private static final long KEEP_ALIVE_SECONDS = 30;
+	private final PlayStationNetworkClient client;
+	private final String jid;
+	private final int pageSize;
+	private final int prefetch;
+	private final PlatformType[] platforms;
+	private final Executor executor;
+	private final ExecutorService ownedExecutor;
+	private final LinkedList<PageTask> pending;
+	private Iterator<PsnGameDataOfficial> current;
+	private int nextStart;
+	private boolean lastPage;
+	private boolean closed;
+
+	OfficialGameListIterator(final PlayStationNetworkClient client,
+			final String jid, final int pageSize, final int prefetch,
+			final Executor executor, final PlatformType... platforms) {
+		if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) throw new IllegalArgumentException(
+				"page size must be between 1 and " + MAX_PAGE_SIZE);
+		if (prefetch <= 0) throw new IllegalArgumentException(
+				"prefetch must be greater than 0");
+		this.client = client;
+		this.jid = jid;
+		this.pageSize = pageSize;
+		this.prefetch = prefetch;
+		this.platforms = platforms;
+		if (executor == null) {
+			// one thread per prefetched page so they're fetched concurrently
+			final ThreadPoolExecutor pool = new ThreadPoolExecutor(prefetch,
+					prefetch, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+						@Override
+						public Thread newThread(final Runnable r) {
+							final Thread thread = new Thread(r,
+									"psn-game-pages");
+							thread.setDaemon(true);
+							return thread;
+						}
+
+					});
+			pool.allowCoreThreadTimeOut(true);
+			ownedExecutor = pool;
+			this.executor = ownedExecutor;
+		} else {
+			ownedExecutor = null;
+			this.executor = executor;
+		}
+		pending = new LinkedList<PageTask>();
+		nextStart = 1;
+		fill();
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (current == null || !current.hasNext()) {
+			if (closed) return false;
+			final PageTask task = pending.poll();
+			if (task == null) {
+				close();
+				return false;
+			}
+
+			final HandlerPullGame page = await(task);
+			final List<PsnGameDataOfficial> games = page.getGames();
+			final int total = page.getTotalGames();
+			if (games.size() < pageSize) {
+				// requests already sent for later pages are past the end
+				lastPage = true;
+				cancelPending();
+			} else if (total > 0 && nextStart > total) {
+				// total is known, pages starting past it would be empty
+				lastPage = true;
+				cancelPast(total);
+			}
+
+			fill();
+			current = games.iterator();
+		}
+
+		return true;
+	}
+
+	@Override
+	public PsnGameDataOfficial next() {
+		if (!hasNext()) throw new NoSuchElementException();
+		return current.next();
+	}
+
+	/**
+	 * Not supported.
+	 * 
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Cancels pending page requests. Games of the current page can still be
+	 * read.
+	 */
+	@Override
+	public void close() {
+		if (closed) return;
+		closed = true;
+		cancelPending();
+		if (ownedExecutor != null) ownedExecutor.shutdownNow();
+	}
+
+	private void fill() {
+		while (!lastPage && !closed && pending.size() < prefetch) {
+			final int start = nextStart;
+			final PageTask task = new PageTask(start,
+					new Callable<HandlerPullGame>() {
+
+						@Override
+						public HandlerPullGame call() throws Exception {
+							return client.getOfficialGamePage(jid, start,
+									pageSize, platforms);
+						}
+
+					});
+			executor.execute(task);
+			pending.add(task);
+			nextStart += pageSize;
+		}
+	}
+
+	private void cancelPending() {
+		PageTask task;
+		while ((task = pending.poll()) != null)
+			task.cancel(true);
+	}
+
+	private void cancelPast(final int total) {
+		final Iterator<PageTask> iterator = pending.iterator();
+		while (iterator.hasNext()) {
+			final PageTask task = iterator.next();
+			if (task.start > total) {
+				task.cancel(true);
+				iterator.remove();
+			}
+		}
+	}
+
+	private HandlerPullGame await(final PageTask task) {
+		try {
+			return task.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			close();
+			throw new IllegalStateException("Interrupted while fetching games",
+					e);
+		} catch (final ExecutionException e) {
+			close();
+			throw new IllegalStateException("Couldn't fetch game page",
+					e.getCause());
+		}
+	}
+
+	private static final class PageTask extends FutureTask<HandlerPullGame> {
+		final int start;
+
+		PageTask(final int start, final Callable<HandlerPullGame> callable) {
+			super(callable);
+			this.start = start;
+		}
+	}
+
+}
@@ -21,12 +21,19 @@ import static com.krobothsoftware.commons.network.NetworkHelper.Method.GET;
 import static com.krobothsoftware.commons.network.NetworkHelper.Method.POST;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -37,12 +44,15 @@ import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
 
 import com.krobothsoftware.commons.network.RequestBuilderAuthorization;
+import com.krobothsoftware.commons.network.CircuitBreakerOpenException;
 import com.krobothsoftware.commons.network.CookieManager;
 import com.krobothsoftware.commons.network.NetworkHelper;
 import com.krobothsoftware.commons.network.NetworkHelper.Method;
 import com.krobothsoftware.commons.network.RequestBuilder;
+import com.krobothsoftware.commons.network.RequestCoalescer;
 import com.krobothsoftware.commons.network.Response;
 import com.krobothsoftware.commons.network.ResponseAuthenticate;
+import com.krobothsoftware.commons.network.ResponseNotModified;
 import com.krobothsoftware.commons.network.ResponseRedirect;
 import com.krobothsoftware.commons.network.authorization.AuthorizationManager;
 import com.krobothsoftware.commons.network.authorization.DigestAuthorization;
@@ -63,10 +73,10 @@ import com.krobothsoftware.psn.internal.HandlerHtmlUKGame;
 import com.krobothsoftware.psn.internal.HandlerHtmlUKTrophy;
 import com.krobothsoftware.psn.internal.HandlerHtmlUSGame;
 import com.krobothsoftware.psn.internal.HandlerHtmlUSTrophy;
-import com.krobothsoftware.psn.internal.HandlerXmlFriend;
-import com.krobothsoftware.psn.internal.HandlerXmlGame;
-import com.krobothsoftware.psn.internal.HandlerXmlProfile;
-import com.krobothsoftware.psn.internal.HandlerXmlTrophy;
+import com.krobothsoftware.psn.internal.HandlerPullFriend;
+import com.krobothsoftware.psn.internal.HandlerPullGame;
+import com.krobothsoftware.psn.internal.HandlerPullProfile;
+import com.krobothsoftware.psn.internal.HandlerPullTrophy;
 import com.krobothsoftware.psn.model.PsnFriendData;
 import com.krobothsoftware.psn.model.PsnGameData;
 import com.krobothsoftware.psn.model.PsnGameDataOfficial;
@@ -88,7 +98,31 @@ import com.krobothsoftware.psn.model.PsnUserInfo;
  * official servers</li>
  * </ul>
  * 
- * @version 3.0.2
+ * <p>
+ * The client is thread-safe. Once {@link #init()} has been called, all
+ * <i>Public</i> and <i>Official</i> methods can be called from any number of
+ * threads at once. Login methods are serialized since they update the client
+ * session. To poll with several clients, share one {@link NetworkHelper} and
+ * {@link Parser} through
+ * {@link #PlayStationNetworkClient(NetworkHelper, Parser)} so cookies,
+ * authorizations, parsers and keep-alive connections aren't duplicated.
+ * </p>
+ * 
+ * <p>
+ * Identical <i>Official</i> jid, profile, game list, and trophy list requests
+ * made while one is already in flight wait for it instead of connecting, see
+ * {@link RequestCoalescer}.
+ * </p>
+ * 
+ * <p>
+ * If a host is guarded by an open
+ * {@link com.krobothsoftware.commons.network.CircuitBreaker}, methods fail
+ * right away with {@link PlayStationNetworkException}, or with
+ * {@link CircuitBreakerOpenException} for methods only throwing
+ * {@link IOException}.
+ * </p>
+ * 
+ * @version 3.1
  * @since Nov 25 2012
  * @author Kyle Kroboth
  * 
@@ -126,12 +160,57 @@ public class PlayStationNetworkClient {
 	public static final String AGENT_PSP_UPDATE = "PSPUpdate-agent/1.0.0 libhttp/1.0.0";
 
 	/** Current PS3 firmware version as of 10/30/12 */
-	public static String PS3_FIRMWARE_VERSION = "4.31";
+	public static volatile String PS3_FIRMWARE_VERSION = "4.31";
+
+	/**
+	 * Default amount of games packed into one <code>get_trophies</code>
+	 * request by {@link #getOfficialTrophyLists(String, Collection)}
+	 */
+	public static final int TROPHY_BATCH_SIZE = 16;
+
+	/**
+	 * Endpoint of official trophy requests, as recorded in
+	 * {@link NetworkHelper#getMetrics()}.
+	 */
+	public static final String ENDPOINT_TROPHIES = "get_trophies";
+
+	/** Endpoint of official game requests. */
+	public static final String ENDPOINT_TITLE_LIST = "get_title_list";
+
+	/** Endpoint of official profile requests. */
+	public static final String ENDPOINT_PROFILE = "get_profile";
+
+	/** Endpoint of official jid requests. */
+	public static final String ENDPOINT_SEARCH_JID = "search_jid";
+
+	/** Endpoint of firmware version requests. */
+	public static final String ENDPOINT_FIRMWARE = "get_firmware";
+
+	/** Endpoint of UK friend list requests. */
+	public static final String ENDPOINT_UK_FRIENDS = "uk_friends";
+
+	/** Endpoint of UK game page requests. */
+	public static final String ENDPOINT_UK_GAMES = "uk_games";
+
+	/** Endpoint of UK trophy page requests. */
+	public static final String ENDPOINT_UK_TROPHIES = "uk_trophies";
+
+	/** Endpoint of UK friend game page requests. */
+	public static final String ENDPOINT_UK_FRIEND_GAMES = "uk_friend_games";
+
+	/** Endpoint of UK friend trophy page requests. */
+	public static final String ENDPOINT_UK_FRIEND_TROPHIES = "uk_friend_trophies";
+
+	/** Endpoint of US game page requests. */
+	public static final String ENDPOINT_US_GAMES = "us_games";
 
-	private String clientJid;
-	private String clientSessionId;
-	private boolean clientLoggedIn;
-	private PsnUserInfo clientUserInfo;
+	/** Endpoint of US trophy page requests. */
+	public static final String ENDPOINT_US_TROPHIES = "us_trophies";
+
+	private volatile String clientJid;
+	private volatile String clientSessionId;
+	private volatile boolean clientLoggedIn;
+	private volatile PsnUserInfo clientUserInfo;
 	private final NetworkHelper networkHelper;
 	private final Parser parser;
 	private final Logger log;
@@ -147,6 +226,23 @@ public class PlayStationNetworkClient {
 
 	}
 
+	/**
+	 * Creates new client which shares <code>networkHelper</code> and
+	 * <code>parser</code> with other clients. Call {@link #init()} once on the
+	 * shared network helper.
+	 * 
+	 * @param networkHelper
+	 *            shared network helper
+	 * @param parser
+	 *            shared parser
+	 */
+	public PlayStationNetworkClient(final NetworkHelper networkHelper,
+			final Parser parser) {
+		log = LoggerFactory.getLogger(PlayStationNetworkClient.class);
+		this.networkHelper = networkHelper;
+		this.parser = parser;
+	}
+
 	private Parser _getParser() {
 		try {
 			return new Parser();
@@ -192,7 +288,7 @@ public class PlayStationNetworkClient {
 	/**
 	 * Cleans up and resets client and network helper.
 	 */
-	public void cleanup() {
+	public synchronized void cleanup() {
 		log.info("Cleaning up client");
 		clientSessionId = null;
 		clientJid = null;
@@ -309,9 +405,10 @@ public class PlayStationNetworkClient {
 	 * @throws PlayStationNetworkLoginException
 	 *             thrown if username or password is not valid
 	 */
-	public String clientLogin(final String username, final String password,
-			final ProgressListener progressListener) throws IOException,
-			PlayStationNetworkException, PlayStationNetworkLoginException {
+	public synchronized String clientLogin(final String username,
+			final String password, final ProgressListener progressListener)
+			throws IOException, PlayStationNetworkException,
+			PlayStationNetworkLoginException {
 		Response response = null;
 		log.debug("clientLogin - Entering");
 
@@ -338,7 +435,7 @@ public class PlayStationNetworkClient {
 						new URL(
 								"https://store.playstation.com/j_acegi_external_security_check?target=/external/loginDefault.action"))
 						.setPayload(params, "UTF-8").execute(networkHelper);
-				response.disconnect();
+				response.release();
 			} catch (final IOException e) {
 				throw e;
 			}
@@ -351,7 +448,7 @@ public class PlayStationNetworkClient {
 				progressHelper.update("Authenticating");
 				isLoginValid(response = new RequestBuilder(GET, new URL(
 						urlLocation)).execute(networkHelper));
-				response.disconnect();
+				response.release();
 
 				// get session id and location
 				urlLocation = ((ResponseRedirect) response).getRedirectUrl();
@@ -362,7 +459,7 @@ public class PlayStationNetworkClient {
 				progressHelper.update("Authenticating");
 				response = new RequestBuilder(GET, new URL(urlLocation))
 						.execute(networkHelper);
-				response.disconnect();
+				response.release();
 
 				// get psn id
 
@@ -389,11 +486,10 @@ public class PlayStationNetworkClient {
 										"http://us.playstation.com/uwps/HandleIFrameRequests?sessionId=%s",
 										clientSessionId))).useCookies(false)
 						.execute(networkHelper);
-				response.disconnect();
+				response.release();
 				Cookie userinfoCookie = null;
 
-				for (final Cookie cookie : CookieManager.getCookies(response
-						.getConnection())) {
+				for (final Cookie cookie : CookieManager.getCookies(response)) {
 					final String name = cookie.getName();
 					if (name.equalsIgnoreCase("ph")) returnPsnId = cookie
 							.getValue();
@@ -423,7 +519,7 @@ public class PlayStationNetworkClient {
 					clientUserInfo = PsnUserInfo.newInstance(CommonUtils
 							.getContentFromInputStream(response.getStream(),
 									response.getCharset()));
-					response.disconnect();
+					response.release();
 				}
 
 				if (returnPsnId == null) throw new PlayStationNetworkLoginException(
@@ -445,6 +541,8 @@ public class PlayStationNetworkClient {
 			}
 
 			return returnPsnId;
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final MalformedURLException e) {
 			throw new PlayStationNetworkLoginException("Sign-In unsuccessful",
 					e);
@@ -452,7 +550,7 @@ public class PlayStationNetworkClient {
 			throw new PlayStationNetworkLoginException("Sign-In unsuccessful",
 					e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("clientLogin - Exiting");
 		}
 
@@ -502,18 +600,21 @@ public class PlayStationNetworkClient {
 					Method.GET,
 					new URL(
 							"https://secure.eu.playstation.com/ajax/mypsn/friend/presence/"))
+					.setEndpoint(ENDPOINT_UK_FRIENDS)
 					.setReadTimeout(0).execute(networkHelper);
 			if (response instanceof ResponseRedirect) throw new PlayStationNetworkLoginException(
 					"login cookies invalid, expired, or not found");
-			final HandlerXmlFriend friendHandler = new HandlerXmlFriend();
+			final HandlerPullFriend friendHandler = new HandlerPullFriend();
 			parser.parse(response.getStream(), friendHandler,
-					response.getCharset());
+					response.getCharset(), response);
 			return friendHandler.getFriendList();
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final ParseException e) {
 			throw new PlayStationNetworkException(
 					"Unexpected error occurred while parsing", e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("getFriendList - Exiting");
 		}
 
@@ -560,6 +661,7 @@ public class PlayStationNetworkClient {
 		try {
 			response = new RequestBuilder(GET, new URL(
 					"http://uk.playstation.com/psn/mypsn/trophies/"))
+					.setEndpoint(ENDPOINT_UK_GAMES)
 					.execute(networkHelper);
 
 			if (response instanceof ResponseRedirect) throw new PlayStationNetworkLoginException(
@@ -568,13 +670,15 @@ public class PlayStationNetworkClient {
 			final HandlerHtmlUKGame gameHandler = new HandlerHtmlUKGame(
 					PsnUtils.getPsnIdFromJid(clientJid));
 			parser.parse(response.getStream(), gameHandler,
-					response.getCharset());
+					response.getCharset(), response);
 			return gameHandler.getGameList();
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final ParseException e) {
 			throw new PlayStationNetworkException(
 					"Unexpected error occurred while parsing", e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("getClientGameList - Exiting");
 		}
 	}
@@ -626,6 +730,8 @@ public class PlayStationNetworkClient {
 		if (PsnUtils.isValidGameId(titleLinkId)) throw new IllegalArgumentException(
 				"invalid UK title link: " + titleLinkId);
 
+		// page depends on the session, so cached lists are kept per user
+		final String jid = clientJid;
 		try {
 			response = new RequestBuilder(
 					GET,
@@ -633,21 +739,30 @@ public class PlayStationNetworkClient {
 							String.format(
 									"http://uk.playstation.com/psn/mypsn/trophies/detail/?title=%s",
 									titleLinkId))).setHeader("Referer",
-					"http://uk.playstation.com/psn/mypsn/trophies/").execute(
-					networkHelper);
+					"http://uk.playstation.com/psn/mypsn/trophies/")
+					.setEndpoint(ENDPOINT_UK_TROPHIES)
+					.useValidatorCache(jid != null).setCacheScope(jid)
+					.execute(networkHelper);
 			if (response instanceof ResponseRedirect) throw new PlayStationNetworkLoginException(
 					"login cookies invalid, expired, or not found");
+			if (response instanceof ResponseNotModified) return getCachedList(
+					(ResponseNotModified) response);
 
 			final HandlerHtmlUKTrophy trophyHandler = new HandlerHtmlUKTrophy(
-					PsnUtils.getPsnIdFromJid(clientJid));
+					PsnUtils.getPsnIdFromJid(jid));
 			parser.parse(response.getStream(), trophyHandler,
-					response.getCharset());
-			return trophyHandler.getTrophyList();
+					response.getCharset(), response);
+			final List<PsnTrophyData> trophies = trophyHandler.getTrophyList();
+			networkHelper.getValidatorCache().put(response,
+					new ArrayList<PsnTrophyData>(trophies));
+			return trophies;
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final ParseException e) {
 			throw new PlayStationNetworkException(
 					"Unexpected error occurred while parsing", e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("getClientTrophyList - Exiting");
 		}
 	}
@@ -702,20 +817,24 @@ public class PlayStationNetworkClient {
 							String.format(
 									"http://uk.playstation.com/psn/mypsn/trophies-compare/?friend=%s&mode=FRIENDS",
 									friendPsnId))).setHeader("Referer",
-					"http://uk.playstation.com/psn/mypsn/friends/").execute(
-					networkHelper);
+					"http://uk.playstation.com/psn/mypsn/friends/")
+					.setEndpoint(ENDPOINT_UK_FRIEND_GAMES)
+					.execute(networkHelper);
 			if (response instanceof ResponseRedirect) throw new PlayStationNetworkLoginException(
 					"login cookies invalid, expired, or not found");
 
 			final HandlerHtmlFriendGame handler = new HandlerHtmlFriendGame(
 					friendPsnId);
-			parser.parse(response.getStream(), handler, response.getCharset());
+			parser.parse(response.getStream(), handler,
+					response.getCharset(), response);
 			return handler.getGameList();
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final ParseException e) {
 			throw new PlayStationNetworkLoginException(
 					"Unexpected error occurred while parsing", e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("getClientFriendGameList - Exiting");
 		}
 	}
@@ -774,20 +893,24 @@ public class PlayStationNetworkClient {
 									titleLinkId, friendPsnId))).setHeader(
 					"Referer",
 					"http://uk.playstation.com/psn/mypsn/trophies-compare/?friend="
-							+ friendPsnId + "&mode=FRIENDS").execute(
-					networkHelper);
+							+ friendPsnId + "&mode=FRIENDS")
+					.setEndpoint(ENDPOINT_UK_FRIEND_TROPHIES)
+					.execute(networkHelper);
 			if (response instanceof ResponseRedirect) throw new PlayStationNetworkLoginException(
 					"login cookies invalid, expired, or not found");
 
 			final HandlerHtmlFriendTrophy handler = new HandlerHtmlFriendTrophy(
 					friendPsnId);
-			parser.parse(response.getStream(), handler, response.getCharset());
+			parser.parse(response.getStream(), handler,
+					response.getCharset(), response);
 			return handler.getTrophyList();
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final ParseException e) {
 			throw new PlayStationNetworkLoginException(
 					"Unexpected error occurred while parsing", e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("getClientFriendTrophyList - Exiting");
 		}
 
@@ -843,17 +966,25 @@ public class PlayStationNetworkClient {
 					.setHeader("Referer", "http://us.playstation.com")
 					.setHeader("X-Requested-With", "XMLHttpRequest")
 					.setHeader("Accept", "text/html").useCookies(false)
-					.execute(networkHelper);
+					.setEndpoint(ENDPOINT_US_GAMES)
+					.useValidatorCache(true).execute(networkHelper);
+			if (response instanceof ResponseNotModified) return getCachedList(
+					(ResponseNotModified) response);
 
 			final HandlerHtmlUSGame gameHandler = new HandlerHtmlUSGame(psnId);
 			parser.parse(response.getStream(), gameHandler,
-					response.getCharset());
-			return gameHandler.getGames();
+					response.getCharset(), response);
+			final List<PsnGameData> games = gameHandler.getGames();
+			networkHelper.getValidatorCache().put(response,
+					new ArrayList<PsnGameData>(games));
+			return games;
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final ParseException e) {
 			throw new PlayStationNetworkException(
 					"Unexpected error occurred while parsing", e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("getPublicGameList - Exiting");
 		}
 	}
@@ -923,11 +1054,13 @@ public class PlayStationNetworkClient {
 					.setHeader("Referer", "http://us.playstation.com")
 					.setHeader("X-Requested-With", "XMLHttpRequest")
 					.setHeader("Accept", "text/html")
+					.setEndpoint(ENDPOINT_US_TROPHIES)
 					.setPayload(params, "UTF-8").execute(networkHelper);
 
 			HandlerHtmlUSTrophy handler = new HandlerHtmlUSTrophy(psnId, gameId);
-			parser.parse(response.getStream(), handler, response.getCharset());
-			response.disconnect();
+			parser.parse(response.getStream(), handler,
+					response.getCharset(), response);
+			response.release();
 			switch (handler.getResponseId()) {
 			case -1:
 				throw new PlayStationNetworkException(
@@ -938,11 +1071,13 @@ public class PlayStationNetworkClient {
 
 			}
 			return handler.getTrophies();
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final ParseException e) {
 			throw new PlayStationNetworkException(
 					"Unexpected error occurred while parsing", e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("getPublicTrophyList - Exiting");
 		}
 
@@ -981,8 +1116,20 @@ public class PlayStationNetworkClient {
 	 */
 	public PsnProfileData getOfficialProfile(final String jid)
 			throws PlayStationNetworkException, IOException {
+		return coalesce("get_profile:" + jid, new Callable<PsnProfileData>() {
+
+			@Override
+			public PsnProfileData call() throws Exception {
+				return requestOfficialProfile(jid);
+			}
+
+		});
+	}
+
+	private PsnProfileData requestOfficialProfile(final String jid)
+			throws PlayStationNetworkException, IOException {
 		Response response = null;
-		final HandlerXmlProfile handlerXmlProfile = new HandlerXmlProfile();
+		final HandlerPullProfile profileHandler = new HandlerPullProfile();
 		log.debug("getProfile [{}] - Entering", jid);
 		try {
 
@@ -998,6 +1145,8 @@ public class PlayStationNetworkClient {
 					.setHeader("Accept-Encoding", "identity")
 					.setHeader("User-Agent", AGENT_PS3_COMMUNITY)
 					.setPayload(xmlPost.getBytes("UTF-8"))
+					.setIdempotent(true)
+					.setEndpoint(ENDPOINT_PROFILE)
 					.execute(networkHelper);
 
 			if (response instanceof ResponseAuthenticate) {
@@ -1006,10 +1155,10 @@ public class PlayStationNetworkClient {
 				throw new IOException("Authorization required");
 			}
 
-			parser.parse(response.getStream(), handlerXmlProfile,
-					response.getCharset());
-			response.disconnect();
-			if (handlerXmlProfile.getProfile() == null) return null;
+			parser.parse(response.getStream(), profileHandler,
+					response.getCharset(), response);
+			response.release();
+			if (profileHandler.getProfile() == null) return null;
 
 			xmlPost = String
 					.format("<nptrophy platform='ps3' sv='%s'><jid>%s</jid></nptrophy>",
@@ -1023,6 +1172,8 @@ public class PlayStationNetworkClient {
 					.setHeader("Accept-Encoding", "identity")
 					.setHeader("User-Agent", AGENT_PS3_COMMUNITY)
 					.setPayload(xmlPost.getBytes("UTF-8"))
+					.setIdempotent(true)
+					.setEndpoint(ENDPOINT_PROFILE)
 					.execute(networkHelper);
 
 			if (response instanceof ResponseAuthenticate) {
@@ -1031,14 +1182,16 @@ public class PlayStationNetworkClient {
 				throw new IOException("Authorization required");
 			}
 
-			parser.parse(response.getStream(), handlerXmlProfile,
-					response.getCharset());
-			return handlerXmlProfile.getProfile();
+			parser.parse(response.getStream(), profileHandler,
+					response.getCharset(), response);
+			return profileHandler.getProfile();
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final ParseException e) {
 			throw new PlayStationNetworkException(
 					"Unexpected error occurred while parsing", e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("getProfile - Exiting");
 		}
 	}
@@ -1095,6 +1248,7 @@ public class PlayStationNetworkClient {
 											: "txt")))
 					.setHeader("User-Agent", userAgent)
 					.setHeader("Accept-Encoding", "identity")
+					.setEndpoint(ENDPOINT_FIRMWARE)
 					.execute(networkHelper);
 
 			final String data = CommonUtils.getContentFromInputStream(
@@ -1130,7 +1284,7 @@ public class PlayStationNetworkClient {
 
 			return version;
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 		}
 	}
 
@@ -1159,11 +1313,29 @@ public class PlayStationNetworkClient {
 	 * 
 	 * @param psnId
 	 *            psn id
-	 * @return jid
+	 * @return jid, or null if psn id is unknown
 	 * @throws IOException
-	 *             Signals that an I/O exception has occurred.
+	 *             Signals that an I/O exception has occurred, or server
+	 *             didn't reply with 200 (OK).
+	 * @see JidIndex
 	 */
 	public String getOfficialJid(final String psnId) throws IOException {
+		try {
+			return coalesce("search_jid:" + psnId, new Callable<String>() {
+
+				@Override
+				public String call() throws Exception {
+					return requestOfficialJid(psnId);
+				}
+
+			});
+		} catch (final PlayStationNetworkException e) {
+			// request only throws IOException, interrupts are one as well
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	private String requestOfficialJid(final String psnId) throws IOException {
 		log.debug("getJid [{}] - Entering", psnId);
 		Response response = null;
 
@@ -1179,8 +1351,10 @@ public class PlayStationNetworkClient {
 					new URL(
 							"http://searchjid.usa.np.community.playstation.net/basic_view/func/search_jid"))
 					.setPayload(xmlPost.getBytes("UTF-8"))
+					.setIdempotent(true)
 					.setHeader("User-Agent", AGENT_PS3_COMMUNITY)
 					.setHeader("Content-Type", "text/xml; charset=UTF-8")
+					.setEndpoint(ENDPOINT_SEARCH_JID)
 					.execute(networkHelper);
 
 			if (response instanceof ResponseAuthenticate) {
@@ -1188,20 +1362,26 @@ public class PlayStationNetworkClient {
 						((ResponseAuthenticate) response).getAuthentication());
 				throw new IOException("Authorization required");
 			}
+			// error bodies have no jid either, don't report them as unknown
+			if (response.getStatusCode() != HttpURLConnection.HTTP_OK)
+				throw new IOException("Search jid failed with status "
+						+ response.getStatusCode());
 			final String data = CommonUtils.getContentFromInputStream(
 					response.getStream(), response.getCharset());
 
+			// unknown psn ids have no jid
 			String jid = null;
-			final int start = data.indexOf("<jid>") + 5;
-			if (start != -1) jid = data
-					.substring(start, data.indexOf("</jid>"));
+			final int start = data.indexOf("<jid>");
+			final int end = data.indexOf("</jid>");
+			if (start != -1 && end > start + 5) jid = data.substring(
+					start + 5, end);
 
 			log.debug("getJid - Exiting");
 			return jid;
 		} catch (final UnsupportedEncodingException e) {
 			throw e;
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 		}
 	}
 
@@ -1248,53 +1428,87 @@ public class PlayStationNetworkClient {
 	public List<PsnGameDataOfficial> getOfficialGameList(final String jid,
 			final int start, final int max, final PlatformType... platforms)
 			throws IOException, PlayStationNetworkException {
-		Response response = null;
 		log.debug("getOfficialGameList [{}, {}, {}, {}] - Entering", jid,
 				start, max, platforms);
 
 		try {
-			if (start <= 0) throw new IllegalArgumentException(
-					"start index must be greater than 0");
-
-			if (max > 64) log.warn("max index is greater than 64");
-
-			final String xmlPost = String
-					.format("<nptrophy platform='ps3' sv='%s'><jid>%s</jid><start>%d</start><max>%d</max>%s</nptrophy>",
-							PS3_FIRMWARE_VERSION, jid, start, max,
-							getPlatformString(platforms));
-
-			response = new RequestBuilderAuthorization(
-					POST,
-					new URL(
-							"http://trophy.ww.np.community.playstation.net/trophy/func/get_title_list"))
-					.setHeader("User-Agent", AGENT_PS3_APPLICATION)
-					.setHeader("Content-Type", "text/xml; charset=UTF-8")
-					.setHeader("Accept-Encoding", "identity")
-					.setPayload(xmlPost.getBytes("UTF-8"))
-					.execute(networkHelper);
-
-			if (response instanceof ResponseAuthenticate) {
-				log.error("Unauthorized [{}]",
-						((ResponseAuthenticate) response).getAuthentication());
-				throw new IOException("Authorization required");
-			}
-
-			final HandlerXmlGame gameHandler = new HandlerXmlGame(jid);
-			parser.parse(response.getStream(), gameHandler,
-					response.getCharset());
-			if (gameHandler.getResult().equals("05")) throw new PlayStationNetworkException(
-					"jid invalid");
-			return gameHandler.getGames();
-		} catch (final ParseException e) {
-			throw new PlayStationNetworkException(
-					"Unexpected error occurred while parsing", e);
+			// page may be shared with coalesced callers
+			return new ArrayList<PsnGameDataOfficial>(getOfficialGamePage(
+					jid, start, max, platforms).getGames());
 		} finally {
-			if (response != null) response.disconnect();
 			log.debug("getOfficialGameList - Exiting");
 		}
 
 	}
 
+	/**
+	 * Iterates through the whole official game list of jid. Pages of
+	 * <code>pageSize</code> games are fetched in the background while the
+	 * current page is being read, keeping at most <code>prefetch</code> pages
+	 * ahead. Fetching stops at the end of the list, or when
+	 * {@link OfficialGameListIterator#close()} is called.
+	 * 
+	 * <p>
+	 * Requirements
+	 * </p>
+	 * 
+	 * <pre>
+	 *  <li>Authorization
+	 *     - c7y-trophy01 : jhlWmT0|:0!nC:b:#x/uihx'Y74b5Ycx
+	 * </li>
+	 * Should already be set by calling {@link #init()}
+	 * </pre>
+	 * 
+	 * @see #getOfficialGameList(String, int, int, PlatformType...)
+	 * 
+	 * @param jid
+	 *            jid
+	 * @param pageSize
+	 *            games per request, 64 max
+	 * @param prefetch
+	 *            pages fetched ahead, at least 1
+	 * @param platforms
+	 *            platforms for games
+	 * @return lazy game iterator
+	 * @throws IllegalArgumentException
+	 *             thrown if page size isn't between 1 and 64, or prefetch
+	 *             is zero or less
+	 */
+	public OfficialGameListIterator iterateOfficialGameList(final String jid,
+			final int pageSize, final int prefetch,
+			final PlatformType... platforms) {
+		return new OfficialGameListIterator(this, jid, pageSize, prefetch,
+				null, platforms);
+	}
+
+	/**
+	 * Iterates through the whole official game list of jid, fetching pages on
+	 * <code>executor</code>.
+	 * 
+	 * @see #iterateOfficialGameList(String, int, int, PlatformType...)
+	 * 
+	 * @param jid
+	 *            jid
+	 * @param pageSize
+	 *            games per request, 64 max
+	 * @param prefetch
+	 *            pages fetched ahead, at least 1
+	 * @param executor
+	 *            executor for fetching pages, isn't shut down by iterator
+	 * @param platforms
+	 *            platforms for games
+	 * @return lazy game iterator
+	 * @throws IllegalArgumentException
+	 *             thrown if page size isn't between 1 and 64, or prefetch
+	 *             is zero or less
+	 */
+	public OfficialGameListIterator iterateOfficialGameList(final String jid,
+			final int pageSize, final int prefetch, final Executor executor,
+			final PlatformType... platforms) {
+		return new OfficialGameListIterator(this, jid, pageSize, prefetch,
+				executor, platforms);
+	}
+
 	/**
 	 * Retrieves official trophy list from jid and <i>Official</i> game Id. If
 	 * game Id is invalid a blank game list will be returned.
@@ -1333,47 +1547,117 @@ public class PlayStationNetworkClient {
 	public List<PsnTrophyDataOfficial> getOfficialTrophyList(final String jid,
 			final String gameId) throws IOException,
 			PlayStationNetworkException {
-		Response response = null;
 		log.debug("getOfficialTrophyList [{}, {}] - Entering", jid, gameId);
 
 		if (!PsnUtils.isValidGameId(gameId)) throw new IllegalArgumentException(
 				"Must be a valid PsnGame Id");
 
 		try {
-			final String xmlPost = String
-					.format("<nptrophy platform='ps3' sv='%s'><jid>%s</jid><list><info npcommid='%s'><target>FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF</target></info></list></nptrophy>",
-							PS3_FIRMWARE_VERSION, jid, gameId);
+			// list may be shared with coalesced callers
+			return new ArrayList<PsnTrophyDataOfficial>(getOfficialTrophyBatch(
+					jid, Collections.singletonList(gameId)));
+		} finally {
+			log.debug("getOfficialTrophyList - Exiting");
+		}
 
-			response = new RequestBuilderAuthorization(
-					POST,
-					new URL(
-							"http://trophy.ww.np.community.playstation.net/trophy/func/get_trophies"))
-					.setHeader("User-Agent", AGENT_PS3_APPLICATION)
-					.setHeader("Content-Type", "text/xml; charset=UTF-8")
-					.setHeader("Accept-Encoding", "identity")
-					.setPayload(xmlPost.getBytes("UTF-8"))
-					.execute(networkHelper);
+	}
 
-			if (response instanceof ResponseAuthenticate) {
-				log.error("Unauthorized [{}]",
-						((ResponseAuthenticate) response).getAuthentication());
-				throw new IOException("Authorization required");
+	/**
+	 * Retrieves official trophy lists for many games using
+	 * {@link #TROPHY_BATCH_SIZE} games per request.
+	 * 
+	 * @see #getOfficialTrophyLists(String, Collection, int)
+	 * 
+	 * @param jid
+	 *            jid
+	 * @param gameIds
+	 *            <i>Official</i> game ids
+	 * @return official trophy lists mapped by game id
+	 * @throws IllegalArgumentException
+	 *             thrown if a game id isn't in <i>Official</i> format
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 * @throws PlayStationNetworkException
+	 *             thrown if parse error is encountered or invalid id
+	 */
+	public Map<String, List<PsnTrophyDataOfficial>> getOfficialTrophyLists(
+			final String jid, final Collection<String> gameIds)
+			throws IOException, PlayStationNetworkException {
+		return getOfficialTrophyLists(jid, gameIds, TROPHY_BATCH_SIZE);
+	}
+
+	/**
+	 * Retrieves official trophy lists for many games. Game ids are packed into
+	 * one request per <code>batchSize</code> games instead of one request per
+	 * game. The map contains every game id in iteration order; invalid game ids
+	 * get a blank trophy list.
+	 * 
+	 * <p>
+	 * Requirements
+	 * </p>
+	 * 
+	 * <pre>
+	 *  <li>Authorization
+	 *     - c7y-trophy01 : jhlWmT0|:0!nC:b:#x/uihx'Y74b5Ycx
+	 * </li>
+	 * Should already be set by calling {@link #init()}
+	 * </pre>
+	 * 
+	 * <p>
+	 * Connections Made
+	 * </p>
+	 * 
+	 * <pre>
+	 * http://trophy.ww.np.community.playstation.net/trophy/func/get_trophies
+	 * </pre>
+	 * 
+	 * @param jid
+	 *            jid
+	 * @param gameIds
+	 *            <i>Official</i> game ids
+	 * @param batchSize
+	 *            max games per request
+	 * @return official trophy lists mapped by game id
+	 * @throws IllegalArgumentException
+	 *             thrown if a game id isn't in <i>Official</i> format or batch
+	 *             size is zero or less
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 * @throws PlayStationNetworkException
+	 *             thrown if parse error is encountered or invalid id
+	 */
+	public Map<String, List<PsnTrophyDataOfficial>> getOfficialTrophyLists(
+			final String jid, final Collection<String> gameIds,
+			final int batchSize) throws IOException,
+			PlayStationNetworkException {
+		log.debug("getOfficialTrophyLists [{}, {}, {}] - Entering", jid,
+				gameIds.size(), batchSize);
+
+		if (batchSize <= 0) throw new IllegalArgumentException(
+				"batch size must be greater than 0");
+
+		final Map<String, List<PsnTrophyDataOfficial>> trophyMap = new LinkedHashMap<String, List<PsnTrophyDataOfficial>>();
+		for (final String gameId : gameIds) {
+			if (!PsnUtils.isValidGameId(gameId)) throw new IllegalArgumentException(
+					"Must be a valid PsnGame Id: " + gameId);
+			trophyMap.put(gameId, new ArrayList<PsnTrophyDataOfficial>());
+		}
+
+		try {
+			final List<String> ids = new ArrayList<String>(trophyMap.keySet());
+			for (int i = 0; i < ids.size(); i += batchSize) {
+				for (final PsnTrophyDataOfficial trophy : getOfficialTrophyBatch(
+						jid, ids.subList(i, Math.min(i + batchSize, ids.size())))) {
+					final List<PsnTrophyDataOfficial> list = trophyMap
+							.get(trophy.getGameId());
+					if (list != null) list.add(trophy);
+				}
 			}
 
-			final HandlerXmlTrophy trophyHandler = new HandlerXmlTrophy(jid);
-			parser.parse(response.getStream(), trophyHandler,
-					response.getCharset());
-			if (trophyHandler.getResult().equals("05")) throw new PlayStationNetworkException(
-					"jid invalid");
-			return trophyHandler.getTrophyList();
-		} catch (final ParseException e) {
-			throw new PlayStationNetworkException(
-					"Unexpected error occurred while parsing", e);
+			return trophyMap;
 		} finally {
-			if (response != null) response.disconnect();
-			log.debug("getOfficialTrophyList - Exiting");
+			log.debug("getOfficialTrophyLists - Exiting");
 		}
-
 	}
 
 	/**
@@ -1436,6 +1720,8 @@ public class PlayStationNetworkClient {
 					.setHeader("Content-Type", "text/xml; charset=UTF-8")
 					.setHeader("Accept-Encoding", "identity")
 					.setPayload(xmlPost.getBytes("UTF-8"))
+					.setIdempotent(true)
+					.setEndpoint(ENDPOINT_TROPHIES)
 					.execute(networkHelper);
 
 			if (response instanceof ResponseAuthenticate) {
@@ -1444,17 +1730,19 @@ public class PlayStationNetworkClient {
 				throw new IOException("Authorization required");
 			}
 
-			final HandlerXmlTrophy trophyHandler = new HandlerXmlTrophy(jid);
+			final HandlerPullTrophy trophyHandler = new HandlerPullTrophy(jid);
 			parser.parse(response.getStream(), trophyHandler,
-					response.getCharset());
+					response.getCharset(), response);
 			if (trophyHandler.getResult().equals("05")) throw new PlayStationNetworkException(
 					"Id invalid");
 			return trophyHandler.getTrophyList();
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final ParseException e) {
 			throw new PlayStationNetworkException(
 					"Unexpected error occurred while parsing", e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("getOfficialLatestTrophyList - Exiting");
 		}
 
@@ -1523,6 +1811,8 @@ public class PlayStationNetworkClient {
 					.setHeader("Content-Type", "text/xml; charset=UTF-8")
 					.setHeader("Accept-Encoding", "identity")
 					.setPayload(xmlPost.getBytes("UTF-8"))
+					.setIdempotent(true)
+					.setEndpoint(ENDPOINT_TROPHIES)
 					.execute(networkHelper);
 
 			if (response instanceof ResponseAuthenticate) {
@@ -1531,18 +1821,20 @@ public class PlayStationNetworkClient {
 				throw new IOException("Authorization required");
 			}
 
-			final HandlerXmlTrophy trophyHandler = new HandlerXmlTrophy(jid);
+			final HandlerPullTrophy trophyHandler = new HandlerPullTrophy(jid);
 			parser.parse(response.getStream(), trophyHandler,
-					response.getCharset());
+					response.getCharset(), response);
 			if (trophyHandler.getResult().equals("05")) throw new PlayStationNetworkException(
 					"jid invalid");
 			return trophyHandler.getTrophyList();
 
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final ParseException e) {
 			throw new PlayStationNetworkException(
 					"Unexpected error occurred while parsing", e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("getOfficialTrophyListSince - Exiting");
 		}
 	}
@@ -1594,9 +1886,10 @@ public class PlayStationNetworkClient {
 	 * @throws PlayStationNetworkLoginException
 	 *             thrown if username or password is not valid
 	 */
-	public void loginUK(final String username, final String password,
-			final ProgressListener progressListener) throws IOException,
-			PlayStationNetworkException, PlayStationNetworkLoginException {
+	public synchronized void loginUK(final String username,
+			final String password, final ProgressListener progressListener)
+			throws IOException, PlayStationNetworkException,
+			PlayStationNetworkLoginException {
 		Response response = null;
 		log.debug("loginUK - Entering");
 
@@ -1622,7 +1915,7 @@ public class PlayStationNetworkClient {
 						new URL(
 								"https://store.playstation.com/j_acegi_external_security_check?target=/external/loginDefault.action"))
 						.setPayload(params, "UTF-8").execute(networkHelper);
-				response.disconnect();
+				response.release();
 			} catch (final IOException e) {
 				throw e;
 			}
@@ -1635,7 +1928,7 @@ public class PlayStationNetworkClient {
 				progressHelper.update("Authenticating");
 				isLoginValid(response = new RequestBuilder(GET, new URL(
 						urlLocation)).execute(networkHelper));
-				response.disconnect();
+				response.release();
 
 				// get session id and location
 				urlLocation = ((ResponseRedirect) response).getRedirectUrl();
@@ -1646,7 +1939,7 @@ public class PlayStationNetworkClient {
 				progressHelper.update("Authenticating");
 				response = new RequestBuilder(GET, new URL(urlLocation))
 						.execute(networkHelper);
-				response.disconnect();
+				response.release();
 				progressHelper.finish("Successfully logged in");
 				break;
 			case HttpURLConnection.HTTP_UNAVAILABLE:
@@ -1657,6 +1950,8 @@ public class PlayStationNetworkClient {
 						"Error when logging in: " + response.getStatusCode());
 			}
 
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final MalformedURLException e) {
 			throw new PlayStationNetworkLoginException("Sign-In unsuccessful",
 					e);
@@ -1665,7 +1960,7 @@ public class PlayStationNetworkClient {
 			throw new PlayStationNetworkLoginException("Sign-In unsuccessful",
 					e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("loginUK - Exiting");
 		}
 
@@ -1724,9 +2019,10 @@ public class PlayStationNetworkClient {
 	 * @throws PlayStationNetworkLoginException
 	 *             thrown if username or password is not valid
 	 */
-	public void loginUS(final String username, final String password,
-			final ProgressListener progressListener) throws IOException,
-			PlayStationNetworkException, PlayStationNetworkLoginException {
+	public synchronized void loginUS(final String username,
+			final String password, final ProgressListener progressListener)
+			throws IOException, PlayStationNetworkException,
+			PlayStationNetworkLoginException {
 		Response response = null;
 		log.debug("loginUS - Entering");
 
@@ -1754,7 +2050,7 @@ public class PlayStationNetworkClient {
 							"Referer",
 							"https://account.sonyentertainmentnetwork.com/external/auth/login.action?request_locale=en_US&service-entity=psn&returnURL=https://us.playstation.com/uwps/PSNTicketRetrievalGenericServlet")
 					.setPayload(params, "UTF-8").execute(networkHelper);
-			response.disconnect();
+			response.release();
 			switch (response.getStatusCode()) {
 			case HttpURLConnection.HTTP_MOVED_TEMP:
 				final String urlLocation = ((ResponseRedirect) response)
@@ -1765,7 +2061,7 @@ public class PlayStationNetworkClient {
 								"Referer",
 								"https://account.sonyentertainmentnetwork.com/external/auth/login.action?request_locale=en_US&service-entity=psn&returnURL=https://us.playstation.com/uwps/PSNTicketRetrievalGenericServlet")
 						.execute(networkHelper);
-				response.disconnect();
+				response.release();
 
 				// get session id and location
 				clientSessionId = urlLocation.substring(urlLocation
@@ -1779,7 +2075,7 @@ public class PlayStationNetworkClient {
 										"http://us.playstation.com/uwps/HandleIFrameRequests?sessionId=%s",
 										clientSessionId)))
 						.execute(networkHelper);
-				response.disconnect();
+				response.release();
 				progressHelper.finish("Successfully logged in");
 				break;
 			case HttpURLConnection.HTTP_UNAVAILABLE:
@@ -1790,11 +2086,13 @@ public class PlayStationNetworkClient {
 						"Error when logging in: " + response.getStatusCode());
 			}
 
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
 		} catch (final MalformedURLException e) {
 			throw new PlayStationNetworkLoginException("Sign-In unsuccessful",
 					e);
 		} finally {
-			if (response != null) response.disconnect();
+			if (response != null) response.release();
 			log.debug("loginUS - Exiting");
 		}
 	}
@@ -1812,6 +2110,183 @@ public class PlayStationNetworkClient {
 		throw new PlayStationNetworkLoginException("Login Failed");
 	}
 
+	HandlerPullGame getOfficialGamePage(final String jid, final int start,
+			final int max, final PlatformType... platforms) throws IOException,
+			PlayStationNetworkException {
+		return coalesce(
+				String.format("get_title_list:%s:%d:%d:%s", jid, start, max,
+						getPlatformString(platforms)),
+				new Callable<HandlerPullGame>() {
+
+					@Override
+					public HandlerPullGame call() throws Exception {
+						return requestOfficialGamePage(jid, start, max,
+								platforms);
+					}
+
+				});
+	}
+
+	private HandlerPullGame requestOfficialGamePage(final String jid,
+			final int start, final int max, final PlatformType... platforms)
+			throws IOException, PlayStationNetworkException {
+		Response response = null;
+
+		try {
+			if (start <= 0) throw new IllegalArgumentException(
+					"start index must be greater than 0");
+
+			if (max > 64) log.warn("max index is greater than 64");
+
+			final String xmlPost = String
+					.format("<nptrophy platform='ps3' sv='%s'><jid>%s</jid><start>%d</start><max>%d</max>%s</nptrophy>",
+							PS3_FIRMWARE_VERSION, jid, start, max,
+							getPlatformString(platforms));
+
+			response = new RequestBuilderAuthorization(
+					POST,
+					new URL(
+							"http://trophy.ww.np.community.playstation.net/trophy/func/get_title_list"))
+					.setHeader("User-Agent", AGENT_PS3_APPLICATION)
+					.setHeader("Content-Type", "text/xml; charset=UTF-8")
+					.setHeader("Accept-Encoding", "identity")
+					.setPayload(xmlPost.getBytes("UTF-8"))
+					.setIdempotent(true)
+					.setEndpoint(ENDPOINT_TITLE_LIST)
+					.execute(networkHelper);
+
+			if (response instanceof ResponseAuthenticate) {
+				log.error("Unauthorized [{}]",
+						((ResponseAuthenticate) response).getAuthentication());
+				throw new IOException("Authorization required");
+			}
+
+			final HandlerPullGame gameHandler = new HandlerPullGame(jid);
+			parser.parse(response.getStream(), gameHandler,
+					response.getCharset(), response);
+			if (gameHandler.getResult().equals("05")) throw new PlayStationNetworkException(
+					"jid invalid");
+			return gameHandler;
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
+		} catch (final ParseException e) {
+			throw new PlayStationNetworkException(
+					"Unexpected error occurred while parsing", e);
+		} finally {
+			if (response != null) response.release();
+		}
+	}
+
+	private List<PsnTrophyDataOfficial> getOfficialTrophyBatch(
+			final String jid, final List<String> gameIds) throws IOException,
+			PlayStationNetworkException {
+		return coalesce("get_trophies:" + jid + ":" + gameIds,
+				new Callable<List<PsnTrophyDataOfficial>>() {
+
+					@Override
+					public List<PsnTrophyDataOfficial> call() throws Exception {
+						return requestOfficialTrophyBatch(jid, gameIds);
+					}
+
+				});
+	}
+
+	private List<PsnTrophyDataOfficial> requestOfficialTrophyBatch(
+			final String jid, final List<String> gameIds) throws IOException,
+			PlayStationNetworkException {
+		Response response = null;
+
+		try {
+			final StringBuilder xmlPost = new StringBuilder(
+					128 + gameIds.size() * 80);
+			xmlPost.append(String.format(
+					"<nptrophy platform='ps3' sv='%s'><jid>%s</jid><list>",
+					PS3_FIRMWARE_VERSION, jid));
+			for (final String gameId : gameIds) {
+				xmlPost.append("<info npcommid='").append(gameId)
+						.append("'><target>FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF</target></info>");
+			}
+			xmlPost.append("</list></nptrophy>");
+
+			response = new RequestBuilderAuthorization(
+					POST,
+					new URL(
+							"http://trophy.ww.np.community.playstation.net/trophy/func/get_trophies"))
+					.setHeader("User-Agent", AGENT_PS3_APPLICATION)
+					.setHeader("Content-Type", "text/xml; charset=UTF-8")
+					.setHeader("Accept-Encoding", "identity")
+					.setPayload(xmlPost.toString().getBytes("UTF-8"))
+					.setIdempotent(true)
+					.setEndpoint(ENDPOINT_TROPHIES)
+					.execute(networkHelper);
+
+			if (response instanceof ResponseAuthenticate) {
+				log.error("Unauthorized [{}]",
+						((ResponseAuthenticate) response).getAuthentication());
+				throw new IOException("Authorization required");
+			}
+
+			final HandlerPullTrophy trophyHandler = new HandlerPullTrophy(jid);
+			parser.parse(response.getStream(), trophyHandler,
+					response.getCharset(), response);
+			if (trophyHandler.getResult().equals("05")) throw new PlayStationNetworkException(
+					"jid invalid");
+			return trophyHandler.getTrophyList();
+		} catch (final CircuitBreakerOpenException e) {
+			throw hostUnavailable(e);
+		} catch (final ParseException e) {
+			throw new PlayStationNetworkException(
+					"Unexpected error occurred while parsing", e);
+		} finally {
+			if (response != null) response.release();
+		}
+	}
+
+	/**
+	 * Runs request through {@link RequestCoalescer}, so identical requests in
+	 * flight share one connection and parse. Interrupted wait on another
+	 * caller's request is thrown as {@link InterruptedIOException}.
+	 */
+	private <T> T coalesce(final String key, final Callable<T> request)
+			throws IOException, PlayStationNetworkException {
+		try {
+			return networkHelper.getRequestCoalescer().execute(key, request);
+		} catch (final IOException e) {
+			throw e;
+		} catch (final PlayStationNetworkException e) {
+			throw e;
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final InterruptedException e) {
+			// waiting on another caller's request was interrupted
+			Thread.currentThread().interrupt();
+			final InterruptedIOException interrupted = new InterruptedIOException(
+					"Interrupted waiting for " + key);
+			interrupted.initCause(e);
+			throw interrupted;
+		} catch (final Exception e) {
+			throw new PlayStationNetworkException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Copies list cached by validator cache, so callers can't change it.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> List<T> getCachedList(final ResponseNotModified response) {
+		log.debug("Not modified, using cached result");
+		return new ArrayList<T>((List<T>) response.getCachedResult());
+	}
+
+	/**
+	 * Maps open circuit of host to the exception thrown by all calls.
+	 */
+	private static PlayStationNetworkException hostUnavailable(
+			final CircuitBreakerOpenException e) {
+		return new PlayStationNetworkException(
+				"PlayStation Network host is unavailable", e);
+	}
+
 	private String getPlatformString(final PlatformType[] platforms) {
 		if (platforms == null) return "";
 		String platformString = "";
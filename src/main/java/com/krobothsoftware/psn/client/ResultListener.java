@@ -0,0 +1,54 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.client;
+
+/**
+ * The listener interface for receiving results of
+ * {@link AsyncPlayStationNetworkClient} calls. Methods are invoked on the
+ * thread that ran the call when it finishes or fails. When cancelled, they're
+ * invoked on the thread calling {@link AsyncResult#cancel(boolean)}, and when
+ * the deadline of {@link AsyncResult#cancelAfter(long, java.util.concurrent.TimeUnit)}
+ * passes, on the shared "psn-async-deadline" thread. Implementations should
+ * be quick so they don't hold up other deadlines.
+ * 
+ * @see AsyncResult
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public interface ResultListener<T> {
+
+	/**
+	 * Called when the call finished successfully.
+	 * 
+	 * @param result
+	 *            call result, may be null
+	 */
+	void onResult(T result);
+
+	/**
+	 * Called when the call failed, was cancelled, or passed its deadline.
+	 * 
+	 * @param error
+	 *            exception thrown by the call,
+	 *            {@link java.util.concurrent.CancellationException} if
+	 *            cancelled, or {@link java.util.concurrent.TimeoutException}
+	 *            if deadline passed
+	 */
+	void onError(Throwable error);
+
+}
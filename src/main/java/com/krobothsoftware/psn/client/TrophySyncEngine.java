@@ -0,0 +1,396 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.krobothsoftware.psn.PlatformType;
+import com.krobothsoftware.psn.PlayStationNetworkException;
+import com.krobothsoftware.psn.PsnUtils;
+import com.krobothsoftware.psn.model.PsnGameDataOfficial;
+import com.krobothsoftware.psn.model.PsnTrophyDataOfficial;
+
+/**
+ * Keeps local trophy snapshots of jids up to date with as few requests as
+ * possible. The first {@link #sync(String)} of a jid downloads every trophy
+ * list, after which only trophies earned since the jid's high-water mark are
+ * requested with
+ * {@link PlayStationNetworkClient#getOfficialTrophyListSince(String, int, String, PlatformType...)}
+ * and merged into the snapshot.
+ * 
+ * <p>
+ * A full resync is done when a delta may be incomplete, which is when it holds
+ * the max amount of trophies the request allows. Trophies of games missing
+ * from the snapshot are fetched whole, so unearned trophies are known as well.
+ * </p>
+ * 
+ * <p>
+ * The high-water mark is the time a sync started minus
+ * {@link #SINCE_OVERLAP_MILLIS}, covering clock differences with the server.
+ * Merging is keyed by game Id and trophy index so overlapping trophies are
+ * only counted once. State can be saved with {@link #getHighWaterMark(String)}
+ * and {@link #getSnapshot(String)} and put back with
+ * {@link #restore(String, String, Collection)}.
+ * </p>
+ * 
+ * <p>
+ * Engine is thread-safe. Syncs of the same jid are serialized; different jids
+ * sync concurrently.
+ * </p>
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public class TrophySyncEngine {
+
+	/**
+	 * Default max trophies of a delta request, which is also the server's
+	 * limit.
+	 */
+	public static final int DEFAULT_DELTA_MAX = 64;
+
+	/**
+	 * Time subtracted from a sync's start time for the next high-water mark.
+	 */
+	public static final long SINCE_OVERLAP_MILLIS = TimeUnit.MINUTES
+			.toMillis(10);
+
+	private static final int GAME_PAGE_SIZE = 64;
+
+	private final PlayStationNetworkClient client;
+	private final PlatformType[] platforms;
+	private final ConcurrentMap<String, SyncState> states;
+	private final AtomicLong deltaSyncs;
+	private final AtomicLong fullSyncs;
+	private final Logger log;
+	private volatile int deltaMax;
+
+	/**
+	 * Instantiates a new sync engine. If no platform is given, PS3 will be
+	 * used as default.
+	 * 
+	 * @param client
+	 *            client with <i>Official</i> authorization set
+	 * @param platforms
+	 *            platforms for games and trophies
+	 */
+	public TrophySyncEngine(final PlayStationNetworkClient client,
+			final PlatformType... platforms) {
+		this.client = client;
+		this.platforms = platforms;
+		states = new ConcurrentHashMap<String, SyncState>();
+		deltaSyncs = new AtomicLong();
+		fullSyncs = new AtomicLong();
+		log = LoggerFactory.getLogger(TrophySyncEngine.class);
+		deltaMax = DEFAULT_DELTA_MAX;
+	}
+
+	/**
+	 * Sets max trophies of a delta request. A delta reaching this size causes
+	 * a full resync.
+	 * 
+	 * @param deltaMax
+	 *            max trophies, 64 max
+	 * @throws IllegalArgumentException
+	 *             thrown if deltaMax is zero or less
+	 */
+	public void setDeltaMax(final int deltaMax) {
+		if (deltaMax <= 0) throw new IllegalArgumentException(
+				"delta max must be greater than 0");
+		if (deltaMax > 64) log.warn("delta max is greater than 64");
+		this.deltaMax = deltaMax;
+	}
+
+	/**
+	 * Brings snapshot of jid up to date. Does a full sync if jid hasn't been
+	 * synced or restored before, or a gap is detected.
+	 * 
+	 * @param jid
+	 *            jid
+	 * @return trophies that were added or changed in snapshot
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 * @throws PlayStationNetworkException
+	 *             thrown if parse error is encountered or invalid id
+	 */
+	public List<PsnTrophyDataOfficial> sync(final String jid)
+			throws IOException, PlayStationNetworkException {
+		final SyncState state = getState(jid);
+		synchronized (state) {
+			final long started = System.currentTimeMillis();
+			List<PsnTrophyDataOfficial> changed;
+			if (state.since == null) {
+				changed = fullSync(jid, state);
+			} else {
+				final List<PsnTrophyDataOfficial> delta = client
+						.getOfficialTrophyListSince(jid, deltaMax, state.since,
+								platforms);
+				if (delta.size() >= deltaMax) {
+					log.debug("Delta of [{}] reached max, resyncing", jid);
+					changed = fullSync(jid, state);
+				} else {
+					changed = mergeDelta(jid, state, delta);
+					deltaSyncs.incrementAndGet();
+				}
+			}
+
+			state.since = PsnUtils.getOfficialDateFormat(new Date(started
+					- SINCE_OVERLAP_MILLIS), Locale.US);
+			return changed;
+		}
+	}
+
+	/**
+	 * Downloads every trophy list of jid, replacing its snapshot.
+	 * 
+	 * @param jid
+	 *            jid
+	 * @return trophies that were added or changed in snapshot
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 * @throws PlayStationNetworkException
+	 *             thrown if parse error is encountered or invalid id
+	 */
+	public List<PsnTrophyDataOfficial> resync(final String jid)
+			throws IOException, PlayStationNetworkException {
+		final SyncState state = getState(jid);
+		synchronized (state) {
+			final long started = System.currentTimeMillis();
+			final List<PsnTrophyDataOfficial> changed = fullSync(jid, state);
+			state.since = PsnUtils.getOfficialDateFormat(new Date(started
+					- SINCE_OVERLAP_MILLIS), Locale.US);
+			return changed;
+		}
+	}
+
+	/**
+	 * Puts back a saved snapshot. Next sync only requests trophies since
+	 * <code>since</code>.
+	 * 
+	 * @param jid
+	 *            jid
+	 * @param since
+	 *            high-water mark in format
+	 *            <code>yyyy-MM-dd'T'HH:mm:ss.SSSZ</code>
+	 * @param trophies
+	 *            saved trophies
+	 */
+	public void restore(final String jid, final String since,
+			final Collection<PsnTrophyDataOfficial> trophies) {
+		final SyncState state = getState(jid);
+		synchronized (state) {
+			state.games.clear();
+			for (final PsnTrophyDataOfficial trophy : trophies)
+				state.put(trophy);
+			state.since = since;
+		}
+	}
+
+	/**
+	 * Gets high-water mark of jid.
+	 * 
+	 * @param jid
+	 *            jid
+	 * @return high-water mark, or null if jid hasn't been synced
+	 */
+	public String getHighWaterMark(final String jid) {
+		final SyncState state = states.get(jid);
+		if (state == null) return null;
+		synchronized (state) {
+			return state.since;
+		}
+	}
+
+	/**
+	 * Gets copy of snapshot of jid, trophies ordered by index.
+	 * 
+	 * @param jid
+	 *            jid
+	 * @return trophy lists keyed by game Id, empty if jid hasn't been synced
+	 */
+	public Map<String, List<PsnTrophyDataOfficial>> getSnapshot(
+			final String jid) {
+		final Map<String, List<PsnTrophyDataOfficial>> snapshot = new LinkedHashMap<String, List<PsnTrophyDataOfficial>>();
+		final SyncState state = states.get(jid);
+		if (state == null) return snapshot;
+		synchronized (state) {
+			for (final Map.Entry<String, TreeMap<Integer, PsnTrophyDataOfficial>> entry : state.games
+					.entrySet())
+				snapshot.put(entry.getKey(),
+						new ArrayList<PsnTrophyDataOfficial>(entry.getValue()
+								.values()));
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Removes snapshot and high-water mark of jid.
+	 * 
+	 * @param jid
+	 *            jid
+	 */
+	public void forget(final String jid) {
+		states.remove(jid);
+	}
+
+	/**
+	 * Gets amount of syncs answered by a delta request.
+	 * 
+	 * @return delta sync count
+	 */
+	public long getDeltaSyncCount() {
+		return deltaSyncs.get();
+	}
+
+	/**
+	 * Gets amount of full syncs, including resyncs after gaps.
+	 * 
+	 * @return full sync count
+	 */
+	public long getFullSyncCount() {
+		return fullSyncs.get();
+	}
+
+	private SyncState getState(final String jid) {
+		SyncState state = states.get(jid);
+		if (state == null) {
+			final SyncState created = new SyncState();
+			state = states.putIfAbsent(jid, created);
+			if (state == null) state = created;
+		}
+		return state;
+	}
+
+	private List<PsnTrophyDataOfficial> fullSync(final String jid,
+			final SyncState state) throws IOException,
+			PlayStationNetworkException {
+		log.debug("Full sync of [{}]", jid);
+		final Set<String> gameIds = new LinkedHashSet<String>();
+		for (int start = 1;; start += GAME_PAGE_SIZE) {
+			final List<PsnGameDataOfficial> page = client.getOfficialGameList(
+					jid, start, GAME_PAGE_SIZE, platforms);
+			for (final PsnGameDataOfficial game : page)
+				gameIds.add(game.getGameId());
+			if (page.size() < GAME_PAGE_SIZE) break;
+		}
+
+		final Map<String, List<PsnTrophyDataOfficial>> lists = client
+				.getOfficialTrophyLists(jid, gameIds);
+		final SyncState previous = new SyncState();
+		previous.games.putAll(state.games);
+		state.games.clear();
+		final List<PsnTrophyDataOfficial> changed = new ArrayList<PsnTrophyDataOfficial>();
+		for (final Map.Entry<String, List<PsnTrophyDataOfficial>> entry : lists
+				.entrySet()) {
+			state.putGame(entry.getKey());
+			for (final PsnTrophyDataOfficial trophy : entry.getValue()) {
+				state.put(trophy);
+				if (previous.isChanged(trophy)) changed.add(trophy);
+			}
+		}
+
+		fullSyncs.incrementAndGet();
+		return changed;
+	}
+
+	private List<PsnTrophyDataOfficial> mergeDelta(final String jid,
+			final SyncState state, final List<PsnTrophyDataOfficial> delta)
+			throws IOException, PlayStationNetworkException {
+		final Set<String> newGames = new LinkedHashSet<String>();
+		for (final PsnTrophyDataOfficial trophy : delta)
+			if (!state.games.containsKey(trophy.getGameId())) newGames
+					.add(trophy.getGameId());
+
+		final List<PsnTrophyDataOfficial> changed = new ArrayList<PsnTrophyDataOfficial>();
+		if (!newGames.isEmpty()) {
+			log.debug("Delta of [{}] has new games {}", jid, newGames);
+			for (final Map.Entry<String, List<PsnTrophyDataOfficial>> entry : client
+					.getOfficialTrophyLists(jid, newGames).entrySet()) {
+				state.putGame(entry.getKey());
+				for (final PsnTrophyDataOfficial trophy : entry.getValue()) {
+					state.put(trophy);
+					changed.add(trophy);
+				}
+			}
+		}
+
+		for (final PsnTrophyDataOfficial trophy : delta) {
+			if (newGames.contains(trophy.getGameId())) continue;
+			if (state.isChanged(trophy)) {
+				state.put(trophy);
+				changed.add(trophy);
+			}
+		}
+
+		return changed;
+	}
+
+	private static final class SyncState {
+		final Map<String, TreeMap<Integer, PsnTrophyDataOfficial>> games;
+		String since;
+
+		SyncState() {
+			games = new LinkedHashMap<String, TreeMap<Integer, PsnTrophyDataOfficial>>();
+		}
+
+		TreeMap<Integer, PsnTrophyDataOfficial> putGame(final String gameId) {
+			TreeMap<Integer, PsnTrophyDataOfficial> trophies = games
+					.get(gameId);
+			if (trophies == null) {
+				trophies = new TreeMap<Integer, PsnTrophyDataOfficial>();
+				games.put(gameId, trophies);
+			}
+			return trophies;
+		}
+
+		void put(final PsnTrophyDataOfficial trophy) {
+			putGame(trophy.getGameId()).put(
+					Integer.valueOf(trophy.getIndex()), trophy);
+		}
+
+		boolean isChanged(final PsnTrophyDataOfficial trophy) {
+			final TreeMap<Integer, PsnTrophyDataOfficial> trophies = games
+					.get(trophy.getGameId());
+			if (trophies == null) return true;
+			final PsnTrophyDataOfficial old = trophies.get(Integer
+					.valueOf(trophy.getIndex()));
+			if (old == null) return true;
+			final String date = trophy.getDateEarned();
+			return date == null ? old.getDateEarned() != null : !date
+					.equals(old.getDateEarned());
+		}
+	}
+
+}
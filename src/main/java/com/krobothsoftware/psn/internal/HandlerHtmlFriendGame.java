@@ -26,13 +26,13 @@ import org.xml.sax.SAXException;
 import com.krobothsoftware.commons.parse.Expression;
 import com.krobothsoftware.commons.parse.ExpressionFilter;
 import com.krobothsoftware.commons.parse.HandlerHtml;
-import com.krobothsoftware.commons.parse.StopSAXException;
+import com.krobothsoftware.commons.parse.TextBuffer;
 import com.krobothsoftware.psn.PsnUtils;
 import com.krobothsoftware.psn.model.PsnGameData;
 
 /**
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Dec 24 2012
  * @author Kyle Kroboth
  */
@@ -55,6 +55,11 @@ public final class HandlerHtmlFriendGame extends HandlerHtml implements
 		return list;
 	}
 
+	@Override
+	public int getItemCount() {
+		return list.size();
+	}
+
 	@Override
 	public Expression getExpression() {
 		return expr;
@@ -97,8 +102,8 @@ public final class HandlerHtmlFriendGame extends HandlerHtml implements
 	@Override
 	public boolean endElement(int expr, String uri, String localName,
 			String qName) throws SAXException {
+		// parsing stops when tbody ends
 		if (!friend && tr == 1 && qLocal(qName, localName).equals("tr")) friend = true;
-		else if (td == -1 && qLocal(qName, localName).equals("table")) throw new StopSAXException();
 
 		return true;
 	}
@@ -111,25 +116,21 @@ public final class HandlerHtmlFriendGame extends HandlerHtml implements
 			// System.out.println(new String(ch, start, length) + " " + td);
 			switch (td) {
 			case 7:
-				builder.setBronze(Integer
-						.parseInt(new String(ch, start, length)));
+				builder.setBronze(TextBuffer.parseInt(ch, start, length, 10));
 				break;
 			case 8:
-				builder.setSilver(Integer
-						.parseInt(new String(ch, start, length)));
+				builder.setSilver(TextBuffer.parseInt(ch, start, length, 10));
 				break;
 			case 9:
-				builder.setGold(Integer.parseInt(new String(ch, start, length)));
+				builder.setGold(TextBuffer.parseInt(ch, start, length, 10));
 				break;
 			case 10:
-				builder.setPlatinum(Integer.parseInt(new String(ch, start,
-						length)));
+				builder.setPlatinum(TextBuffer.parseInt(ch, start, length, 10));
 				break;
 			case 13:
-				String str = new String(ch, start, length);
+				// progress ends with %
 				list.add(builder.setProgress(
-						Integer.parseInt(str.substring(0, str.length() - 1)))
-						.build());
+						TextBuffer.parseInt(ch, start, length - 1, 10)).build());
 				td = -1;
 				tr = -1;
 				break;
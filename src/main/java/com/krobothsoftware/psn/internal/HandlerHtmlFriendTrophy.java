@@ -40,7 +40,7 @@ import com.krobothsoftware.psn.model.PsnTrophyData;
 
 /**
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Dec 24 2012
  * @author Kyle Kroboth
  */
@@ -64,6 +64,11 @@ public final class HandlerHtmlFriendTrophy extends HandlerHtml implements
 		return list;
 	}
 
+	@Override
+	public int getItemCount() {
+		return list.size();
+	}
+
 	@Override
 	public Expression getExpression() {
 		return expr;
@@ -136,8 +141,6 @@ public final class HandlerHtmlFriendTrophy extends HandlerHtml implements
 	public void characters(int expr, char[] ch, int start, int length)
 			throws SAXException {
 
-		String str;
-
 		if (calledStartElement) {
 			if (expr == 1) {
 				switch (type) {
@@ -153,9 +156,9 @@ public final class HandlerHtmlFriendTrophy extends HandlerHtml implements
 					// type++;
 					break;
 				case 11:
-					// get date
-					str = new String(ch, start, length);
-					list.add(builder.setDateEarned(str.substring(9))
+					// get date, after 9 character label
+					list.add(builder
+							.setDateEarned(new String(ch, start + 9, length - 9))
 							.setIndex(++trophy).build());
 					builder.setDateEarned(null);
 					type = 0;
@@ -26,13 +26,13 @@ import org.xml.sax.SAXException;
 import com.krobothsoftware.commons.parse.Expression;
 import com.krobothsoftware.commons.parse.ExpressionFilter;
 import com.krobothsoftware.commons.parse.HandlerHtml;
-import com.krobothsoftware.commons.parse.StopSAXException;
+import com.krobothsoftware.commons.parse.TextBuffer;
 import com.krobothsoftware.psn.PsnUtils;
 import com.krobothsoftware.psn.model.PsnGameData;
 
 /**
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Dec 24 2012
  * @author Kyle Kroboth
  */
@@ -53,6 +53,11 @@ public final class HandlerHtmlUKGame extends HandlerHtml implements
 		return list;
 	}
 
+	@Override
+	public int getItemCount() {
+		return list.size();
+	}
+
 	@Override
 	public Expression getExpression() {
 		return expr;
@@ -93,25 +98,21 @@ public final class HandlerHtmlUKGame extends HandlerHtml implements
 		if (calledStartElement) {
 			switch (td) {
 			case 2:
-				builder.setBronze(Integer
-						.parseInt(new String(ch, start, length)));
+				builder.setBronze(TextBuffer.parseInt(ch, start, length, 10));
 				break;
 			case 3:
-				builder.setSilver(Integer
-						.parseInt(new String(ch, start, length)));
+				builder.setSilver(TextBuffer.parseInt(ch, start, length, 10));
 				break;
 			case 4:
-				builder.setGold(Integer.parseInt(new String(ch, start, length)));
+				builder.setGold(TextBuffer.parseInt(ch, start, length, 10));
 				break;
 			case 5:
-				builder.setPlatinum(Integer.parseInt(new String(ch, start,
-						length)));
+				builder.setPlatinum(TextBuffer.parseInt(ch, start, length, 10));
 				break;
 			case 8:
-				String str = new String(ch, start, length);
+				// progress ends with %
 				list.add(builder.setProgress(
-						Integer.parseInt(str.substring(0, str.length() - 1)))
-						.build());
+						TextBuffer.parseInt(ch, start, length - 1, 10)).build());
 				td = -1;
 				break;
 			}
@@ -124,8 +125,7 @@ public final class HandlerHtmlUKGame extends HandlerHtml implements
 	@Override
 	public boolean endElement(int expr, String uri, String localName,
 			String qName) throws SAXException {
-		if (qLocal(qName, localName).equals("table")) throw new StopSAXException();
-
+		// parsing stops when tbody ends
 		return true;
 	}
 }
@@ -40,7 +40,7 @@ import com.krobothsoftware.psn.model.PsnTrophyData;
 
 /**
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Dec 24 2012
  * @author Kyle Kroboth
  */
@@ -63,6 +63,11 @@ public final class HandlerHtmlUKTrophy extends HandlerHtml implements
 		return list;
 	}
 
+	@Override
+	public int getItemCount() {
+		return list.size();
+	}
+
 	@Override
 	public Expression getExpression() {
 		return expr;
@@ -122,8 +127,6 @@ public final class HandlerHtmlUKTrophy extends HandlerHtml implements
 	public void characters(int expr, char[] ch, int start, int length)
 			throws SAXException {
 
-		String str;
-
 		if (calledStartElement) {
 			if (expr == 1) {
 				switch (type) {
@@ -133,9 +136,8 @@ public final class HandlerHtmlUKTrophy extends HandlerHtml implements
 							length)));
 					break;
 				case 3:
-					// date
-					str = new String(ch, start, length);
-					builder.setDateEarned(str.substring(9));
+					// date, after 9 character label
+					builder.setDateEarned(new String(ch, start + 9, length - 9));
 					break;
 				case 4:
 					// description
@@ -24,13 +24,13 @@ import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
 import com.krobothsoftware.commons.parse.HandlerHtml;
-import com.krobothsoftware.commons.util.CommonUtils;
+import com.krobothsoftware.commons.parse.TextBuffer;
 import com.krobothsoftware.psn.PsnUtils;
 import com.krobothsoftware.psn.model.PsnGameData;
 
 /**
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Dec 24 2012
  * @author Kyle Kroboth
  */
@@ -48,6 +48,11 @@ public final class HandlerHtmlUSGame extends HandlerHtml {
 		return list;
 	}
 
+	@Override
+	public int getItemCount() {
+		return list.size();
+	}
+
 	@Override
 	public void startElement(String uri, String localName, String qName,
 			Attributes attributes) throws SAXException {
@@ -86,29 +91,24 @@ public final class HandlerHtmlUSGame extends HandlerHtml {
 		if (calledStartElement) {
 			switch (type) {
 			case 3:
-				builder.setProgress(Integer.parseInt(new String(ch, start,
-						length)));
+				builder.setProgress(TextBuffer.parseInt(ch, start, length, 10));
 				type++;
 				break;
 			case 7:
-				builder.setBronze(Integer.parseInt(CommonUtils.trim(new String(
-						ch, start, length))));
+				builder.setBronze(TextBuffer.parseInt(ch, start, length, 10));
 				type++;
 				break;
 			case 9:
-				builder.setSilver(Integer.parseInt(CommonUtils.trim(new String(
-						ch, start, length))));
+				builder.setSilver(TextBuffer.parseInt(ch, start, length, 10));
 				type++;
 				break;
 			case 11:
-				builder.setGold(Integer.parseInt(CommonUtils.trim(new String(
-						ch, start, length))));
+				builder.setGold(TextBuffer.parseInt(ch, start, length, 10));
 				type++;
 				break;
 			case 13:
 				list.add(builder.setPlatinum(
-						Integer.parseInt(CommonUtils.trim(new String(ch, start,
-								length)))).build());
+						TextBuffer.parseInt(ch, start, length, 10)).build());
 				type = -1;
 				break;
 			}
@@ -57,6 +57,11 @@ public final class HandlerHtmlUSTrophy extends HandlerHtml {
 		return responseId;
 	}
 
+	@Override
+	public int getItemCount() {
+		return list.size();
+	}
+
 	@Override
 	public void startElement(String uri, String localName, String qName,
 			Attributes attributes) throws SAXException {
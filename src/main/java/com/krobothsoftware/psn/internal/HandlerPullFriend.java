@@ -0,0 +1,157 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.krobothsoftware.commons.parse.HandlerPull;
+import com.krobothsoftware.commons.parse.ParseException;
+import com.krobothsoftware.commons.parse.PullReader;
+import com.krobothsoftware.psn.model.FriendStatus;
+import com.krobothsoftware.psn.model.PsnFriendData;
+
+/**
+ * Pull version of {@link HandlerXmlFriend}.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public final class HandlerPullFriend extends HandlerPull {
+	private static final String PSN_FRIEND = "psn_friend";
+	private static final String ONLINEID = "onlineid";
+	private static final String CURRENT_PRESENCE = "current_presence";
+	private static final String CURRENT_GAME = "current_game";
+	private static final String CURRENT_AVATAR = "current_avatar";
+	private static final String COMMENT = "comment";
+	private static final String PLAYSTATION_PLUS = "playstationplus";
+
+	private static final String LEVEL = "level";
+	private static final String PLATINUM = "platinum";
+	private static final String GOLD = "gold";
+	private static final String SILVER = "silver";
+	private static final String BRONZE = "bronze";
+
+	// index of element is the text it holds
+	private static final String[] TEXT_ELEMENTS = { ONLINEID,
+			CURRENT_PRESENCE, CURRENT_GAME, CURRENT_AVATAR, COMMENT,
+			PLAYSTATION_PLUS, LEVEL, PLATINUM, GOLD, SILVER, BRONZE };
+	private static final int NONE = -1;
+	private static final int TEXT_ONLINEID = 0;
+	private static final int TEXT_CURRENT_PRESENCE = 1;
+	private static final int TEXT_CURRENT_GAME = 2;
+	private static final int TEXT_CURRENT_AVATAR = 3;
+	private static final int TEXT_COMMENT = 4;
+	private static final int TEXT_PLAYSTATION_PLUS = 5;
+	private static final int TEXT_LEVEL = 6;
+	private static final int TEXT_PLATINUM = 7;
+	private static final int TEXT_GOLD = 8;
+	private static final int TEXT_SILVER = 9;
+	private static final int TEXT_BRONZE = 10;
+
+	private final List<PsnFriendData> list;
+	private final PsnFriendData.Builder builder;
+
+	public HandlerPullFriend() {
+		list = new ArrayList<PsnFriendData>();
+		builder = new PsnFriendData.Builder();
+	}
+
+	public List<PsnFriendData> getFriendList() {
+		return list;
+	}
+
+	@Override
+	public int getItemCount() {
+		return list.size();
+	}
+
+	@Override
+	protected void parse(final PullReader reader) throws ParseException {
+		int text = NONE;
+		int event;
+
+		while ((event = reader.next()) != PullReader.END_DOCUMENT) {
+			if (event == PullReader.START_ELEMENT) {
+				text = NONE;
+				for (int i = 0; i < TEXT_ELEMENTS.length; i++) {
+					if (reader.isName(TEXT_ELEMENTS[i])) {
+						text = i;
+						break;
+					}
+				}
+			} else if (event == PullReader.TEXT) {
+				characters(reader, text);
+				text = NONE;
+			} else {
+				text = NONE;
+				if (reader.isName(PSN_FRIEND)) list.add(builder.build());
+			}
+		}
+	}
+
+	private void characters(final PullReader reader, final int text)
+			throws ParseException {
+		switch (text) {
+		case TEXT_ONLINEID:
+			builder.setPsnId(reader.getText());
+			break;
+		case TEXT_CURRENT_PRESENCE:
+			builder.setPresence(getOnlineStatus(reader));
+			break;
+		case TEXT_CURRENT_GAME:
+			builder.setGame(reader.isText("null") ? null : reader.getText());
+			break;
+		case TEXT_CURRENT_AVATAR:
+			builder.setAvatar(reader.getText());
+			break;
+		case TEXT_COMMENT:
+			builder.setComment(reader.isText("null") ? null : reader
+					.getText());
+			break;
+		case TEXT_PLAYSTATION_PLUS:
+			builder.setPP(reader.isText("true"));
+			break;
+		case TEXT_LEVEL:
+			builder.setLevel(reader.getTextInt());
+			break;
+		case TEXT_PLATINUM:
+			builder.setPlatinum(reader.getTextInt());
+			break;
+		case TEXT_GOLD:
+			builder.setGold(reader.getTextInt());
+			break;
+		case TEXT_SILVER:
+			builder.setSilver(reader.getTextInt());
+			break;
+		case TEXT_BRONZE:
+			builder.setBronze(reader.getTextInt());
+			break;
+		}
+	}
+
+	private FriendStatus getOnlineStatus(final PullReader reader) {
+		if (reader.isText("offline")) return FriendStatus.OFFLINE;
+		else if (reader.isText("online") || reader.isText("online-ingame")) return FriendStatus.ONLINE;
+		else if (reader.isText("online-away")
+				|| reader.isText("online-ingame-away")) return FriendStatus.AWAY;
+
+		return FriendStatus.OFFLINE;
+	}
+
+}
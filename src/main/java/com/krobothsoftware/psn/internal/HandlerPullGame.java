@@ -0,0 +1,124 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.krobothsoftware.commons.parse.HandlerPull;
+import com.krobothsoftware.commons.parse.ParseException;
+import com.krobothsoftware.commons.parse.PullReader;
+import com.krobothsoftware.psn.PlatformType;
+import com.krobothsoftware.psn.model.PsnGameDataOfficial;
+
+/**
+ * Pull version of {@link HandlerXmlGame}.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public final class HandlerPullGame extends HandlerPull {
+	private static final String TITLE = "title";
+	private static final String NPTROPHY = "nptrophy";
+	private static final String NPCOMMID = "npcommid";
+	private static final String PF = "pf";
+	private static final String INFO = "info";
+	private static final String TYPES = "types";
+	private static final String TYPES_PLATINUM = "platinum";
+	private static final String TYPES_GOLD = "gold";
+	private static final String TYPES_SILVER = "silver";
+	private static final String TYPES_BRONZE = "bronze";
+	private static final String LAST_UPDATED = "last-updated";
+
+	private static final int NONE = 0;
+	private static final int TEXT_TITLE = 1;
+	private static final int TEXT_LAST_UPDATED = 2;
+
+	private String result;
+	private int numberOfGames;
+
+	private List<PsnGameDataOfficial> list;
+	private final PsnGameDataOfficial.Builder builder;
+
+	public HandlerPullGame(final String jid) {
+		builder = new PsnGameDataOfficial.Builder(jid);
+	}
+
+	public List<PsnGameDataOfficial> getGames() {
+		return list != null ? list : new ArrayList<PsnGameDataOfficial>(
+				numberOfGames);
+	}
+
+	public String getResult() {
+		return result;
+	}
+
+	/**
+	 * Gets amount of games from <code>title</code> element.
+	 * 
+	 * @return total games, zero if not found
+	 */
+	public int getTotalGames() {
+		return numberOfGames;
+	}
+
+	@Override
+	public int getItemCount() {
+		return list != null ? list.size() : 0;
+	}
+
+	@Override
+	protected void parse(final PullReader reader) throws ParseException {
+		int text = NONE;
+		int event;
+
+		while ((event = reader.next()) != PullReader.END_DOCUMENT) {
+			if (event == PullReader.START_ELEMENT) {
+				text = NONE;
+				if (reader.isName(INFO)) {
+					builder.setGameId(reader.getAttribute(NPCOMMID));
+					builder.setPlatform(PlatformType.getPlatform(reader
+							.getAttribute(PF)));
+				} else if (reader.isName(TYPES)) {
+					builder.setPlatinum(reader.getAttributeInt(TYPES_PLATINUM,
+							10));
+					builder.setGold(reader.getAttributeInt(TYPES_GOLD, 10));
+					builder.setSilver(reader.getAttributeInt(TYPES_SILVER, 10));
+					builder.setBronze(reader.getAttributeInt(TYPES_BRONZE, 10));
+				} else if (reader.isName(LAST_UPDATED)) text = TEXT_LAST_UPDATED;
+				else if (reader.isName(TITLE)) text = TEXT_TITLE;
+				else if (reader.isName(NPTROPHY)) result = reader
+						.getAttribute("result");
+			} else if (event == PullReader.TEXT) {
+				if (text == TEXT_LAST_UPDATED) builder.setLastUpdated(reader
+						.getText());
+				else if (text == TEXT_TITLE) numberOfGames = reader
+						.getTextInt();
+				text = NONE;
+			} else {
+				text = NONE;
+				if (reader.isName(INFO)) {
+					if (list == null) list = new ArrayList<PsnGameDataOfficial>(
+							numberOfGames);
+					list.add(builder.build());
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.internal;
+
+import com.krobothsoftware.commons.parse.HandlerPull;
+import com.krobothsoftware.commons.parse.ParseException;
+import com.krobothsoftware.commons.parse.PullReader;
+import com.krobothsoftware.psn.model.PsnProfileData;
+
+/**
+ * Pull version of {@link HandlerXmlProfile}.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public final class HandlerPullProfile extends HandlerPull {
+	private static final String ONLINE_NAME = "onlinename";
+	private static final String COUNTRY = "country";
+	private static final String ABOUT_ME = "aboutme";
+	private static final String AVATAR = "avatarurl";
+	private static final String COLOR = "ucbgp";
+	private static final String PLUS = "plusicon";
+
+	private static final String POINT = "point";
+	private static final String LEVEL = "level";
+	private static final String LEVEL_BASE = "base";
+	private static final String LEVEL_NEXT = "next";
+	private static final String LEVEL_PROGRESS = "progress";
+	private static final String TYPES = "types";
+	private static final String TYPES_PLATINUM = "platinum";
+	private static final String TYPES_GOLD = "gold";
+	private static final String TYPES_SILVER = "silver";
+	private static final String TYPES_BRONZE = "bronze";
+	private static final String PANEL = "panelurl";
+	private static final String PANEL_BGC = "bgc";
+
+	private static final int DEFAULT_COLOR = 0x989898;
+
+	private static final int NONE = 0;
+	private static final int TEXT_ONLINE_NAME = 1;
+	private static final int TEXT_AVATAR = 2;
+	private static final int TEXT_ABOUT_ME = 3;
+	private static final int TEXT_COUNTRY = 4;
+	private static final int TEXT_PLUS = 5;
+	private static final int TEXT_COLOR = 6;
+	private static final int TEXT_POINT = 7;
+	private static final int TEXT_LEVEL = 8;
+	private static final int TEXT_PANEL = 9;
+
+	private String id;
+	private int backgroundColor;
+
+	private final PsnProfileData.Builder builder;
+
+	public HandlerPullProfile() {
+		builder = new PsnProfileData.Builder();
+	}
+
+	public PsnProfileData getProfile() {
+		if (id == null) return null;
+
+		return builder
+				.setBackgroundColor(
+						backgroundColor != 0 ? backgroundColor : DEFAULT_COLOR)
+				.setJid(id).build();
+	}
+
+	@Override
+	public int getItemCount() {
+		return id != null ? 1 : 0;
+	}
+
+	@Override
+	protected void parse(final PullReader reader) throws ParseException {
+		int text = NONE;
+		int event;
+
+		while ((event = reader.next()) != PullReader.END_DOCUMENT) {
+			if (event == PullReader.START_ELEMENT) text = startElement(reader);
+			else if (event == PullReader.TEXT) {
+				characters(reader, text);
+				text = NONE;
+			} else
+				text = NONE;
+		}
+	}
+
+	/**
+	 * Reads attributes of element.
+	 * 
+	 * @return which text the element holds
+	 */
+	private int startElement(final PullReader reader) throws ParseException {
+		if (reader.isName(ONLINE_NAME)) return TEXT_ONLINE_NAME;
+		else if (reader.isName(AVATAR)) return TEXT_AVATAR;
+		else if (reader.isName(ABOUT_ME)) return TEXT_ABOUT_ME;
+		else if (reader.isName(COUNTRY)) return TEXT_COUNTRY;
+		else if (reader.isName(PLUS)) return TEXT_PLUS;
+		else if (reader.isName(COLOR)) return TEXT_COLOR;
+		else if (reader.isName(POINT)) return TEXT_POINT;
+		else if (reader.isName(LEVEL)) {
+			builder.setLevelFloor(reader.getAttributeInt(LEVEL_BASE, 10));
+			builder.setLevelCeiling(reader.getAttributeInt(LEVEL_NEXT, 10));
+			builder.setProgress(reader.getAttributeInt(LEVEL_PROGRESS, 10));
+			return TEXT_LEVEL;
+		} else if (reader.isName(TYPES)) {
+			builder.setPlatinum(reader.getAttributeInt(TYPES_PLATINUM, 10));
+			builder.setGold(reader.getAttributeInt(TYPES_GOLD, 10));
+			builder.setSilver(reader.getAttributeInt(TYPES_SILVER, 10));
+			builder.setBronze(reader.getAttributeInt(TYPES_BRONZE, 10));
+		} else if (reader.isName(PANEL)) {
+			builder.setPanelBackgroundColor(reader.getAttributeInt(PANEL_BGC,
+					16));
+			return TEXT_PANEL;
+		}
+
+		return NONE;
+	}
+
+	private void characters(final PullReader reader, final int text)
+			throws ParseException {
+		String str;
+
+		switch (text) {
+		case TEXT_ONLINE_NAME:
+			id = reader.getText();
+			break;
+		case TEXT_AVATAR:
+			builder.setAvatar(reader.getText());
+			break;
+		case TEXT_ABOUT_ME:
+			builder.setAboutMe(reader.getText());
+			break;
+		case TEXT_COUNTRY:
+			builder.setCountry(PsnProfileData.CULTURE_MAP.get(reader.getText()
+					.toUpperCase()));
+			break;
+		case TEXT_PLUS:
+			builder.setPP(!reader.isText("0"));
+			break;
+		case TEXT_COLOR:
+			str = reader.getText();
+			backgroundColor = Integer.parseInt(
+					str.substring(8, str.length() - 2), 16);
+			break;
+		case TEXT_POINT:
+			builder.setPoints(reader.getTextInt());
+			break;
+		case TEXT_LEVEL:
+			builder.setLevel(reader.getTextInt());
+			break;
+		case TEXT_PANEL:
+			builder.setPanel(reader.getText());
+			break;
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+/* ===================================================
+ * Copyright 2012 Kroboth Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ========================================================== 
+ */
+
+package com.krobothsoftware.psn.internal;
+
+import static com.krobothsoftware.psn.TrophyType.BRONZE;
+import static com.krobothsoftware.psn.TrophyType.GOLD;
+import static com.krobothsoftware.psn.TrophyType.PLATINUM;
+import static com.krobothsoftware.psn.TrophyType.SILVER;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.krobothsoftware.commons.parse.HandlerPull;
+import com.krobothsoftware.commons.parse.ParseException;
+import com.krobothsoftware.commons.parse.PullReader;
+import com.krobothsoftware.psn.PlatformType;
+import com.krobothsoftware.psn.model.PsnTrophyDataOfficial;
+
+/**
+ * Pull version of {@link HandlerXmlTrophy}.
+ * 
+ * @version 3.1
+ * @since Oct 18 2026
+ */
+public final class HandlerPullTrophy extends HandlerPull {
+	private static final String INFO = "info";
+	private static final String NPTROPHY = "nptrophy";
+	private static final String NPCOMMID = "npcommid";
+	private static final String PF = "pf";
+	private static final String TROPHY = "trophy";
+	private static final String TROPHY_ID = "id";
+	private static final String TROPHY_TYPE = "type";
+
+	private final List<PsnTrophyDataOfficial> list;
+	private final PsnTrophyDataOfficial.Builder builder;
+
+	private String result;
+
+	public HandlerPullTrophy(final String psnId) {
+		list = new ArrayList<PsnTrophyDataOfficial>();
+		builder = new PsnTrophyDataOfficial.Builder(psnId);
+	}
+
+	public List<PsnTrophyDataOfficial> getTrophyList() {
+		return list;
+	}
+
+	public String getResult() {
+		return result;
+	}
+
+	@Override
+	public int getItemCount() {
+		return list.size();
+	}
+
+	@Override
+	protected void parse(final PullReader reader) throws ParseException {
+		boolean inTrophy = false;
+		int event;
+
+		while ((event = reader.next()) != PullReader.END_DOCUMENT) {
+			if (event == PullReader.START_ELEMENT) {
+				inTrophy = false;
+				if (reader.isName(TROPHY)) {
+					startTrophy(reader);
+					inTrophy = true;
+				} else if (reader.isName(INFO)) {
+					builder.setGameId(reader.getAttribute(NPCOMMID));
+					builder.setPlatform(PlatformType.getPlatform(reader
+							.getAttribute(PF)));
+				} else if (reader.isName(NPTROPHY)) result = reader
+						.getAttribute("result");
+			} else if (event == PullReader.TEXT) {
+				// earned date is the trophy's text
+				if (inTrophy) builder.setDateEarned(reader.getText());
+				inTrophy = false;
+			} else {
+				inTrophy = false;
+				if (reader.isName(TROPHY)) list.add(builder.build());
+			}
+		}
+	}
+
+	private void startTrophy(final PullReader reader) throws ParseException {
+		builder.setIndex(reader.getAttributeInt(TROPHY_ID, 10));
+		if (reader.hasAttribute(NPCOMMID)) builder.setGameId(reader
+				.getAttribute(NPCOMMID));
+		switch (reader.getAttributeInt(TROPHY_TYPE, 10)) {
+		case 0:
+			builder.setTrophyType(BRONZE);
+			break;
+		case 1:
+			builder.setTrophyType(SILVER);
+			break;
+		case 2:
+			builder.setTrophyType(GOLD);
+			break;
+		case 3:
+			builder.setTrophyType(PLATINUM);
+			break;
+		}
+		if (reader.hasAttribute(PF)) builder.setPlatform(PlatformType
+				.getPlatform(reader.getAttribute(PF)));
+	}
+
+}
@@ -20,15 +20,17 @@ package com.krobothsoftware.psn.internal;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
 import com.krobothsoftware.commons.parse.HandlerXml;
+import com.krobothsoftware.commons.parse.TextBuffer;
 import com.krobothsoftware.psn.model.FriendStatus;
 import com.krobothsoftware.psn.model.PsnFriendData;
 
 /**
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Nov 25 2012
  * @author Kyle Kroboth
  */
@@ -49,10 +51,12 @@ public final class HandlerXmlFriend extends HandlerXml {
 
 	private final List<PsnFriendData> list;
 	private final PsnFriendData.Builder builder;
+	private final TextBuffer text;
 
 	public HandlerXmlFriend() {
 		list = new ArrayList<PsnFriendData>();
 		builder = new PsnFriendData.Builder();
+		text = new TextBuffer();
 	}
 
 	public List<PsnFriendData> getFriendList() {
@@ -60,58 +64,64 @@ public final class HandlerXmlFriend extends HandlerXml {
 	}
 
 	@Override
-	public void endElement(final String uri, final String localName,
-			final String qName) throws SAXException {
-
-		if (qLocal(qName, localName).equalsIgnoreCase(PSN_FRIEND)) list
-				.add(builder.build());
-
+	public int getItemCount() {
+		return list.size();
 	}
 
 	@Override
-	public void characters(final char[] ch, final int start, final int length)
+	public void startElement(final String uri, final String localName,
+			final String qName, final Attributes attributes)
 			throws SAXException {
+		super.startElement(uri, localName, qName, attributes);
+		text.clear();
+	}
 
-		String str;
-
-		if (calledStartElement) {
-			if (startTag.equalsIgnoreCase(ONLINEID)) builder
-					.setPsnId(new String(ch, start, length));
-			else if (startTag.equalsIgnoreCase(CURRENT_PRESENCE)) builder
-					.setPresence(getOnlineStatus(new String(ch, start, length)));
-			else if (startTag.equalsIgnoreCase(CURRENT_GAME)) {
-				str = new String(ch, start, length);
-				builder.setGame(str.equals("null") ? null : str);
-			} else if (startTag.equalsIgnoreCase(CURRENT_AVATAR)) builder
-					.setAvatar(new String(ch, start, length));
-			else if (startTag.equalsIgnoreCase(COMMENT)) {
-				str = new String(ch, start, length);
-				builder.setComment(str.equals("null") ? null : str);
-			} else if (startTag.equalsIgnoreCase(PLAYSTATION_PLUS)) builder
-					.setPP(Boolean.parseBoolean(new String(ch, start, length)));
-			else if (startTag.equalsIgnoreCase(LEVEL)) builder.setLevel(Integer
-					.parseInt(new String(ch, start, length)));
-			else if (startTag.equalsIgnoreCase(PLATINUM)) builder
-					.setPlatinum(Integer
-							.parseInt(new String(ch, start, length)));
-			else if (startTag.equalsIgnoreCase(GOLD)) builder.setGold(Integer
-					.parseInt(new String(ch, start, length)));
-			else if (startTag.equalsIgnoreCase(SILVER)) builder
-					.setSilver(Integer.parseInt(new String(ch, start, length)));
-			else if (startTag.equalsIgnoreCase(BRONZE)) builder
-					.setBronze(Integer.parseInt(new String(ch, start, length)));
+	@Override
+	public void endElement(final String uri, final String localName,
+			final String qName) throws SAXException {
+		final String tag = qLocal(qName, localName);
+
+		if (tag.equalsIgnoreCase(PSN_FRIEND)) list.add(builder.build());
+		else if (!text.isEmpty()) {
+			if (tag.equalsIgnoreCase(ONLINEID)) builder.setPsnId(text
+					.toString());
+			else if (tag.equalsIgnoreCase(CURRENT_PRESENCE)) builder
+					.setPresence(getOnlineStatus());
+			else if (tag.equalsIgnoreCase(CURRENT_GAME)) builder.setGame(text
+					.equalsIgnoreCase("null") ? null : text.intern());
+			else if (tag.equalsIgnoreCase(CURRENT_AVATAR)) builder
+					.setAvatar(text.intern());
+			else if (tag.equalsIgnoreCase(COMMENT)) builder.setComment(text
+					.equalsIgnoreCase("null") ? null : text.toString());
+			else if (tag.equalsIgnoreCase(PLAYSTATION_PLUS)) builder.setPP(text
+					.parseBoolean());
+			else if (tag.equalsIgnoreCase(LEVEL)) builder.setLevel(text
+					.parseInt());
+			else if (tag.equalsIgnoreCase(PLATINUM)) builder.setPlatinum(text
+					.parseInt());
+			else if (tag.equalsIgnoreCase(GOLD)) builder.setGold(text
+					.parseInt());
+			else if (tag.equalsIgnoreCase(SILVER)) builder.setSilver(text
+					.parseInt());
+			else if (tag.equalsIgnoreCase(BRONZE)) builder.setBronze(text
+					.parseInt());
 		}
 
-		calledStartElement = false;
+		text.clear();
+	}
 
+	@Override
+	public void characters(final char[] ch, final int start, final int length)
+			throws SAXException {
+		text.append(ch, start, length);
 	}
 
-	private FriendStatus getOnlineStatus(final String currentPresence) {
-		if (currentPresence.equalsIgnoreCase("offline")) return FriendStatus.OFFLINE;
-		else if (currentPresence.equalsIgnoreCase("online")
-				|| currentPresence.equalsIgnoreCase("online-ingame")) return FriendStatus.ONLINE;
-		else if (currentPresence.equalsIgnoreCase("online-away")
-				|| currentPresence.equalsIgnoreCase("online-ingame-away")) return FriendStatus.AWAY;
+	private FriendStatus getOnlineStatus() {
+		if (text.equalsIgnoreCase("offline")) return FriendStatus.OFFLINE;
+		else if (text.equalsIgnoreCase("online")
+				|| text.equalsIgnoreCase("online-ingame")) return FriendStatus.ONLINE;
+		else if (text.equalsIgnoreCase("online-away")
+				|| text.equalsIgnoreCase("online-ingame-away")) return FriendStatus.AWAY;
 
 		return FriendStatus.OFFLINE;
 	}
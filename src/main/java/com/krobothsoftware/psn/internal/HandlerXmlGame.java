@@ -24,12 +24,13 @@ import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
 import com.krobothsoftware.commons.parse.HandlerXml;
+import com.krobothsoftware.commons.parse.TextBuffer;
 import com.krobothsoftware.psn.PlatformType;
 import com.krobothsoftware.psn.model.PsnGameDataOfficial;
 
 /**
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Nov 25 2012
  * @author Kyle Kroboth
  */
@@ -51,9 +52,11 @@ public final class HandlerXmlGame extends HandlerXml {
 
 	private List<PsnGameDataOfficial> list;
 	private final PsnGameDataOfficial.Builder builder;
+	private final TextBuffer text;
 
 	public HandlerXmlGame(final String jid) {
 		builder = new PsnGameDataOfficial.Builder(jid);
+		text = new TextBuffer(32);
 	}
 
 	public List<PsnGameDataOfficial> getGames() {
@@ -65,11 +68,26 @@ public final class HandlerXmlGame extends HandlerXml {
 		return result;
 	}
 
+	/**
+	 * Gets amount of games from <code>title</code> element.
+	 * 
+	 * @return total games, zero if not found
+	 */
+	public int getTotalGames() {
+		return numberOfGames;
+	}
+
+	@Override
+	public int getItemCount() {
+		return list != null ? list.size() : 0;
+	}
+
 	@Override
 	public void startElement(final String uri, final String localName,
 			final String qName, final Attributes attributes)
 			throws SAXException {
 		super.startElement(uri, localName, qName, attributes);
+		text.clear();
 
 		if (startTag.equalsIgnoreCase(NPTROPHY)) {
 			result = attributes.getValue("result");
@@ -93,11 +111,18 @@ public final class HandlerXmlGame extends HandlerXml {
 	public void endElement(final String uri, final String localName,
 			final String qName) throws SAXException {
 
-		if (qLocal(qName, localName).equalsIgnoreCase(INFO)) {
+		final String tag = qLocal(qName, localName);
+
+		if (tag.equalsIgnoreCase(INFO)) {
 
 			if (list == null) list = new ArrayList<PsnGameDataOfficial>(
 					numberOfGames);
 			list.add(builder.build());
+		} else if (!text.isEmpty()) {
+			if (tag.equalsIgnoreCase(LAST_UPDATED)) builder
+					.setLastUpdated(text.toString());
+			else if (tag.equalsIgnoreCase(TITLE)) numberOfGames = text
+					.parseInt();
 		}
 
 	}
@@ -105,16 +130,7 @@ public final class HandlerXmlGame extends HandlerXml {
 	@Override
 	public void characters(final char[] ch, final int start, final int length)
 			throws SAXException {
-
-		if (calledStartElement) {
-			if (startTag.equalsIgnoreCase(TITLE)) numberOfGames = Integer
-					.parseInt(new String(ch, start, length));
-			else if (startTag.equalsIgnoreCase(LAST_UPDATED)) builder
-					.setLastUpdated(new String(ch, start, length));
-		}
-
-		calledStartElement = false;
-
+		text.append(ch, start, length);
 	}
 
 }
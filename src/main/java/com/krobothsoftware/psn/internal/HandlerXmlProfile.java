@@ -21,11 +21,12 @@ import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
 import com.krobothsoftware.commons.parse.HandlerXml;
+import com.krobothsoftware.commons.parse.TextBuffer;
 import com.krobothsoftware.psn.model.PsnProfileData;
 
 /**
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Nov 25 2012
  * @author Kyle Kroboth
  */
@@ -56,24 +57,34 @@ public final class HandlerXmlProfile extends HandlerXml {
 	private int backgroundColor;
 
 	private final PsnProfileData.Builder builder;
+	private final TextBuffer text;
 
 	public HandlerXmlProfile() {
 		builder = new PsnProfileData.Builder();
+		text = new TextBuffer();
 	}
 
 	public PsnProfileData getProfile() {
 		if (id == null) return null;
-		if (backgroundColor == 0) builder.setBackgroundColor(DEFAULT_COLOR);
 
-		return builder.setBackgroundColor(backgroundColor).setJid(id).build();
+		return builder
+				.setBackgroundColor(
+						backgroundColor != 0 ? backgroundColor : DEFAULT_COLOR)
+				.setJid(id).build();
 
 	}
 
+	@Override
+	public int getItemCount() {
+		return id != null ? 1 : 0;
+	}
+
 	@Override
 	public void startElement(final String uri, final String localName,
 			final String qName, final Attributes attributes)
 			throws SAXException {
 		super.startElement(uri, localName, qName, attributes);
+		text.clear();
 
 		if (startTag.equalsIgnoreCase(LEVEL)) {
 			builder.setLevelFloor(Integer.parseInt(attributes
@@ -96,38 +107,36 @@ public final class HandlerXmlProfile extends HandlerXml {
 
 	}
 
+	@Override
+	public void endElement(final String uri, final String localName,
+			final String qName) throws SAXException {
+		if (text.isEmpty()) return;
+		final String tag = qLocal(qName, localName);
+
+		if (tag.equalsIgnoreCase(ONLINE_NAME)) id = text.toString();
+		else if (tag.equalsIgnoreCase(AVATAR)) builder.setAvatar(text
+				.toString());
+		else if (tag.equalsIgnoreCase(ABOUT_ME)) builder.setAboutMe(text
+				.toString());
+		else if (tag.equalsIgnoreCase(COUNTRY)) builder
+				.setCountry(PsnProfileData.CULTURE_MAP.get(text.toString()
+						.toUpperCase()));
+		else if (tag.equalsIgnoreCase(PLUS)) builder.setPP(!text
+				.equalsIgnoreCase("0"));
+		else if (tag.equals(COLOR)) {
+			// color is hex between first 8 and last 2 characters
+			backgroundColor = text.parseInt(8, text.length() - 2, 16);
+		} else if (tag.equalsIgnoreCase(POINT)) builder.setPoints(text
+				.parseInt());
+		else if (tag.equalsIgnoreCase(LEVEL)) builder.setLevel(text.parseInt());
+		else if (tag.equalsIgnoreCase(PANEL)) builder.setPanel(text.toString());
+
+		text.clear();
+	}
+
 	@Override
 	public void characters(final char[] ch, final int start, final int length)
 			throws SAXException {
-
-		String str;
-
-		if (calledStartElement) {
-			if (startTag.equalsIgnoreCase(ONLINE_NAME)) id = new String(ch,
-					start, length);
-			else if (startTag.equalsIgnoreCase(AVATAR)) builder
-					.setAvatar(new String(ch, start, length));
-			else if (startTag.equalsIgnoreCase(ABOUT_ME)) builder
-					.setAboutMe(new String(ch, start, length));
-			else if (startTag.equalsIgnoreCase(COUNTRY)) builder
-					.setCountry(PsnProfileData.CULTURE_MAP.get(new String(ch,
-							start, length).toUpperCase()));
-			else if (startTag.equalsIgnoreCase(PLUS)) builder.setPP(new String(
-					ch, start, length).equals("0") ? false : true);
-			else if (startTag.equals(COLOR)) {
-				str = new String(ch, start, length);
-				str = str.substring(8, str.length() - 2);
-				backgroundColor = Integer.parseInt(str, 16);
-			} else if (startTag.equalsIgnoreCase(POINT)) builder
-					.setPoints(Integer.parseInt(new String(ch, start, length)));
-			else if (startTag.equalsIgnoreCase(LEVEL)) builder.setLevel(Integer
-					.parseInt(new String(ch, start, length)));
-			else if (startTag.equalsIgnoreCase(PANEL)) builder
-					.setPanel(new String(ch, start, length));
-
-		}
-
-		calledStartElement = false;
-
+		text.append(ch, start, length);
 	}
 }
@@ -29,12 +29,13 @@ import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
 import com.krobothsoftware.commons.parse.HandlerXml;
+import com.krobothsoftware.commons.parse.TextBuffer;
 import com.krobothsoftware.psn.PlatformType;
 import com.krobothsoftware.psn.model.PsnTrophyDataOfficial;
 
 /**
  * 
- * @version 3.0.2
+ * @version 3.1
  * @since Nov 25 2012
  * @author Kyle Kroboth
  */
@@ -50,12 +51,14 @@ public final class HandlerXmlTrophy extends HandlerXml {
 
 	private final List<PsnTrophyDataOfficial> list;
 	private final PsnTrophyDataOfficial.Builder builder;
+	private final TextBuffer text;
 
 	private String result;
 
 	public HandlerXmlTrophy(final String psnId) {
 		list = new ArrayList<PsnTrophyDataOfficial>();
 		builder = new PsnTrophyDataOfficial.Builder(psnId);
+		text = new TextBuffer(32);
 	}
 
 	public List<PsnTrophyDataOfficial> getTrophyList() {
@@ -66,11 +69,17 @@ public final class HandlerXmlTrophy extends HandlerXml {
 		return result;
 	}
 
+	@Override
+	public int getItemCount() {
+		return list.size();
+	}
+
 	@Override
 	public void startElement(final String uri, final String localName,
 			final String qName, final Attributes attributes)
 			throws SAXException {
 		super.startElement(uri, localName, qName, attributes);
+		text.clear();
 
 		if (startTag.equalsIgnoreCase(NPTROPHY)) {
 			result = attributes.getValue("result");
@@ -106,19 +115,17 @@ public final class HandlerXmlTrophy extends HandlerXml {
 	public void endElement(final String uri, final String localName,
 			final String qName) throws SAXException {
 
-		if (qLocal(qName, localName).equalsIgnoreCase(TROPHY)) list.add(builder
-				.build());
+		if (qLocal(qName, localName).equalsIgnoreCase(TROPHY)) {
+			// earned date is the trophy's text
+			if (!text.isEmpty()) builder.setDateEarned(text.toString());
+			list.add(builder.build());
+		}
 	}
 
 	@Override
 	public void characters(final char[] ch, final int start, final int length)
 			throws SAXException {
-		if (calledStartElement) {
-			if (startTag.equalsIgnoreCase(TROPHY)) builder
-					.setDateEarned(new String(ch, start, length));
-		}
-
-		calledStartElement = false;
+		text.append(ch, start, length);
 	}
 
 }